@@ -0,0 +1,24 @@
+import benchmarks.AlgorithmBridge;
+
+/**
+ * Looks engines up by name in the AlgorithmRegistry, so the benchmarks cover every
+ * registered engine (and never touch JavaFX).
+ */
+public class HeadlessAlgorithmBridge implements AlgorithmBridge {
+
+    private final AlgorithmRegistry registry = AlgorithmRegistry.getDefault();
+
+    @Override
+    public IntSorter sorter(String algorithm) {
+        Sorter sorter = registry.sorter(algorithm)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort engine " + algorithm));
+        return sorter::sort;
+    }
+
+    @Override
+    public IntSearcher searcher(String algorithm) {
+        Searcher searcher = registry.searcher(algorithm)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown search engine " + algorithm));
+        return searcher::search;
+    }
+}
@@ -0,0 +1,42 @@
+package benchmarks;
+
+import java.util.ServiceLoader;
+
+/**
+ * Gives the benchmarks access to the algorithms, which live in the default package and
+ * therefore cannot be imported from here (and JMH refuses benchmarks in the default
+ * package). The implementation is registered through META-INF/services.
+ */
+public interface AlgorithmBridge {
+
+    /**
+     * An in-place int[] sort.
+     */
+    @FunctionalInterface
+    interface IntSorter {
+        void sort(int[] arr);
+    }
+
+    /**
+     * A point lookup returning an index, or a negative value when the key is missing.
+     */
+    @FunctionalInterface
+    interface IntSearcher {
+        int search(int[] arr, int target);
+    }
+
+    /**
+     * Returns the sorter for the SortingAlgorithm constant with the given name.
+     */
+    IntSorter sorter(String algorithm);
+
+    /**
+     * Returns the searcher for the SortingAlgorithm constant with the given name.
+     */
+    IntSearcher searcher(String algorithm);
+
+    static AlgorithmBridge load() {
+        return ServiceLoader.load(AlgorithmBridge.class).findFirst()
+                .orElseThrow(() -> new IllegalStateException("No AlgorithmBridge registered"));
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import java.util.SplittableRandom;
+
+/**
+ * Input distributions used by the benchmarks. All shapes are generated from a fixed
+ * seed so every run (and every algorithm) sees exactly the same data.
+ */
+public enum InputShape {
+    RANDOM,
+    SORTED,
+    REVERSED,
+    FEW_UNIQUE,
+    SAWTOOTH,
+    ORGAN_PIPE;
+
+    private static final long SEED = 42L;
+
+    /**
+     * Creates a new array of the given size with this shape.
+     */
+    public int[] generate(int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] data = new int[size];
+        switch (this) {
+            case RANDOM -> {
+                for (int i = 0; i < size; i++) {
+                    data[i] = random.nextInt();
+                }
+            }
+            case SORTED -> {
+                for (int i = 0; i < size; i++) {
+                    data[i] = i;
+                }
+            }
+            case REVERSED -> {
+                for (int i = 0; i < size; i++) {
+                    data[i] = size - i;
+                }
+            }
+            case FEW_UNIQUE -> {
+                for (int i = 0; i < size; i++) {
+                    data[i] = random.nextInt(16);
+                }
+            }
+            case SAWTOOTH -> {
+                // Ascending runs of roughly sqrt(n) elements each
+                int period = Math.max(1, (int) Math.sqrt(size));
+                for (int i = 0; i < size; i++) {
+                    data[i] = i % period;
+                }
+            }
+            case ORGAN_PIPE -> {
+                // Ascending first half, descending second half
+                int half = size / 2;
+                for (int i = 0; i < size; i++) {
+                    data[i] = i < half ? i : size - i;
+                }
+            }
+        }
+        return data;
+    }
+}
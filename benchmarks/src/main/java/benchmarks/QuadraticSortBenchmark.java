@@ -0,0 +1,46 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The sorts that can take O(n²): selection and insertion sort, and the textbook
+ * QUICK_SORT (last-element pivot), which is quadratic on sorted, few-unique and sawtooth
+ * inputs. Sizes stop at 1e5, beyond that a single invocation takes minutes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class QuadraticSortBenchmark {
+
+    @Param({"SELECTION_SORT", "INSERTION_SORT", "QUICK_SORT"})
+    public String algorithm;
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH", "ORGAN_PIPE"})
+    public InputShape shape;
+
+    private AlgorithmBridge.IntSorter sorter;
+    private int[] input;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = AlgorithmBridge.load().sorter(algorithm);
+        input = shape.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] algorithm() {
+        System.arraycopy(input, 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+}
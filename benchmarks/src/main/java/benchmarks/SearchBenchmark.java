@@ -0,0 +1,57 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups with Linear Search and Binary Search against the Arrays.binarySearch
+ * baseline, from 1e2 up to 1e8 elements. The table is sorted once during setup; each
+ * invocation looks up one key, half of which are present and half missing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--add-modules=jdk.incubator.vector"})
+public class SearchBenchmark {
+
+    /** Baseline: java.util.Arrays.binarySearch. */
+    static final String ARRAYS_BINARY_SEARCH = "ARRAYS_BINARY_SEARCH";
+
+    private static final int KEY_COUNT = 1 << 12;
+
+    @Param({"LINEAR_SEARCH", "VECTOR_LINEAR_SEARCH", "BINARY_SEARCH", ARRAYS_BINARY_SEARCH})
+    public String algorithm;
+
+    @Param({"100", "10000", "1000000", "100000000"})
+    public int size;
+
+    private AlgorithmBridge.IntSearcher searcher;
+    private int[] table;
+    private int[] keys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        searcher = ARRAYS_BINARY_SEARCH.equals(algorithm)
+                ? Arrays::binarySearch
+                : AlgorithmBridge.load().searcher(algorithm);
+        table = InputShape.RANDOM.generate(size);
+        Arrays.sort(table);
+        SplittableRandom random = new SplittableRandom(7L);
+        keys = new int[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = (i & 1) == 0 ? table[random.nextInt(size)] : random.nextInt();
+        }
+    }
+
+    @Benchmark
+    public int algorithm() {
+        int key = keys[next++ & (KEY_COUNT - 1)];
+        return searcher.search(table, key);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The O(n log n) / O(d * n) sorts against the Arrays.sort and Arrays.parallelSort baselines,
+ * from 1e2 up to 1e8 elements. Every invocation copies the prepared input into a work
+ * array first; the copy is included in all measurements, the baselines too, so results
+ * stay comparable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortBenchmark {
+
+    /** Baseline: java.util.Arrays.sort (dual-pivot quicksort). */
+    static final String ARRAYS_SORT = "ARRAYS_SORT";
+    /** Baseline: java.util.Arrays.parallelSort. */
+    static final String ARRAYS_PARALLEL_SORT = "ARRAYS_PARALLEL_SORT";
+
+    @Param({"INTRO_SORT",
+            "MERGE_SORT", "PARALLEL_MERGE_SORT", "TIM_SORT",
+            "RADIX_SORT", "PARALLEL_RADIX_SORT",
+            "ADAPTIVE_SORT",
+            ARRAYS_SORT, ARRAYS_PARALLEL_SORT})
+    public String algorithm;
+
+    @Param({"100", "10000", "1000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE", "SAWTOOTH", "ORGAN_PIPE"})
+    public InputShape shape;
+
+    private AlgorithmBridge.IntSorter sorter;
+    private int[] input;
+    private int[] work;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sorter = switch (algorithm) {
+            case ARRAYS_SORT -> Arrays::sort;
+            case ARRAYS_PARALLEL_SORT -> Arrays::parallelSort;
+            default -> AlgorithmBridge.load().sorter(algorithm);
+        };
+        input = shape.generate(size);
+        work = new int[size];
+    }
+
+    @Benchmark
+    public int[] algorithm() {
+        System.arraycopy(input, 0, work, 0, size);
+        sorter.sort(work);
+        return work;
+    }
+}
@@ -0,0 +1,91 @@
+/* File: AdaptiveSorter.java */
+
+/**
+ * The engine behind {@link SortingAlgorithm#AUTO}: profiles the input and hands it to
+ * the registered engine that should be fastest for it.
+ * <ul>
+ *     <li>tiny or already sorted input: insertion sort (one pass when sorted)</li>
+ *     <li>value range not much larger than the input: counting sort</li>
+ *     <li>a few long runs, ascending or descending: TimSort</li>
+ *     <li>few distinct values: introsort, whose three-way partition skips the runs of
+ *     equal keys</li>
+ *     <li>large input: parallel radix sort</li>
+ *     <li>anything else: introsort</li>
+ * </ul>
+ * Use {@link #choose(int[])} to find out which engine a given input gets.
+ */
+public final class AdaptiveSorter implements Sorter {
+
+    /** Up to this size insertion sort beats everything else. */
+    static final int INSERTION_SORT_MAX = 32;
+    /** Inputs with at most size / PRESORTED_RUN_DIVISOR runs count as nearly sorted. */
+    static final int PRESORTED_RUN_DIVISOR = 64;
+    /** From this size on radix sort beats introsort on int keys. */
+    static final int RADIX_SORT_MIN = 1 << 12;
+    /** Inputs whose sampled duplicate ratio reaches this have few distinct values. */
+    static final double FEW_DISTINCT_RATIO = 0.75;
+
+    private final AlgorithmRegistry registry;
+
+    AdaptiveSorter(AlgorithmRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public SortingAlgorithm algorithm() {
+        return SortingAlgorithm.AUTO;
+    }
+
+    @Override
+    public String name() {
+        return "ADAPTIVE_SORT";
+    }
+
+    /**
+     * Stability, buffers and parallelism depend on the engine chosen, so nothing is promised.
+     */
+    @Override
+    public Capabilities capabilities() {
+        return Capabilities.ofInt(false, false, false);
+    }
+
+    @Override
+    public void sort(int[] arr) {
+        choose(arr).sort(arr);
+    }
+
+    @Override
+    public void sort(int[] arr, CancellationToken token) {
+        choose(arr).sort(arr, token);
+    }
+
+    /**
+     * Returns the engine that sort(arr) would use.
+     */
+    public Sorter choose(int[] arr) {
+        return choose(InputProfile.of(arr));
+    }
+
+    /**
+     * Returns the engine for an input with the given profile.
+     */
+    public Sorter choose(InputProfile profile) {
+        int n = profile.size();
+        String engine;
+        if (n <= INSERTION_SORT_MAX || profile.isSorted()) {
+            engine = "INSERTION_SORT";
+        } else if (profile.range() <= Math.min(2L * n, HeadlessAlgorithms.MAX_COUNTING_RANGE)) {
+            engine = "COUNTING_SORT";
+        } else if (profile.runs() <= n / PRESORTED_RUN_DIVISOR) {
+            engine = "TIM_SORT";
+        } else if (profile.duplicateRatio() >= FEW_DISTINCT_RATIO) {
+            engine = "INTRO_SORT";
+        } else if (n >= RADIX_SORT_MIN) {
+            engine = "PARALLEL_RADIX_SORT";
+        } else {
+            engine = "INTRO_SORT";
+        }
+        return registry.sorter(engine)
+                .orElseThrow(() -> new IllegalStateException("Sort engine " + engine + " is not registered"));
+    }
+}
@@ -1,81 +1,131 @@
 /* File: AlgorithmExecutor.java */
-import javafx.concurrent.Task;
-
 import java.util.Arrays;
 
 public class AlgorithmExecutor {
+    /** Largest array that is printed element by element in the result. */
+    public static final int FULL_OUTPUT_LIMIT = 100;
+
+    private static final String CACHE_HIT = "Sorted array served from the cache (same content was sorted before)";
+
     /**
      * Executes the given algorithm on the array. It calls your specific algorithm class.
-     * If stepByStep is enabled, your algorithm implementations should update the visualizer.
-     * Adjust the method calls below to match your actual class methods if necessary.
+     * If stepByStep is enabled, the algorithm is recorded into a StepTrace at full speed and
+     * handed to the visualizer, which replays it at its own pace.
+     * Without stepByStep the default headless engine from the AlgorithmRegistry is used
+     * (e.g. IntroSort for Quick Sort, so large or presorted inputs cannot go quadratic).
+     * Arrays longer than FULL_OUTPUT_LIMIT are reported as an ArraySummary instead of in full.
+     * When {@link Metrics} are enabled the operation counts of the engine are appended.
+     * The token is polled by the traced algorithms and the headless engines alike, so a cancelled
+     * run stops with a CancellationException at the algorithm's next check, before anything is played.
+     * Sorts always run the engine, so engines can be compared on the same input. Only the sort
+     * before a binary search reuses earlier work, see sortForSearch.
      */
     public static String executeAlgorithm(int[] arr, String algorithm, int target, boolean stepByStep,
-                                          VisualizerPanel visualizer, Task<?> task) {
-        int[] originalArray = arr.clone();
+                                          CanvasVisualizer visualizer, CancellationToken token) {
+        SortingAlgorithm selected = SortingAlgorithm.fromDisplayName(algorithm);
+        if (selected == null) {
+            return "Invalid algorithm selection";
+        }
+        String original = describe(arr);
         String result;
-        String timeComplexity = getTimeComplexity(algorithm);
+        RunStats stats = null;
+        boolean cached = false;
         long startTime = System.nanoTime();
 
-        switch (algorithm) {
-            case "Selection Sort":
-                // Call your dedicated SelectionSort class
-                SelectionSort.sort(arr, stepByStep, visualizer, task);
-                result = formatSortResult(originalArray, arr, "Selection Sort");
-                break;
-            case "Insertion Sort":
-                InsertionSort.sort(arr, stepByStep, visualizer, task);
-                result = formatSortResult(originalArray, arr, "Insertion Sort");
-                break;
-            case "Quick Sort":
-                QuickSort.sort(arr, 0, arr.length - 1, stepByStep, visualizer, task);
-                result = formatSortResult(originalArray, arr, "Quick Sort");
-                break;
-            case "Merge Sort":
-                MergeSort.sort(arr, 0, arr.length - 1, stepByStep, visualizer, task);
-                result = formatSortResult(originalArray, arr, "Merge Sort");
-                break;
-            case "Radix Sort":
-                RadixSort.sort(arr, stepByStep, visualizer, task);
-                result = formatSortResult(originalArray, arr, "Radix Sort");
-                break;
-            case "Linear Search":
-                int searchIndexLS = LinearSearch.search(arr, target, stepByStep, visualizer, task);
-                result = formatSearchResult(arr, target, searchIndexLS, algorithm);
-                break;
-            case "Binary Search":
-                // For Binary Search, sort the array first (or assume it is already sorted)
-                Arrays.sort(arr);
-                int searchIndexBS = BinarySearch.search(arr, target, stepByStep, visualizer, task);
-                result = formatSearchResult(arr, target, searchIndexBS, algorithm);
-                break;
-            default:
-                result = "Invalid algorithm selection";
+        if (selected.isSearch()) {
+            int searchIndex;
+            if (stepByStep) {
+                StepTrace trace = TracedAlgorithms.record(arr, selected, target, StepTrace.DEFAULT_CAPACITY, token);
+                token.throwIfCancelled();
+                searchIndex = foundIndex(trace);
+                visualizer.play(trace);
+            } else {
+                Searcher searcher = AlgorithmRegistry.getDefault().searcher(selected);
+                if (searcher.requiresSortedInput()) {
+                    // Repeated searches over the same table skip the sort
+                    cached = sortForSearch(arr, token);
+                }
+                try (Metrics.Run run = Metrics.open(searcher.name(), arr.length)) {
+                    searchIndex = searcher.search(arr, target, token);
+                    stats = run.stats();
+                }
+            }
+            result = formatSearchResult(arr, target, searchIndex, algorithm);
+        } else {
+            Sorter engine = AlgorithmRegistry.getDefault().sorter(selected);
+            if (engine instanceof AdaptiveSorter adaptive) {
+                // Report which engine the input was routed to
+                InputProfile profile = InputProfile.of(arr);
+                engine = adaptive.choose(profile);
+                algorithm += String.format(" → %s (%s)", engine.name(), profile);
+            }
+            if (stepByStep) {
+                StepTrace trace = TracedAlgorithms.record(arr, engine.algorithm(), target, StepTrace.DEFAULT_CAPACITY,
+                        token);
+                token.throwIfCancelled();
+                visualizer.play(trace);
+            } else {
+                try (Metrics.Run run = Metrics.open(engine.name(), arr.length)) {
+                    engine.sort(arr, token);
+                    stats = run.stats();
+                }
+                // A cancelled engine returns early with the array unsorted
+                token.throwIfCancelled();
+            }
+            result = formatSortResult(original, arr, algorithm);
         }
         long endTime = System.nanoTime();
+        token.progress(1, 1);
         double executionTime = (endTime - startTime) / 1_000_000.0;
-        return result + String.format("\nTime Complexity: %s\nExecution Time: %.2f ms", timeComplexity, executionTime);
+        result += String.format("\nTime Complexity: %s\nExecution Time: %.2f ms",
+                selected.getTimeComplexity(), executionTime);
+        if (cached) {
+            result += "\n" + CACHE_HIT;
+        }
+        // Operation counts of the headless engine, with -Dsearchsort.metrics=true
+        return stats != null ? result + "\n" + stats : result;
+    }
+
+    /**
+     * Sorts arr for a binary search through the shared {@link SortedArrayCache}, so a
+     * repeated search over the same table costs a hash instead of a sort while the memory
+     * kept stays within the cache's bound. A cancelled sort throws before its result can
+     * reach the cache.
+     *
+     * @return true if the sorted table came from the cache
+     */
+    private static boolean sortForSearch(int[] arr, CancellationToken token) {
+        return SortedArrayCache.shared().sort(arr, table -> {
+            IntroSort.sort(table, token);
+            token.throwIfCancelled();
+        });
+    }
+
+    /**
+     * A traced search that succeeded ends with a FOUND mark on the index found.
+     */
+    private static int foundIndex(StepTrace trace) {
+        if (trace.recorded() == 0) {
+            return -1;
+        }
+        StepTrace.Step last = trace.step(trace.recorded() - 1);
+        return last.op() == StepTrace.Op.MARK && last.mark() == StepTrace.Mark.FOUND ? last.a() : -1;
     }
 
-    private static String getTimeComplexity(String algorithm) {
-        return switch (algorithm) {
-            case "Selection Sort" -> "O(n²) - Quadratic time";
-            case "Insertion Sort" -> "O(n²) - Quadratic time (O(n) for nearly sorted arrays)";
-            case "Quick Sort" -> "O(n log n) average, O(n²) worst case";
-            case "Merge Sort" -> "O(n log n) - Consistent performance";
-            case "Radix Sort" -> "O(d * n) where d is the number of digits";
-            case "Linear Search" -> "O(n) - Linear time";
-            case "Binary Search" -> "O(log n) - Logarithmic time";
-            default -> "Unknown";
-        };
+    /**
+     * Prints small arrays in full and summarizes larger ones.
+     */
+    private static String describe(int[] arr) {
+        return arr.length <= FULL_OUTPUT_LIMIT ? Arrays.toString(arr) : ArraySummary.of(arr).toString();
     }
 
-    private static String formatSortResult(int[] original, int[] sorted, String algorithm) {
+    private static String formatSortResult(String original, int[] sorted, String algorithm) {
         return String.format("Algorithm: %s\nOriginal array: %s\nSorted array: %s",
-                algorithm, Arrays.toString(original), Arrays.toString(sorted));
+                algorithm, original, describe(sorted));
     }
 
     private static String formatSearchResult(int[] arr, int target, int result, String algorithm) {
         return String.format("Algorithm: %s\nArray: %s\nTarget: %d\nResult: %s",
-                algorithm, Arrays.toString(arr), target, result != -1 ? "Found at index " + result : "Element not found");
+                algorithm, describe(arr), target, result != -1 ? "Found at index " + result : "Element not found");
     }
 }
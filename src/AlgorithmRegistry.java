@@ -0,0 +1,232 @@
+/* File: AlgorithmRegistry.java */
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Predicate;
+
+/**
+ * Registry of the headless sort and search engines, keyed by {@link SortingAlgorithm}.
+ * The built-in engines are registered first, so the first engine of every algorithm is
+ * its default; engines found with ServiceLoader are appended after them.
+ */
+public final class AlgorithmRegistry {
+
+    private static final AlgorithmRegistry DEFAULT = load();
+
+    private final Map<SortingAlgorithm, List<Sorter>> sorters = new EnumMap<>(SortingAlgorithm.class);
+    private final Map<SortingAlgorithm, List<Searcher>> searchers = new EnumMap<>(SortingAlgorithm.class);
+
+    private AlgorithmRegistry() {
+        for (SortingAlgorithm algorithm : SortingAlgorithm.values()) {
+            sorters.put(algorithm, new CopyOnWriteArrayList<>());
+            searchers.put(algorithm, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    /**
+     * The shared registry with the built-in engines and every ServiceLoader provider
+     * on the class path.
+     */
+    public static AlgorithmRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new registry with the built-in engines and every ServiceLoader provider
+     * visible to the context class loader.
+     */
+    public static AlgorithmRegistry load() {
+        AlgorithmRegistry registry = new AlgorithmRegistry();
+        registry.registerBuiltIns();
+        ServiceLoader.load(Sorter.class).forEach(registry::register);
+        ServiceLoader.load(Searcher.class).forEach(registry::register);
+        return registry;
+    }
+
+    private void registerBuiltIns() {
+        Capabilities allKeys = new Capabilities(true, false, true, EnumSet.allOf(Capabilities.KeyType.class));
+
+        register(new BuiltInSorter(SortingAlgorithm.SELECTION_SORT, "SELECTION_SORT",
+                Capabilities.ofInt(false, true, false), HeadlessAlgorithms::selectionSort));
+        register(new BuiltInSorter(SortingAlgorithm.INSERTION_SORT, "INSERTION_SORT",
+                Capabilities.ofInt(true, true, false), HeadlessAlgorithms::insertionSort));
+        register(new BuiltInSorter(SortingAlgorithm.QUICK_SORT, "INTRO_SORT",
+                Capabilities.ofInt(false, true, false), IntroSort::sort));
+        register(new BuiltInSorter(SortingAlgorithm.QUICK_SORT, "QUICK_SORT",
+                Capabilities.ofInt(false, true, false), HeadlessAlgorithms::quickSort));
+        register(new BuiltInSorter(SortingAlgorithm.MERGE_SORT, "MERGE_SORT",
+                Capabilities.ofInt(true, false, false), HeadlessAlgorithms::mergeSort));
+        register(new BuiltInSorter(SortingAlgorithm.MERGE_SORT, "PARALLEL_MERGE_SORT",
+                Capabilities.ofInt(true, false, true), ParallelMergeSort::sort));
+        register(new BuiltInSorter(SortingAlgorithm.MERGE_SORT, "TIM_SORT",
+                Capabilities.ofInt(true, false, false), TimSort::sort));
+        register(new BuiltInSorter(SortingAlgorithm.RADIX_SORT, "PARALLEL_RADIX_SORT",
+                allKeys, ParallelRadixSort::sort));
+        register(new BuiltInSorter(SortingAlgorithm.RADIX_SORT, "RADIX_SORT",
+                Capabilities.ofInt(true, false, false), HeadlessAlgorithms::radixSort));
+        register(new BuiltInSorter(SortingAlgorithm.RADIX_SORT, "COUNTING_SORT",
+                Capabilities.ofInt(true, false, false), HeadlessAlgorithms::countingSort));
+        register(new AdaptiveSorter(this));
+
+        register(new BuiltInSearcher(SortingAlgorithm.LINEAR_SEARCH, "VECTOR_LINEAR_SEARCH",
+                false, LinearSearchEngine::indexOf));
+        register(new BuiltInSearcher(SortingAlgorithm.LINEAR_SEARCH, "LINEAR_SEARCH",
+                false, HeadlessAlgorithms::linearSearch));
+        // A binary search takes O(log n) probes, too few to be worth polling
+        register(new BuiltInSearcher(SortingAlgorithm.BINARY_SEARCH, "BINARY_SEARCH",
+                true, (arr, target, token) -> HeadlessAlgorithms.binarySearch(arr, target)));
+    }
+
+    /**
+     * Adds a sort engine after the ones already registered for its algorithm.
+     *
+     * @throws IllegalArgumentException if an engine with the same name is registered
+     */
+    public void register(Sorter sorter) {
+        if (sorter(sorter.name()).isPresent()) {
+            throw new IllegalArgumentException("Duplicate sort engine " + sorter.name());
+        }
+        sorters.get(sorter.algorithm()).add(sorter);
+    }
+
+    /**
+     * Adds a search engine after the ones already registered for its algorithm.
+     *
+     * @throws IllegalArgumentException if an engine with the same name is registered
+     */
+    public void register(Searcher searcher) {
+        if (searcher(searcher.name()).isPresent()) {
+            throw new IllegalArgumentException("Duplicate search engine " + searcher.name());
+        }
+        searchers.get(searcher.algorithm()).add(searcher);
+    }
+
+    /**
+     * Returns the default sort engine of the algorithm.
+     *
+     * @throws IllegalArgumentException if no sort engine is registered for it
+     */
+    public Sorter sorter(SortingAlgorithm algorithm) {
+        List<Sorter> engines = sorters.get(algorithm);
+        if (engines.isEmpty()) {
+            throw new IllegalArgumentException("No sort engine for " + algorithm);
+        }
+        return engines.get(0);
+    }
+
+    /**
+     * Returns the first sort engine of the algorithm whose capabilities match, e.g.
+     * {@code sorter(MERGE_SORT, Capabilities::parallel)}.
+     */
+    public Optional<Sorter> sorter(SortingAlgorithm algorithm, Predicate<Capabilities> requirement) {
+        return sorters.get(algorithm).stream().filter(s -> requirement.test(s.capabilities())).findFirst();
+    }
+
+    /**
+     * Returns the sort engine with the given name.
+     */
+    public Optional<Sorter> sorter(String name) {
+        return allSorters().stream().filter(s -> s.name().equals(name)).findFirst();
+    }
+
+    /**
+     * Returns every sort engine of the algorithm, default first.
+     */
+    public List<Sorter> sorters(SortingAlgorithm algorithm) {
+        return List.copyOf(sorters.get(algorithm));
+    }
+
+    /**
+     * Returns every sort engine whose capabilities match, in algorithm order.
+     */
+    public List<Sorter> sorters(Predicate<Capabilities> requirement) {
+        List<Sorter> matching = new ArrayList<>();
+        for (Sorter sorter : allSorters()) {
+            if (requirement.test(sorter.capabilities())) {
+                matching.add(sorter);
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * Returns the default search engine of the algorithm.
+     *
+     * @throws IllegalArgumentException if no search engine is registered for it
+     */
+    public Searcher searcher(SortingAlgorithm algorithm) {
+        List<Searcher> engines = searchers.get(algorithm);
+        if (engines.isEmpty()) {
+            throw new IllegalArgumentException("No search engine for " + algorithm);
+        }
+        return engines.get(0);
+    }
+
+    /**
+     * Returns the search engine with the given name.
+     */
+    public Optional<Searcher> searcher(String name) {
+        for (List<Searcher> engines : searchers.values()) {
+            for (Searcher searcher : engines) {
+                if (searcher.name().equals(name)) {
+                    return Optional.of(searcher);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Returns every search engine of the algorithm, default first.
+     */
+    public List<Searcher> searchers(SortingAlgorithm algorithm) {
+        return List.copyOf(searchers.get(algorithm));
+    }
+
+    private List<Sorter> allSorters() {
+        List<Sorter> all = new ArrayList<>();
+        sorters.values().forEach(all::addAll);
+        return all;
+    }
+
+    private record BuiltInSorter(SortingAlgorithm algorithm, String name, Capabilities capabilities,
+                                 IntSort body) implements Sorter {
+        @Override
+        public void sort(int[] arr) {
+            body.sort(arr, CancellationToken.NONE);
+        }
+
+        @Override
+        public void sort(int[] arr, CancellationToken token) {
+            body.sort(arr, token);
+        }
+    }
+
+    private record BuiltInSearcher(SortingAlgorithm algorithm, String name, boolean requiresSortedInput,
+                                   IntSearch body) implements Searcher {
+        @Override
+        public int search(int[] arr, int target) {
+            return body.search(arr, target, CancellationToken.NONE);
+        }
+
+        @Override
+        public int search(int[] arr, int target, CancellationToken token) {
+            return body.search(arr, target, token);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IntSort {
+        void sort(int[] arr, CancellationToken token);
+    }
+
+    @FunctionalInterface
+    private interface IntSearch {
+        int search(int[] arr, int target, CancellationToken token);
+    }
+}
@@ -0,0 +1,311 @@
+/* File: ArrayIO.java */
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loading and saving of key arrays without going through one String per element.
+ * <ul>
+ *     <li>Binary files hold fixed-width keys, little-endian by default. They are memory-mapped,
+ *     either exposed as a read-only buffer view (no copy) or bulk-copied into an array.</li>
+ *     <li>Text is tokenized character by character straight into an int[], without the
+ *     String[] and per-token Strings of split + parseInt.</li>
+ * </ul>
+ */
+public final class ArrayIO {
+
+    /** Files are mapped in windows of this size, since one mapping is limited to 2 GB. */
+    private static final int MAP_WINDOW_BYTES = 1 << 30;
+    private static final int IO_BUFFER_BYTES = 1 << 20;
+    private static final int READ_BUFFER_CHARS = 1 << 14;
+    /** Largest array length the JVM reliably allocates. */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private ArrayIO() {
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Binary
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Maps a file of little-endian ints as a read-only buffer, without copying it.
+     *
+     * @throws IllegalArgumentException if the file is larger than 2 GB or not a multiple of 4 bytes
+     */
+    public static IntBuffer mapInts(Path file) throws IOException {
+        return map(file, Integer.BYTES, ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Maps a file of little-endian longs as a read-only buffer, without copying it.
+     *
+     * @throws IllegalArgumentException if the file is larger than 2 GB or not a multiple of 8 bytes
+     */
+    public static LongBuffer mapLongs(Path file) throws IOException {
+        return map(file, Long.BYTES, ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    }
+
+    private static MappedByteBuffer map(Path file, int width, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = checkSize(channel.size(), width, Integer.MAX_VALUE);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            mapped.order(order);
+            return mapped;
+        }
+    }
+
+    /**
+     * Reads a file of little-endian ints into a new array.
+     */
+    public static int[] readInts(Path file) throws IOException {
+        return readInts(file, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads a file of ints in the given byte order into a new array.
+     *
+     * @throws IllegalArgumentException if the file does not fit in an array or is not a multiple of 4 bytes
+     */
+    public static int[] readInts(Path file, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = checkSize(channel.size(), Integer.BYTES, (long) MAX_ARRAY_LENGTH * Integer.BYTES);
+            int[] arr = new int[(int) (size / Integer.BYTES)];
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                window.order(order).asIntBuffer().get(arr, (int) (position / Integer.BYTES),
+                        (int) (length / Integer.BYTES));
+            }
+            return arr;
+        }
+    }
+
+    /**
+     * Reads a file of little-endian longs into a new array.
+     */
+    public static long[] readLongs(Path file) throws IOException {
+        return readLongs(file, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Reads a file of longs in the given byte order into a new array.
+     *
+     * @throws IllegalArgumentException if the file does not fit in an array or is not a multiple of 8 bytes
+     */
+    public static long[] readLongs(Path file, ByteOrder order) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = checkSize(channel.size(), Long.BYTES, (long) MAX_ARRAY_LENGTH * Long.BYTES);
+            long[] arr = new long[(int) (size / Long.BYTES)];
+            for (long position = 0; position < size; position += MAP_WINDOW_BYTES) {
+                long length = Math.min(MAP_WINDOW_BYTES, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                window.order(order).asLongBuffer().get(arr, (int) (position / Long.BYTES),
+                        (int) (length / Long.BYTES));
+            }
+            return arr;
+        }
+    }
+
+    private static long checkSize(long size, int width, long limit) {
+        if (size % width != 0) {
+            throw new IllegalArgumentException("File size " + size + " is not a multiple of " + width + " bytes");
+        }
+        if (size > limit) {
+            throw new IllegalArgumentException("File of " + size + " bytes is too large to load");
+        }
+        return size;
+    }
+
+    /**
+     * Writes the array as little-endian ints, replacing the file if it exists.
+     */
+    public static void writeInts(Path file, int[] arr) throws IOException {
+        writeInts(file, arr, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the array as ints in the given byte order, replacing the file if it exists.
+     */
+    public static void writeInts(Path file, int[] arr, ByteOrder order) throws IOException {
+        try (FileChannel channel = openForWrite(file)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(order);
+            int perBuffer = IO_BUFFER_BYTES / Integer.BYTES;
+            for (int from = 0; from < arr.length; from += perBuffer) {
+                int count = Math.min(perBuffer, arr.length - from);
+                buffer.clear();
+                buffer.asIntBuffer().put(arr, from, count);
+                buffer.limit(count * Integer.BYTES);
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes the array as little-endian longs, replacing the file if it exists.
+     */
+    public static void writeLongs(Path file, long[] arr) throws IOException {
+        writeLongs(file, arr, ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Writes the array as longs in the given byte order, replacing the file if it exists.
+     */
+    public static void writeLongs(Path file, long[] arr, ByteOrder order) throws IOException {
+        try (FileChannel channel = openForWrite(file)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(order);
+            int perBuffer = IO_BUFFER_BYTES / Long.BYTES;
+            for (int from = 0; from < arr.length; from += perBuffer) {
+                int count = Math.min(perBuffer, arr.length - from);
+                buffer.clear();
+                buffer.asLongBuffer().put(arr, from, count);
+                buffer.limit(count * Long.BYTES);
+                writeFully(channel, buffer);
+            }
+        }
+    }
+
+    private static FileChannel openForWrite(Path file) throws IOException {
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Text
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Parses whitespace-separated ints, accepting what Integer.parseInt accepts per token.
+     *
+     * @throws NumberFormatException if a token is not an int
+     */
+    public static int[] parseInts(CharSequence text) {
+        IntTokenizer tokenizer = new IntTokenizer();
+        for (int i = 0, n = text.length(); i < n; i++) {
+            tokenizer.accept(text.charAt(i));
+        }
+        return tokenizer.finish();
+    }
+
+    /**
+     * Parses whitespace-separated ints from a text file, reading it in blocks.
+     *
+     * @throws NumberFormatException if a token is not an int
+     */
+    public static int[] readTextInts(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return parseInts(reader);
+        }
+    }
+
+    /**
+     * Parses whitespace-separated ints from the reader until it ends; the reader is not closed.
+     *
+     * @throws NumberFormatException if a token is not an int
+     */
+    public static int[] parseInts(Reader reader) throws IOException {
+        IntTokenizer tokenizer = new IntTokenizer();
+        char[] buffer = new char[READ_BUFFER_CHARS];
+        for (int read; (read = reader.read(buffer)) != -1; ) {
+            for (int i = 0; i < read; i++) {
+                tokenizer.accept(buffer[i]);
+            }
+        }
+        return tokenizer.finish();
+    }
+
+    /**
+     * Appends the array to out as space-separated ints, the format parseInts reads back.
+     */
+    public static void formatInts(int[] arr, StringBuilder out) {
+        for (int i = 0; i < arr.length; i++) {
+            if (i > 0) {
+                out.append(' ');
+            }
+            out.append(arr[i]);
+        }
+    }
+
+    /**
+     * Push parser for decimal ints. Values are accumulated as negative numbers (like
+     * Integer.parseInt) so Integer.MIN_VALUE parses without overflow.
+     */
+    private static final class IntTokenizer {
+        private static final int MULTIPLY_LIMIT = Integer.MIN_VALUE / 10;
+
+        private int[] values = new int[16];
+        private int count;
+        private boolean inToken;
+        private boolean negative;
+        private boolean hasDigits;
+        private boolean invalid;
+        private int value;
+        private int tokenLength;
+
+        void accept(char c) {
+            // Same separators as the \s regex class
+            if (c == ' ' || c == '\n' || c == '\t' || c == '\r' || c == '\f' || c == '\u000B') {
+                if (inToken) {
+                    endToken();
+                }
+                return;
+            }
+            if (!inToken) {
+                inToken = true;
+                negative = false;
+                hasDigits = false;
+                invalid = false;
+                value = 0;
+                tokenLength = 0;
+            }
+            tokenLength++;
+            if (c >= '0' && c <= '9') {
+                int digit = c - '0';
+                int limit = negative ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+                if (value < MULTIPLY_LIMIT || value * 10 < limit + digit) {
+                    invalid = true;
+                } else {
+                    value = value * 10 - digit;
+                }
+                hasDigits = true;
+            } else if ((c == '-' || c == '+') && tokenLength == 1) {
+                negative = c == '-';
+            } else {
+                invalid = true;
+            }
+        }
+
+        private void endToken() {
+            inToken = false;
+            if (invalid || !hasDigits) {
+                throw new NumberFormatException("Invalid int at element " + count);
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, Math.max(16, (int) Math.min(MAX_ARRAY_LENGTH, count * 2L)));
+            }
+            values[count++] = negative ? value : -value;
+        }
+
+        int[] finish() {
+            if (inToken) {
+                endToken();
+            }
+            return count == values.length ? values : Arrays.copyOf(values, count);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/* File: ArraySummary.java */
+import java.util.Arrays;
+
+/**
+ * Compact description of an int[] for result output, in place of printing every element.
+ * The checksum does not depend on element order, so a sorted array has the same checksum
+ * as its input exactly when (with high probability) it holds the same elements.
+ *
+ * @param size     number of elements
+ * @param min      smallest element (0 for an empty array)
+ * @param max      largest element (0 for an empty array)
+ * @param checksum order-independent 64-bit checksum of the elements
+ * @param sorted   whether the elements are in non-decreasing order
+ * @param head     the first elements, at most k
+ * @param tail     the last elements, at most k, not overlapping head
+ */
+public record ArraySummary(int size, int min, int max, long checksum, boolean sorted, int[] head, int[] tail) {
+
+    /** Default number of elements kept from each end. */
+    public static final int DEFAULT_EDGE = 10;
+
+    /**
+     * Summarizes the array keeping the first and last DEFAULT_EDGE elements.
+     */
+    public static ArraySummary of(int[] arr) {
+        return of(arr, DEFAULT_EDGE);
+    }
+
+    /**
+     * Summarizes the array in one pass without modifying it.
+     *
+     * @param arr the array
+     * @param k   number of elements kept from each end
+     */
+    public static ArraySummary of(int[] arr, int k) {
+        int n = arr.length;
+        int headLength = Math.min(k, n);
+        int[] head = Arrays.copyOf(arr, headLength);
+        int[] tail = Arrays.copyOfRange(arr, Math.max(headLength, n - k), n);
+        if (n == 0) {
+            return new ArraySummary(0, 0, 0, 0L, true, head, tail);
+        }
+        int min = arr[0];
+        int max = arr[0];
+        long checksum = mix(arr[0]);
+        boolean sorted = true;
+        for (int i = 1; i < n; i++) {
+            int value = arr[i];
+            sorted &= arr[i - 1] <= value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            checksum += mix(value);
+        }
+        return new ArraySummary(n, min, max, checksum, sorted, head, tail);
+    }
+
+    /**
+     * Scrambles a value (SplitMix64 finalizer) so that the sum of the results does not
+     * collide for simple rearrangements like {1, 4} and {2, 3}.
+     */
+    private static long mix(int value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("n=%d, min=%d, max=%d, checksum=%016x, sorted=%b", size, min, max, checksum, sorted));
+        out.append("\n  first ").append(head.length).append(": ").append(Arrays.toString(head));
+        if (tail.length > 0) {
+            out.append("\n  last ").append(tail.length).append(": ").append(Arrays.toString(tail));
+        }
+        return out.toString();
+    }
+}
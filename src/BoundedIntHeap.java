@@ -0,0 +1,135 @@
+/* File: BoundedIntHeap.java */
+import java.util.Arrays;
+
+/**
+ * Streaming top-K: keeps the k smallest (or largest) ints offered so far in a binary
+ * heap on a plain int[] of capacity k, so unbounded input is processed in O(n log k)
+ * time and O(k) memory without boxing.
+ * <p>
+ * The heap is a max-heap of the kept values, whose root is the value to evict next.
+ * For the largest values every value is stored bit-inverted (~v reverses the int order),
+ * so both modes share the same code.
+ */
+public final class BoundedIntHeap {
+
+    private final int[] heap;
+    private final boolean largest;
+    private int size;
+
+    private BoundedIntHeap(int k, boolean largest) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive, got " + k);
+        }
+        this.heap = new int[k];
+        this.largest = largest;
+    }
+
+    /**
+     * Creates a heap that keeps the k smallest values.
+     */
+    public static BoundedIntHeap smallest(int k) {
+        return new BoundedIntHeap(k, false);
+    }
+
+    /**
+     * Creates a heap that keeps the k largest values.
+     */
+    public static BoundedIntHeap largest(int k) {
+        return new BoundedIntHeap(k, true);
+    }
+
+    /**
+     * Offers one value; it is kept if fewer than k values are held or it beats the
+     * current worst kept value.
+     */
+    public void offer(int value) {
+        int key = largest ? ~value : value;
+        if (size < heap.length) {
+            siftUp(size++, key);
+        } else if (key < heap[0]) {
+            siftDown(key);
+        }
+    }
+
+    /**
+     * Offers every value of the array.
+     */
+    public void offerAll(int[] values) {
+        for (int value : values) {
+            offer(value);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return heap.length;
+    }
+
+    /**
+     * Returns the worst value kept (the k-th smallest or largest once k values were offered).
+     *
+     * @throws IllegalStateException if nothing was offered yet
+     */
+    public int peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return largest ? ~heap[0] : heap[0];
+    }
+
+    /**
+     * Returns the kept values, best first: ascending for smallest, descending for largest.
+     */
+    public int[] toSortedArray() {
+        int[] keys = Arrays.copyOf(heap, size);
+        Arrays.sort(keys);
+        if (largest) {
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+        return keys;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    private void siftUp(int i, int key) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = key;
+    }
+
+    /**
+     * Replaces the root with key and restores the heap below it.
+     */
+    private void siftDown(int key) {
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int childKey = heap[child];
+            int right = child + 1;
+            if (right < size && heap[right] > childKey) {
+                child = right;
+                childKey = heap[right];
+            }
+            if (key >= childKey) {
+                break;
+            }
+            heap[i] = childKey;
+            i = child;
+        }
+        heap[i] = key;
+    }
+}
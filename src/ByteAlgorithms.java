@@ -0,0 +1,264 @@
+/* File: ByteAlgorithms.java */
+import java.util.Arrays;
+
+/**
+ * The algorithms of {@link HeadlessAlgorithms} specialized for byte[], without boxing.
+ */
+public final class ByteAlgorithms {
+
+    private ByteAlgorithms() {
+    }
+
+    /**
+     * Sorts the array in place using Selection Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void selectionSort(byte[] arr) {
+        int n = arr.length;
+        for (int i = 0; i < n - 1; i++) {
+            int minIndex = i;
+            byte min = arr[i];
+            for (int j = i + 1; j < n; j++) {
+                if (arr[j] < min) {
+                    min = arr[j];
+                    minIndex = j;
+                }
+            }
+            if (minIndex != i) {
+                arr[minIndex] = arr[i];
+                arr[i] = min;
+            }
+        }
+    }
+
+    /**
+     * Sorts the array in place using Insertion Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void insertionSort(byte[] arr) {
+        int n = arr.length;
+        insertionSort(arr, 0, n - 1);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) in place using Insertion Sort.
+     */
+    static void insertionSort(byte[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            byte key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Sorts the array in place using the {@link IntroSort} algorithm: median-of-three or
+     * ninther pivots, three-way partitioning and a heap sort fallback.
+     *
+     * @param arr the array to sort
+     */
+    public static void quickSort(byte[] arr) {
+        int n = arr.length;
+        if (n > 1) {
+            quickSort(arr, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+    }
+
+    private static void quickSort(byte[] arr, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            byte pivot = arr[selectPivot(arr, low, high)];
+
+            // Three-way partition: arr[low..lt-1] < pivot, arr[lt..gt] == pivot, arr[gt+1..high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                byte value = arr[i];
+                if (value < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = value;
+                } else if (value > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    private static int selectPivot(byte[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(arr, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(arr, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(arr, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(arr, first, middle, last);
+    }
+
+    private static int medianOfThree(byte[] arr, int a, int b, int c) {
+        byte va = arr[a];
+        byte vb = arr[b];
+        byte vc = arr[c];
+        if (va < vb) {
+            return vb < vc ? b : (va < vc ? c : a);
+        }
+        return va < vc ? a : (vb < vc ? c : b);
+    }
+
+    private static void heapSort(byte[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            byte top = arr[low];
+            arr[low] = arr[low + end];
+            arr[low + end] = top;
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    private static void siftDown(byte[] arr, int offset, int i, int size) {
+        byte value = arr[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            byte childValue = arr[offset + child];
+            int right = child + 1;
+            if (right < size && arr[offset + right] > childValue) {
+                child = right;
+                childValue = arr[offset + right];
+            }
+            if (value >= childValue) {
+                break;
+            }
+            arr[offset + i] = childValue;
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
+
+    /**
+     * Sorts the array using Merge Sort with one scratch buffer. Small ranges are insertion
+     * sorted and merges of runs that are already in order are skipped.
+     *
+     * @param arr the array to sort
+     */
+    public static void mergeSort(byte[] arr) {
+        int n = arr.length;
+        if (n > 1) {
+            mergeSort(arr, new byte[n], 0, n - 1);
+        }
+    }
+
+    private static void mergeSort(byte[] arr, byte[] buffer, int l, int r) {
+        if (r - l < IntroSort.INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, l, r);
+            return;
+        }
+        int m = (l + r) >>> 1;
+        mergeSort(arr, buffer, l, m);
+        mergeSort(arr, buffer, m + 1, r);
+        if (arr[m] <= arr[m + 1]) {
+            return;
+        }
+        // Only the left run has to be copied out; the right run is consumed in place
+        System.arraycopy(arr, l, buffer, l, m - l + 1);
+        int i = l, j = m + 1, k = l;
+        int leftEnd = m + 1;
+        while (i < leftEnd && j <= r) {
+            if (buffer[i] <= arr[j]) {
+                arr[k++] = buffer[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftEnd) {
+            System.arraycopy(buffer, i, arr, k, leftEnd - i);
+        }
+    }
+
+    /**
+     * Sorts the array with a single 8-bit radix pass: every byte value has its own
+     * bucket, so this is a counting sort in O(n + 2^8).
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSort(byte[] arr) {
+        int[] count = new int[1 << 8];
+        for (byte value : arr) {
+            count[value - Byte.MIN_VALUE]++;
+        }
+        int k = 0;
+        for (int b = 0; b < count.length; b++) {
+            int c = count[b];
+            if (c != 0) {
+                Arrays.fill(arr, k, k + c, (byte) (b + Byte.MIN_VALUE));
+                k += c;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1 if it is not present.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     */
+    public static int linearSearch(byte[] arr, byte target) {
+        for (int i = 0; i < arr.length; i++) {
+            if (arr[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search over an array that the caller guarantees is sorted in non-decreasing
+     * order. Sortedness is not re-checked. Returns the index of any matching element,
+     * or -1 if it is not present.
+     *
+     * @param arr    the sorted array to search
+     * @param target the element to search for
+     */
+    public static int binarySearch(byte[] arr, byte target) {
+        int low = 0;
+        int high = arr.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            byte value = arr[mid];
+            if (value < target) {
+                low = mid + 1;
+            } else if (value > target) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
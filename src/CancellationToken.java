@@ -0,0 +1,101 @@
+/* File: CancellationToken.java */
+import java.util.concurrent.CancellationException;
+
+/**
+ * Cooperative cancellation flag shared between whoever submitted a job and the code
+ * running it. Unlike interrupting the thread, nothing happens until the running code
+ * polls the token, so engines can check it at points where stopping is safe.
+ * <p>
+ * The token also carries the progress of the job. Polling costs a volatile read, which
+ * keeps the JIT from unrolling or vectorizing a loop, so hot loops check only once per
+ * CHECK_INTERVAL elements or once per recursion frame, and report progress at the
+ * same time through {@link #checkpoint(long, long)}.
+ */
+public final class CancellationToken {
+
+    /** Token that is never cancelled, for callers that do not need cancellation. */
+    public static final CancellationToken NONE = new CancellationToken(false, null);
+
+    /** Loops poll the token once per this many elements; a power of two. */
+    public static final int CHECK_INTERVAL = 1 << 12;
+
+    /**
+     * Receives progress reports, on the thread running the job.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void progress(long done, long total);
+    }
+
+    private final boolean cancellable;
+    private final ProgressListener listener;
+    private volatile boolean cancelled;
+    private volatile double progress;
+
+    public CancellationToken() {
+        this(true, null);
+    }
+
+    /**
+     * @param listener notified of every progress report, e.g. a JavaFX Task's updateProgress
+     */
+    public CancellationToken(ProgressListener listener) {
+        this(true, listener);
+    }
+
+    private CancellationToken(boolean cancellable, ProgressListener listener) {
+        this.cancellable = cancellable;
+        this.listener = listener;
+    }
+
+    /**
+     * Requests cancellation. The running code stops at its next check.
+     */
+    public void cancel() {
+        if (cancellable) {
+            cancelled = true;
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Records that done out of total units of work are finished.
+     */
+    public void progress(long done, long total) {
+        if (!cancellable) {
+            return;
+        }
+        progress = total > 0 ? Math.min(1.0, (double) done / total) : 0;
+        if (listener != null) {
+            listener.progress(done, total);
+        }
+    }
+
+    /**
+     * Returns the fraction of the work reported done, from 0 to 1.
+     */
+    public double progress() {
+        return progress;
+    }
+
+    /**
+     * Reports progress and returns true if the job should stop. Meant to be called once
+     * per block or recursion frame.
+     */
+    public boolean checkpoint(long done, long total) {
+        progress(done, total);
+        return cancelled;
+    }
+
+    /**
+     * Throws CancellationException if cancellation was requested.
+     */
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Job cancelled");
+        }
+    }
+}
@@ -0,0 +1,497 @@
+/* File: CanvasVisualizer.java */
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Pane;
+import javafx.scene.layout.Priority;
+import javafx.scene.paint.Color;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bar chart of an array drawn on a single Canvas, so arrays of 100k elements animate
+ * as smoothly as small ones instead of needing one node per element.
+ * <p>
+ * Nothing is drawn by the thread making a change. displayArray, highlightBlock,
+ * updateStatus and play may be called from any thread; they only record the latest
+ * state. An AnimationTimer picks the changes up once per pulse, works out which
+ * elements actually changed, and repaints only the pixel columns those fall in, so any
+ * number of updates between two frames costs one partial repaint. When there are more
+ * elements than pixels, each column shows the largest value it covers.
+ * <p>
+ * {@link #play(StepTrace)} replays a recorded trace, with play / pause, single steps,
+ * speed control and a slider to scrub to any step.
+ * <p>
+ * The timer runs until {@link #dispose()} is called, so a visualizer that is taken off
+ * the screen for good must be disposed.
+ */
+public class CanvasVisualizer {
+
+    private static final Color BACKGROUND = Color.WHITE;
+    private static final Color BAR_COLOR = Color.LIGHTBLUE;
+    private static final Color COMPARE_COLOR = Color.YELLOW;
+    private static final Color MOVE_COLOR = Color.ORANGE;
+    private static final Color PIVOT_COLOR = Color.PURPLE;
+    private static final Color RANGE_COLOR = Color.LIGHTSKYBLUE;
+    private static final Color SORTED_COLOR = Color.LIGHTGREEN;
+    private static final Color FOUND_COLOR = Color.LIMEGREEN;
+    /** The initial playback speed is chosen so a whole trace takes about this long. */
+    private static final double PLAYBACK_SECONDS = 20;
+
+    private final BorderPane pane = new BorderPane();
+    private final Canvas canvas = new Canvas();
+    private final Label statusLabel = new Label();
+    private final Button playButton = new Button("Play");
+    private final Label speedLabel = new Label();
+    private final Slider positionSlider = new Slider(0, 1, 0);
+    private final HBox controls;
+    private final AnimationTimer timer;
+
+    // Written by any thread, drained by the timer once per pulse
+    private final Object lock = new Object();
+    private int[] pendingValues;
+    private final Map<Integer, Color> pendingHighlights = new HashMap<>();
+    private String pendingStatus;
+    private StepTrace pendingTrace;
+    private double pendingSpeed;
+    private boolean pendingClear;
+
+    // FX application thread only
+    private int[] values = new int[0];
+    private Color[] colors = new Color[0];
+    private int min;
+    private int max;
+    private final BitSet dirty = new BitSet();
+    private boolean repaintAll = true;
+    private TracePlayer player;
+    private StepTrace.Step highlightedStep;
+    private boolean updatingSlider;
+
+    public CanvasVisualizer() {
+        Pane canvasHolder = new Pane(canvas);
+        canvasHolder.setMinSize(0, 0);
+        canvas.widthProperty().bind(canvasHolder.widthProperty());
+        canvas.heightProperty().bind(canvasHolder.heightProperty());
+        canvas.widthProperty().addListener((obs, old, now) -> repaintAll = true);
+        canvas.heightProperty().addListener((obs, old, now) -> repaintAll = true);
+
+        Button backButton = new Button("<");
+        backButton.setOnAction(e -> step(false));
+        Button forwardButton = new Button(">");
+        forwardButton.setOnAction(e -> step(true));
+        playButton.setOnAction(e -> togglePlay());
+        Button slowerButton = new Button("Slower");
+        slowerButton.setOnAction(e -> setSpeed(player.speed() / 2));
+        Button fasterButton = new Button("Faster");
+        fasterButton.setOnAction(e -> setSpeed(player.speed() * 2));
+        positionSlider.valueProperty().addListener((obs, old, now) -> {
+            if (!updatingSlider && player != null) {
+                seek(now.doubleValue());
+            }
+        });
+        controls = new HBox(8, backButton, playButton, forwardButton, slowerButton, fasterButton, speedLabel,
+                positionSlider);
+        HBox.setHgrow(positionSlider, Priority.ALWAYS);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        controls.setPadding(new Insets(5, 0, 0, 0));
+        controls.setDisable(true);
+
+        pane.setTop(statusLabel);
+        pane.setCenter(canvasHolder);
+        pane.setBottom(controls);
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                frame(now);
+            }
+        };
+        timer.start();
+    }
+
+    public Pane getPane() {
+        return pane;
+    }
+
+    /**
+     * Shows the array. It is copied, so the caller may keep modifying it.
+     */
+    public void displayArray(int[] arr) {
+        int[] copy = arr.clone();
+        synchronized (lock) {
+            pendingValues = copy;
+        }
+    }
+
+    /**
+     * Colors the bar of one element until it is highlighted again or the array is replaced.
+     */
+    public void highlightBlock(int index, Color color) {
+        synchronized (lock) {
+            pendingHighlights.put(index, color);
+        }
+    }
+
+    public void updateStatus(String status) {
+        synchronized (lock) {
+            pendingStatus = status;
+        }
+    }
+
+    /**
+     * Starts replaying the trace from its first retained step, at a speed that plays it
+     * in about PLAYBACK_SECONDS.
+     */
+    public void play(StepTrace trace) {
+        play(trace, playbackSpeed(trace.size()));
+    }
+
+    /**
+     * Starts replaying the trace from its first retained step at the given speed.
+     * Visualizers started with the same speed during the same pulse play in lockstep,
+     * step for step.
+     *
+     * @param stepsPerSecond initial playback speed
+     */
+    public void play(StepTrace trace, double stepsPerSecond) {
+        synchronized (lock) {
+            pendingTrace = trace;
+            pendingSpeed = stepsPerSecond;
+        }
+    }
+
+    /**
+     * Returns the speed that replays the given number of steps in about PLAYBACK_SECONDS.
+     */
+    public static double playbackSpeed(long steps) {
+        return Math.max(TracePlayer.DEFAULT_SPEED, steps / PLAYBACK_SECONDS);
+    }
+
+    /**
+     * Removes the array, any trace being played and the status.
+     */
+    public void clear() {
+        synchronized (lock) {
+            pendingClear = true;
+            pendingValues = null;
+            pendingHighlights.clear();
+            pendingStatus = null;
+            pendingTrace = null;
+        }
+    }
+
+    /**
+     * Stops the timer and drops the trace being played. Call on the FX application thread
+     * once the visualizer is no longer shown; it draws nothing afterwards.
+     */
+    public void dispose() {
+        timer.stop();
+        player = null;
+        clear();
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Everything below runs on the FX application thread.
+    // ---------------------------------------------------------------------------------
+
+    private void frame(long now) {
+        drainPending();
+        if (player != null && player.isPlaying()) {
+            long before = player.position();
+            player.update(now);
+            if (player.position() != before) {
+                stepsChanged(Math.min(before, player.position()), Math.max(before, player.position()));
+            }
+            if (!player.isPlaying()) {
+                playButton.setText("Play");
+            }
+        }
+        repaint();
+    }
+
+    private void drainPending() {
+        int[] newValues;
+        Map<Integer, Color> highlights = null;
+        String status;
+        StepTrace trace;
+        double speed;
+        boolean clear;
+        synchronized (lock) {
+            newValues = pendingValues;
+            if (!pendingHighlights.isEmpty()) {
+                highlights = new HashMap<>(pendingHighlights);
+                pendingHighlights.clear();
+            }
+            status = pendingStatus;
+            trace = pendingTrace;
+            speed = pendingSpeed;
+            clear = pendingClear;
+            pendingValues = null;
+            pendingStatus = null;
+            pendingTrace = null;
+            pendingClear = false;
+        }
+        if (clear) {
+            player = null;
+            controls.setDisable(true);
+            playButton.setText("Play");
+            statusLabel.setText("");
+            setValues(new int[0]);
+        }
+        if (trace != null) {
+            startPlayer(trace, speed);
+        }
+        if (newValues != null) {
+            player = null;
+            controls.setDisable(true);
+            showValues(newValues);
+        }
+        if (highlights != null) {
+            highlights.forEach((index, color) -> {
+                if (index >= 0 && index < colors.length) {
+                    colors[index] = color;
+                    dirty.set(index);
+                }
+            });
+        }
+        if (status != null) {
+            statusLabel.setText(status);
+        }
+    }
+
+    /**
+     * Shows newValues, marking only the elements that differ from what is shown.
+     */
+    private void showValues(int[] newValues) {
+        if (newValues.length != values.length) {
+            setValues(newValues);
+            return;
+        }
+        for (int i = 0; i < newValues.length; i++) {
+            if (newValues[i] != values[i]) {
+                dirty.set(i);
+            }
+        }
+        values = newValues;
+        if (updateRange()) {
+            repaintAll = true;
+        }
+    }
+
+    private void setValues(int[] newValues) {
+        values = newValues;
+        colors = new Color[newValues.length];
+        highlightedStep = null;
+        updateRange();
+        dirty.clear();
+        repaintAll = true;
+    }
+
+    /**
+     * Recomputes min and max; returns true if they changed, which rescales every bar.
+     */
+    private boolean updateRange() {
+        int newMin = 0;
+        int newMax = 0;
+        if (values.length > 0) {
+            newMin = Integer.MAX_VALUE;
+            newMax = Integer.MIN_VALUE;
+            for (int value : values) {
+                newMin = Math.min(newMin, value);
+                newMax = Math.max(newMax, value);
+            }
+        }
+        boolean changed = newMin != min || newMax != max;
+        min = newMin;
+        max = newMax;
+        return changed;
+    }
+
+    private void startPlayer(StepTrace trace, double speed) {
+        player = new TracePlayer(trace);
+        // The player owns the array and updates it in place as it moves
+        setValues(player.array());
+        player.setSpeed(speed);
+        player.play();
+        playButton.setText("Pause");
+        controls.setDisable(false);
+        showStep();
+    }
+
+    private void togglePlay() {
+        if (player.isPlaying()) {
+            player.pause();
+            playButton.setText("Play");
+        } else {
+            if (player.position() == player.end()) {
+                long before = player.position();
+                player.seek(player.start());
+                stepsChanged(player.position(), before);
+            }
+            player.play();
+            playButton.setText("Pause");
+        }
+    }
+
+    private void step(boolean forward) {
+        player.pause();
+        playButton.setText("Play");
+        long before = player.position();
+        if (forward ? player.stepForward() : player.stepBack()) {
+            stepsChanged(Math.min(before, player.position()), Math.max(before, player.position()));
+        }
+    }
+
+    private void setSpeed(double stepsPerSecond) {
+        player.setSpeed(Math.max(1, stepsPerSecond));
+        speedLabel.setText(String.format("%,.0f steps/s", player.speed()));
+    }
+
+    private void seek(double fraction) {
+        long before = player.position();
+        player.seek(player.start() + Math.round(fraction * (player.end() - player.start())));
+        stepsChanged(Math.min(before, player.position()), Math.max(before, player.position()));
+    }
+
+    /**
+     * Marks the elements touched by steps from..to-1, which were just redone or undone,
+     * and shows the step the player now stands after.
+     */
+    private void stepsChanged(long from, long to) {
+        if (to - from > values.length / 8) {
+            // Cheaper to redraw everything than to decode this many steps
+            repaintAll = true;
+        } else {
+            StepTrace trace = player.trace();
+            for (long k = from; k < to; k++) {
+                StepTrace.Step step = trace.step(k);
+                switch (step.op()) {
+                    case SWAP -> {
+                        dirty.set(step.a());
+                        dirty.set(step.b());
+                    }
+                    case WRITE -> dirty.set(step.a());
+                    default -> {
+                        // The other steps do not change the array
+                    }
+                }
+            }
+        }
+        showStep();
+    }
+
+    /**
+     * Moves the highlight to the player's last step and updates the status and slider.
+     */
+    private void showStep() {
+        if (highlightedStep != null) {
+            color(highlightedStep, null);
+        }
+        highlightedStep = player.lastStep();
+        if (highlightedStep != null) {
+            color(highlightedStep, switch (highlightedStep.op()) {
+                case COMPARE, PROBE -> COMPARE_COLOR;
+                case SWAP, WRITE -> MOVE_COLOR;
+                case MARK -> switch (highlightedStep.mark()) {
+                    case RANGE -> RANGE_COLOR;
+                    case PIVOT -> PIVOT_COLOR;
+                    case SORTED -> SORTED_COLOR;
+                    case FOUND -> FOUND_COLOR;
+                };
+            });
+        }
+        long done = player.position() - player.start();
+        long total = player.end() - player.start();
+        statusLabel.setText(String.format("Step %,d of %,d%s", done, total,
+                highlightedStep != null ? ": " + highlightedStep : ""));
+        speedLabel.setText(String.format("%,.0f steps/s", player.speed()));
+        updatingSlider = true;
+        positionSlider.setValue(total == 0 ? 1 : (double) done / total);
+        updatingSlider = false;
+    }
+
+    private void color(StepTrace.Step step, Color color) {
+        int from = step.a();
+        int to = switch (step.op()) {
+            case COMPARE, SWAP -> {
+                colors[step.b()] = color;
+                dirty.set(step.b());
+                yield from;
+            }
+            case MARK -> step.b();
+            default -> from;
+        };
+        for (int i = from; i <= to; i++) {
+            colors[i] = color;
+        }
+        dirty.set(from, to + 1);
+    }
+
+    private void repaint() {
+        if (!repaintAll && dirty.isEmpty()) {
+            return;
+        }
+        GraphicsContext g = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        int n = values.length;
+        if (repaintAll) {
+            g.setFill(BACKGROUND);
+            g.fillRect(0, 0, width, height);
+        }
+        if (n > 0 && width >= 1 && height >= 1) {
+            int columns = (int) Math.min(n, Math.floor(width));
+            double columnWidth = width / columns;
+            if (repaintAll) {
+                for (int c = 0; c < columns; c++) {
+                    drawColumn(g, c, columns, columnWidth, height);
+                }
+            } else {
+                int last = -1;
+                for (int i = dirty.nextSetBit(0); i >= 0 && i < n; i = dirty.nextSetBit(i + 1)) {
+                    int c = (int) ((long) i * columns / n);
+                    if (c != last) {
+                        drawColumn(g, c, columns, columnWidth, height);
+                        last = c;
+                    }
+                }
+            }
+        }
+        dirty.clear();
+        repaintAll = false;
+    }
+
+    /**
+     * Draws column c, which covers the elements i with floor(i * columns / n) == c.
+     */
+    private void drawColumn(GraphicsContext g, int c, int columns, double columnWidth, double height) {
+        int n = values.length;
+        int from = (int) (((long) c * n + columns - 1) / columns);
+        int to = (int) (((long) (c + 1) * n + columns - 1) / columns);
+        int top = Integer.MIN_VALUE;
+        Color color = null;
+        for (int i = from; i < to; i++) {
+            top = Math.max(top, values[i]);
+            if (color == null) {
+                color = colors[i];
+            }
+        }
+        double x = c * columnWidth;
+        g.setFill(BACKGROUND);
+        g.fillRect(x, 0, columnWidth, height);
+        // The smallest value still gets a sliver of a bar
+        double barHeight = height * ((double) top - min + 1) / ((double) max - min + 1);
+        double gap = columnWidth >= 4 ? 1 : 0;
+        g.setFill(color != null ? color : BAR_COLOR);
+        g.fillRect(x, height - barHeight, columnWidth - gap, barHeight);
+    }
+}
@@ -0,0 +1,35 @@
+/* File: Capabilities.java */
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * What a {@link Sorter} engine guarantees, so callers can pick one programmatically.
+ *
+ * @param stable   equal keys keep their relative order
+ * @param inPlace  needs no O(n) auxiliary buffer
+ * @param parallel uses more than one thread on large inputs
+ * @param keyTypes the primitive key types the engine class can sort
+ */
+public record Capabilities(boolean stable, boolean inPlace, boolean parallel, Set<KeyType> keyTypes) {
+
+    /**
+     * Primitive key types.
+     */
+    public enum KeyType {
+        INT,
+        LONG,
+        FLOAT,
+        DOUBLE
+    }
+
+    public Capabilities {
+        keyTypes = Set.copyOf(keyTypes);
+    }
+
+    /**
+     * Capabilities of an engine that sorts int keys only.
+     */
+    public static Capabilities ofInt(boolean stable, boolean inPlace, boolean parallel) {
+        return new Capabilities(stable, inPlace, parallel, EnumSet.of(KeyType.INT));
+    }
+}
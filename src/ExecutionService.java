@@ -0,0 +1,236 @@
+/* File: ExecutionService.java */
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs sort and search jobs on a fixed pool of worker threads instead of one new
+ * thread per request.
+ * <ul>
+ *     <li>CPU-bound jobs run on as many platform threads as there are cores, so a burst
+ *     of requests queues up instead of oversubscribing the machine.</li>
+ *     <li>At most queueCapacity jobs wait behind the running ones. Beyond that
+ *     {@link #submit(Work)} fails fast with RejectedExecutionException, or
+ *     {@link #submit(Work, long, TimeUnit)} waits for a slot (backpressure), so the
+ *     latency of an accepted job stays bounded.</li>
+ *     <li>Loading input (files, network) goes to a separate elastic pool through
+ *     {@link #load(Callable)}, so blocking I/O never occupies a sort worker. On a JDK
+ *     with virtual threads that pool would be a virtual-thread-per-task executor.</li>
+ *     <li>Jobs are cancelled cooperatively through their {@link CancellationToken}; no
+ *     JavaFX Task is involved.</li>
+ * </ul>
+ * Jobs are started in submission order. All threads are daemons.
+ */
+public final class ExecutionService implements Executor, AutoCloseable {
+
+    /** Default number of jobs that may wait for a worker. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static final ExecutionService SHARED = new ExecutionService();
+
+    private final ThreadPoolExecutor workers;
+    private final ThreadPoolExecutor loaders;
+    // One permit per running or queued job
+    private final Semaphore slots;
+    private final int queueCapacity;
+
+    /**
+     * A piece of work that is told how to notice cancellation.
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(CancellationToken token) throws Exception;
+    }
+
+    /**
+     * Creates a service with one worker per core and the default queue capacity.
+     */
+    public ExecutionService() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY,
+                4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param workerThreads number of threads running CPU-bound jobs
+     * @param queueCapacity number of jobs that may wait for a worker
+     * @param loaderThreads maximum number of threads running load calls
+     * @throws IllegalArgumentException if a thread count is below 1 or the capacity is negative
+     */
+    public ExecutionService(int workerThreads, int queueCapacity, int loaderThreads) {
+        if (workerThreads < 1 || loaderThreads < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("Invalid pool sizes: " + workerThreads + " workers, "
+                    + queueCapacity + " queued, " + loaderThreads + " loaders");
+        }
+        this.queueCapacity = queueCapacity;
+        this.slots = new Semaphore(workerThreads + queueCapacity, true);
+        // The queue itself is unbounded: the semaphore already limits what enters it
+        this.workers = new ThreadPoolExecutor(workerThreads, workerThreads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("sort-worker-"));
+        this.loaders = new ThreadPoolExecutor(loaderThreads, loaderThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("sort-loader-"));
+        this.loaders.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the service shared by the application. It must not be closed.
+     */
+    public static ExecutionService shared() {
+        return SHARED;
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Queues the work, failing immediately if the queue is full.
+     *
+     * @param work the job to run on a worker thread
+     * @throws RejectedExecutionException if queueCapacity jobs are already waiting, or
+     *                                    the service is closed
+     */
+    public <T> Job<T> submit(Work<T> work) {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Execution queue is full (" + queueCapacity + " jobs waiting)");
+        }
+        return dispatch(work);
+    }
+
+    /**
+     * Queues the work, waiting up to the timeout for room in the queue.
+     *
+     * @param work    the job to run on a worker thread
+     * @param timeout how long to wait for room
+     * @param unit    unit of the timeout
+     * @throws RejectedExecutionException if there was no room within the timeout, or the
+     *                                    service is closed
+     * @throws InterruptedException       if interrupted while waiting
+     */
+    public <T> Job<T> submit(Work<T> work, long timeout, TimeUnit unit) throws InterruptedException {
+        if (!slots.tryAcquire(timeout, unit)) {
+            throw new RejectedExecutionException("Execution queue still full after " + timeout + " " + unit);
+        }
+        return dispatch(work);
+    }
+
+    private <T> Job<T> dispatch(Work<T> work) {
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            workers.execute(() -> {
+                try {
+                    // Jobs cancelled while queued are skipped without running
+                    if (!token.isCancelled()) {
+                        result.complete(work.run(token));
+                    }
+                } catch (CancellationException e) {
+                    result.cancel(false);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+        return new Job<>(token, result);
+    }
+
+    /**
+     * Runs the command as a job, e.g. a JavaFX Task, which handles its own result.
+     *
+     * @throws RejectedExecutionException if the queue is full or the service is closed
+     */
+    @Override
+    public void execute(Runnable command) {
+        submit(token -> {
+            command.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a blocking loader, e.g. reading an array from disk, on the loader pool.
+     *
+     * @param loader the I/O-bound call
+     */
+    public <T> CompletableFuture<T> load(Callable<T> loader) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        loaders.execute(() -> {
+            try {
+                result.complete(loader.call());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sorts the array in place with the default engine for the algorithm. The engine
+     * polls the job's token, so a cancelled job stops at the engine's next check and
+     * leaves arr in an unspecified order.
+     *
+     * @param arr       the array to sort
+     * @param algorithm a sorting algorithm
+     * @return a job whose result is arr once sorted
+     */
+    public Job<int[]> sort(int[] arr, SortingAlgorithm algorithm) {
+        Sorter sorter = AlgorithmRegistry.getDefault().sorter(algorithm);
+        return submit(token -> {
+            sorter.sort(arr, token);
+            token.throwIfCancelled();
+            return arr;
+        });
+    }
+
+    /**
+     * Searches the array with the default engine for the algorithm. Engines that need
+     * sorted input require the caller to have sorted arr.
+     *
+     * @param arr       the array to search
+     * @param algorithm a search algorithm
+     * @param target    the element to search for
+     * @return a job whose result is the index found, or -1
+     */
+    public Job<Integer> search(int[] arr, SortingAlgorithm algorithm, int target) {
+        Searcher searcher = AlgorithmRegistry.getDefault().searcher(algorithm);
+        return submit(token -> searcher.search(arr, target, token));
+    }
+
+    /** Number of jobs waiting for a worker. */
+    public int queued() {
+        return workers.getQueue().size();
+    }
+
+    /** Number of jobs currently running. */
+    public int running() {
+        return workers.getActiveCount();
+    }
+
+    /**
+     * Stops accepting jobs; queued and running jobs still finish.
+     */
+    @Override
+    public void close() {
+        workers.shutdown();
+        loaders.shutdown();
+    }
+}
@@ -0,0 +1,353 @@
+/* File: ExternalSort.java */
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Out-of-core sort for binary files of int or long keys that do not fit on the heap.
+ * <ol>
+ *     <li>Run generation: the input is memory-mapped one chunk at a time, every chunk is
+ *     sorted with the radix engine and written to a temporary run file. Chunks are
+ *     processed in parallel by a fixed number of workers, so at most
+ *     parallelism * 2 * chunkBytes of heap is in use.</li>
+ *     <li>Merge: the runs are merged with a loser tree, reading every run and writing the
+ *     output through NIO buffers. With more than maxFanIn runs, groups of runs are
+ *     merged into longer runs first.</li>
+ * </ol>
+ * Keys are fixed width (4 or 8 bytes) in the configured byte order, little-endian by default.
+ */
+public final class ExternalSort {
+
+    /** Default size of one in-memory chunk: 32 MB of keys. */
+    public static final int DEFAULT_CHUNK_BYTES = 32 << 20;
+    /** Default maximum number of runs merged at once. */
+    public static final int DEFAULT_MAX_FAN_IN = 128;
+    /** Off-heap memory shared by the read buffers of one merge. */
+    private static final int MERGE_BUFFER_BYTES = 32 << 20;
+    private static final int MIN_READ_BUFFER_BYTES = 64 << 10;
+    private static final int WRITE_BUFFER_BYTES = 4 << 20;
+
+    private final Path tempDir;
+    private final int chunkBytes;
+    private final int parallelism;
+    private final int maxFanIn;
+    private final ByteOrder order;
+
+    /**
+     * Creates an external sort with the default settings, writing runs to the system
+     * temp directory.
+     */
+    public ExternalSort() {
+        this(Path.of(System.getProperty("java.io.tmpdir")), DEFAULT_CHUNK_BYTES,
+                Math.min(4, Runtime.getRuntime().availableProcessors()), DEFAULT_MAX_FAN_IN,
+                ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * @param tempDir     directory for the temporary run files
+     * @param chunkBytes  bytes of keys sorted in memory at once; rounded down to whole keys
+     * @param parallelism number of chunks sorted at the same time
+     * @param maxFanIn    maximum number of runs merged at once, at least 2
+     * @param order       byte order of the keys in the input, output and run files
+     */
+    public ExternalSort(Path tempDir, int chunkBytes, int parallelism, int maxFanIn, ByteOrder order) {
+        if (chunkBytes < Long.BYTES || parallelism < 1 || maxFanIn < 2) {
+            throw new IllegalArgumentException("Invalid external sort settings: chunkBytes " + chunkBytes
+                    + ", parallelism " + parallelism + ", maxFanIn " + maxFanIn);
+        }
+        this.tempDir = tempDir;
+        this.chunkBytes = chunkBytes;
+        this.parallelism = parallelism;
+        this.maxFanIn = maxFanIn;
+        this.order = order;
+    }
+
+    /**
+     * Sorts a file of 4-byte int keys into output (which is replaced if it exists).
+     *
+     * @throws IllegalArgumentException if the input size is not a multiple of 4 bytes
+     */
+    public void sortInts(Path input, Path output) throws IOException {
+        sort(input, output, Integer.BYTES);
+    }
+
+    /**
+     * Sorts a file of 8-byte long keys into output (which is replaced if it exists).
+     *
+     * @throws IllegalArgumentException if the input size is not a multiple of 8 bytes
+     */
+    public void sortLongs(Path input, Path output) throws IOException {
+        sort(input, output, Long.BYTES);
+    }
+
+    private void sort(Path input, Path output, int width) throws IOException {
+        long size = Files.size(input);
+        if (size % width != 0) {
+            throw new IllegalArgumentException("File size " + size + " is not a multiple of " + width + " bytes");
+        }
+        // Every temporary file ever created, so a failure in any pass leaves nothing behind
+        List<Path> temporary = new ArrayList<>();
+        try {
+            List<Path> runs = createRuns(input, size, width, temporary);
+            while (runs.size() > maxFanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += maxFanIn) {
+                    List<Path> group = runs.subList(from, Math.min(from + maxFanIn, runs.size()));
+                    Path run = Files.createTempFile(tempDir, "merge-", ".run");
+                    temporary.add(run);
+                    merged.add(run);
+                    merge(group, run, width);
+                    deleteAll(group);
+                }
+                runs = merged;
+            }
+            merge(runs, output, width);
+        } finally {
+            deleteAll(temporary);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Run generation
+    // ---------------------------------------------------------------------------------
+
+    private List<Path> createRuns(Path input, long size, int width, List<Path> temporary) throws IOException {
+        long keysPerChunk = chunkBytes / width;
+        long keys = size / width;
+        int chunks = (int) ((keys + keysPerChunk - 1) / keysPerChunk);
+
+        List<Path> runs = new ArrayList<>(chunks);
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            List<Future<?>> pending = new ArrayList<>(chunks);
+            for (int c = 0; c < chunks; c++) {
+                Path run = Files.createTempFile(tempDir, "chunk-", ".run");
+                temporary.add(run);
+                runs.add(run);
+                long first = c * keysPerChunk;
+                int count = (int) Math.min(keysPerChunk, keys - first);
+                pending.add(workers.submit(() -> {
+                    sortChunk(channel, first * width, count, width, run);
+                    return null;
+                }));
+            }
+            for (Future<?> future : pending) {
+                await(future);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        return runs;
+    }
+
+    private void sortChunk(FileChannel channel, long position, int count, int width, Path run) throws IOException {
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) count * width);
+        mapped.order(order);
+        try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (width == Integer.BYTES) {
+                int[] chunk = new int[count];
+                mapped.asIntBuffer().get(chunk);
+                ParallelRadixSort.sortSequential(chunk);
+                ByteBuffer bytes = ByteBuffer.allocate(count * Integer.BYTES).order(order);
+                bytes.asIntBuffer().put(chunk);
+                writeFully(out, bytes);
+            } else {
+                long[] chunk = new long[count];
+                mapped.asLongBuffer().get(chunk);
+                ParallelRadixSort.sortSequential(chunk);
+                ByteBuffer bytes = ByteBuffer.allocate(count * Long.BYTES).order(order);
+                bytes.asLongBuffer().put(chunk);
+                writeFully(out, bytes);
+            }
+        }
+    }
+
+    private static void await(Future<?> future) throws IOException {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sorting runs", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // K-way merge
+    // ---------------------------------------------------------------------------------
+
+    private void merge(List<Path> runs, Path output, int width) throws IOException {
+        int k = runs.size();
+        int readBufferBytes = Math.max(MIN_READ_BUFFER_BYTES, MERGE_BUFFER_BYTES / Math.max(1, k));
+        RunReader[] readers = new RunReader[k];
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < k; i++) {
+                readers[i] = new RunReader(runs.get(i), width, readBufferBytes, order);
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(order);
+            if (k > 0) {
+                LoserTree tree = new LoserTree(readers);
+                for (int winner = tree.winner(); !readers[winner].exhausted; winner = tree.replay(winner)) {
+                    if (buffer.remaining() < width) {
+                        buffer.flip();
+                        writeFully(out, buffer);
+                        buffer.clear();
+                    }
+                    if (width == Integer.BYTES) {
+                        buffer.putInt((int) readers[winner].current);
+                    } else {
+                        buffer.putLong(readers[winner].current);
+                    }
+                    readers[winner].advance();
+                }
+            }
+            buffer.flip();
+            writeFully(out, buffer);
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void deleteAll(List<Path> files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Sequential, buffered reader of one sorted run; current holds the key at the head.
+     */
+    private static final class RunReader {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int width;
+        long current;
+        boolean exhausted;
+
+        RunReader(Path run, int width, int bufferBytes, ByteOrder order) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes - bufferBytes % Long.BYTES).order(order);
+            this.buffer.flip();
+            this.width = width;
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (buffer.remaining() < width) {
+                buffer.compact();
+                while (buffer.position() < width && channel.read(buffer) > 0) {
+                    // keep reading until at least one key is buffered or the run ends
+                }
+                buffer.flip();
+                if (buffer.remaining() < width) {
+                    exhausted = true;
+                    return;
+                }
+            }
+            current = width == Integer.BYTES ? buffer.getInt() : buffer.getLong();
+        }
+
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Tournament tree of losers over the run heads. Every internal node keeps the loser
+     * of the match played there and tree[0] the overall winner, so replacing the winner
+     * costs one comparison per level: log2(k) instead of 2 * log2(k) for a binary heap.
+     */
+    private static final class LoserTree {
+        private final RunReader[] runs;
+        private final int[] tree;
+
+        LoserTree(RunReader[] runs) {
+            this.runs = runs;
+            this.tree = new int[runs.length];
+            tree[0] = build(1);
+        }
+
+        /**
+         * Plays the matches below node and returns the winner; leaf i is node k + i.
+         */
+        private int build(int node) {
+            int k = runs.length;
+            if (node >= k) {
+                return node - k;
+            }
+            int left = build(2 * node);
+            int right = build(2 * node + 1);
+            if (beats(left, right)) {
+                tree[node] = right;
+                return left;
+            }
+            tree[node] = left;
+            return right;
+        }
+
+        int winner() {
+            return tree[0];
+        }
+
+        /**
+         * Replays the matches on the path of run, whose head just changed; returns the new winner.
+         */
+        int replay(int run) {
+            int winner = run;
+            for (int node = (run + runs.length) >>> 1; node > 0; node >>>= 1) {
+                if (beats(tree[node], winner)) {
+                    int loser = winner;
+                    winner = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = winner;
+            return winner;
+        }
+
+        /**
+         * Exhausted runs lose every match; ties go to the lower run index.
+         */
+        private boolean beats(int a, int b) {
+            if (runs[a].exhausted) {
+                return false;
+            }
+            if (runs[b].exhausted) {
+                return true;
+            }
+            long ka = runs[a].current;
+            long kb = runs[b].current;
+            return ka < kb || (ka == kb && a < b);
+        }
+    }
+}
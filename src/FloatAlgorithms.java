@@ -0,0 +1,302 @@
+/* File: FloatAlgorithms.java */
+
+/**
+ * The algorithms of {@link HeadlessAlgorithms} specialized for float[], without boxing.
+ * Values are ordered like Arrays.sort(float[]): -0.0 before 0.0 and NaN last. The
+ * comparison sorts first move the NaNs to the end and sort the rest with plain
+ * comparisons, then put the negative zeros in front of the positive ones. Searches
+ * treat values as equal when Float.compare does, so NaN and -0.0 can be found.
+ */
+public final class FloatAlgorithms {
+
+    private FloatAlgorithms() {
+    }
+
+    /**
+     * Sorts the array in place using Selection Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void selectionSort(float[] arr) {
+        int n = moveNaNsToEnd(arr);
+        for (int i = 0; i < n - 1; i++) {
+            int minIndex = i;
+            float min = arr[i];
+            for (int j = i + 1; j < n; j++) {
+                if (arr[j] < min) {
+                    min = arr[j];
+                    minIndex = j;
+                }
+            }
+            if (minIndex != i) {
+                arr[minIndex] = arr[i];
+                arr[i] = min;
+            }
+        }
+        orderZeros(arr, n);
+    }
+
+    /**
+     * Sorts the array in place using Insertion Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void insertionSort(float[] arr) {
+        int n = moveNaNsToEnd(arr);
+        insertionSort(arr, 0, n - 1);
+        orderZeros(arr, n);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) in place using Insertion Sort.
+     */
+    static void insertionSort(float[] arr, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            float key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+        }
+    }
+
+    /**
+     * Sorts the array in place using the {@link IntroSort} algorithm: median-of-three or
+     * ninther pivots, three-way partitioning and a heap sort fallback.
+     *
+     * @param arr the array to sort
+     */
+    public static void quickSort(float[] arr) {
+        int n = moveNaNsToEnd(arr);
+        if (n > 1) {
+            quickSort(arr, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+        orderZeros(arr, n);
+    }
+
+    private static void quickSort(float[] arr, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high);
+                return;
+            }
+            float pivot = arr[selectPivot(arr, low, high)];
+
+            // Three-way partition: arr[low..lt-1] < pivot, arr[lt..gt] == pivot, arr[gt+1..high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                float value = arr[i];
+                if (value < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = value;
+                } else if (value > pivot) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(arr, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(arr, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high);
+    }
+
+    private static int selectPivot(float[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(arr, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(arr, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(arr, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(arr, first, middle, last);
+    }
+
+    private static int medianOfThree(float[] arr, int a, int b, int c) {
+        float va = arr[a];
+        float vb = arr[b];
+        float vc = arr[c];
+        if (va < vb) {
+            return vb < vc ? b : (va < vc ? c : a);
+        }
+        return va < vc ? a : (vb < vc ? c : b);
+    }
+
+    private static void heapSort(float[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            float top = arr[low];
+            arr[low] = arr[low + end];
+            arr[low + end] = top;
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    private static void siftDown(float[] arr, int offset, int i, int size) {
+        float value = arr[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            float childValue = arr[offset + child];
+            int right = child + 1;
+            if (right < size && arr[offset + right] > childValue) {
+                child = right;
+                childValue = arr[offset + right];
+            }
+            if (value >= childValue) {
+                break;
+            }
+            arr[offset + i] = childValue;
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
+
+    /**
+     * Sorts the array using Merge Sort with one scratch buffer. Small ranges are insertion
+     * sorted and merges of runs that are already in order are skipped.
+     *
+     * @param arr the array to sort
+     */
+    public static void mergeSort(float[] arr) {
+        int n = moveNaNsToEnd(arr);
+        if (n > 1) {
+            mergeSort(arr, new float[n], 0, n - 1);
+        }
+        orderZeros(arr, n);
+    }
+
+    private static void mergeSort(float[] arr, float[] buffer, int l, int r) {
+        if (r - l < IntroSort.INSERTION_SORT_THRESHOLD) {
+            insertionSort(arr, l, r);
+            return;
+        }
+        int m = (l + r) >>> 1;
+        mergeSort(arr, buffer, l, m);
+        mergeSort(arr, buffer, m + 1, r);
+        if (arr[m] <= arr[m + 1]) {
+            return;
+        }
+        // Only the left run has to be copied out; the right run is consumed in place
+        System.arraycopy(arr, l, buffer, l, m - l + 1);
+        int i = l, j = m + 1, k = l;
+        int leftEnd = m + 1;
+        while (i < leftEnd && j <= r) {
+            if (buffer[i] <= arr[j]) {
+                arr[k++] = buffer[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftEnd) {
+            System.arraycopy(buffer, i, arr, k, leftEnd - i);
+        }
+    }
+
+    /**
+     * Sorts the array with the byte-wise LSD radix sort of {@link ParallelRadixSort}. NaNs come back as the canonical NaN.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSort(float[] arr) {
+        ParallelRadixSort.sort(arr);
+    }
+
+    /**
+     * Returns the index of the first element equal to target by Float.compare, or -1 if
+     * there is none.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     */
+    public static int linearSearch(float[] arr, float target) {
+        for (int i = 0; i < arr.length; i++) {
+            if (Float.compare(arr[i], target) == 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search over an array that the caller guarantees is sorted as by radixSort.
+     * Sortedness is not re-checked. Returns the index of any element equal to target by
+     * Float.compare, or -1 if there is none.
+     *
+     * @param arr    the sorted array to search
+     * @param target the element to search for
+     */
+    public static int binarySearch(float[] arr, float target) {
+        int low = 0;
+        int high = arr.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Float.compare(arr[mid], target);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Moves every NaN to the end of the array; returns the number of other values.
+     */
+    private static int moveNaNsToEnd(float[] arr) {
+        int n = arr.length;
+        for (int i = n - 1; i >= 0; i--) {
+            float value = arr[i];
+            if (value != value) {
+                arr[i] = arr[--n];
+                arr[n] = value;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * The comparison sorts treat -0.0 and 0.0 as equal. Finds the run of zeros in the
+     * sorted arr[0..n) and rewrites it with the negative zeros first.
+     */
+    private static void orderZeros(float[] arr, int n) {
+        int low = 0;
+        int high = n;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int negativeZeros = 0;
+        int end = low;
+        for (; end < n && arr[end] == 0; end++) {
+            if (Float.floatToRawIntBits(arr[end]) < 0) {
+                negativeZeros++;
+            }
+        }
+        for (int i = low; i < end; i++) {
+            arr[i] = i < low + negativeZeros ? -0.0f : 0.0f;
+        }
+    }
+}
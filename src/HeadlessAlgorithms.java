@@ -0,0 +1,507 @@
+/* File: HeadlessAlgorithms.java */
+import java.util.Arrays;
+
+/**
+ * Production ("headless") versions of every algorithm in the visualizer.
+ * These methods have no dependency on JavaFX or Task, do no
+ * string building and carry no per-element step-by-step branches, so they can be
+ * called from plain server code on arrays with millions of elements.
+ * <p>
+ * Operation counts are kept in locals and reported through {@link Metrics}; with
+ * metrics disabled the counting is dead code and compiled away.
+ * <p>
+ * The sorts and the linear search also come with a {@link CancellationToken}: they
+ * poll it once per outer iteration, recursion frame, pass or CHECK_INTERVAL block and
+ * report their progress to it. A cancelled sort returns early and leaves the array a
+ * permutation of the input in no particular order.
+ */
+public final class HeadlessAlgorithms {
+
+    private HeadlessAlgorithms() {
+    }
+
+    /**
+     * Sorts the array in place using Selection Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void selectionSort(int[] arr) {
+        selectionSort(arr, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array in place using Selection Sort, checking the token once per outer iteration.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void selectionSort(int[] arr, CancellationToken token) {
+        int n = arr.length;
+        long swaps = 0;
+        int i = 0;
+        for (; i < n - 1; i++) {
+            if (token.checkpoint(i, n - 1)) {
+                break;
+            }
+            int minIndex = i;
+            int min = arr[i];
+            for (int j = i + 1; j < n; j++) {
+                if (arr[j] < min) {
+                    min = arr[j];
+                    minIndex = j;
+                }
+            }
+            if (minIndex != i) {
+                arr[minIndex] = arr[i];
+                arr[i] = min;
+                swaps++;
+            }
+        }
+        if (Metrics.ENABLED && i > 0) {
+            // Pass k compares n - 1 - k pairs
+            Metrics.comparisons((long) i * (2L * n - 1 - i) / 2);
+            Metrics.swaps(swaps);
+        }
+    }
+
+    /**
+     * Sorts the array in place using Insertion Sort.
+     *
+     * @param arr the array to sort
+     */
+    public static void insertionSort(int[] arr) {
+        insertionSort(arr, 0, arr.length - 1, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array in place using Insertion Sort, checking the token whenever another
+     * CHECK_INTERVAL elements were visited or shifted.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void insertionSort(int[] arr, CancellationToken token) {
+        insertionSort(arr, 0, arr.length - 1, token);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) in place using Insertion Sort.
+     */
+    static void insertionSort(int[] arr, int low, int high) {
+        insertionSort(arr, low, high, CancellationToken.NONE);
+    }
+
+    private static void insertionSort(int[] arr, int low, int high, CancellationToken token) {
+        long shifts = 0;
+        long comparisons = 0;
+        // Long insertions (reversed input) count as much work as many short ones
+        long nextCheck = CancellationToken.CHECK_INTERVAL;
+        for (int i = low + 1; i <= high; i++) {
+            if (i - low + shifts >= nextCheck) {
+                if (token.checkpoint(i - low - 1, high - low)) {
+                    break;
+                }
+                nextCheck = i - low + shifts + CancellationToken.CHECK_INTERVAL;
+            }
+            int key = arr[i];
+            int j = i - 1;
+            while (j >= low && arr[j] > key) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = key;
+            shifts += i - 1 - j;
+            // One comparison per shift, plus the one that stopped the loop inside the range
+            comparisons += j >= low ? i - j : i - 1 - j;
+        }
+        if (Metrics.ENABLED && high > low) {
+            Metrics.comparisons(comparisons);
+            Metrics.writes(shifts + (high - low));
+        }
+    }
+
+    /**
+     * Sorts the array in place using Quick Sort (last element as pivot, as in the pseudocode panel).
+     * Only the smaller partition is recursed into, so the stack depth stays O(log n).
+     *
+     * @param arr the array to sort
+     */
+    public static void quickSort(int[] arr) {
+        quickSort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts the array in place using Quick Sort, checking the token before every
+     * partition of at least CHECK_INTERVAL elements.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void quickSort(int[] arr, CancellationToken token) {
+        quickSort(arr, 0, arr.length - 1, 1, token, new long[1]);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) in place using Quick Sort.
+     */
+    public static void quickSort(int[] arr, int low, int high) {
+        quickSort(arr, low, high, 1, CancellationToken.NONE, new long[1]);
+    }
+
+    /**
+     * placed[0] counts the elements in their final position, for the progress report.
+     */
+    private static void quickSort(int[] arr, int low, int high, int depth, CancellationToken token, long[] placed) {
+        if (Metrics.ENABLED && low < high) {
+            Metrics.recursionDepth(depth);
+        }
+        while (low < high) {
+            if (high - low >= CancellationToken.CHECK_INTERVAL && token.checkpoint(placed[0], arr.length)) {
+                return;
+            }
+            int pivotIndex = partition(arr, low, high);
+            placed[0]++;
+            if (pivotIndex - low < high - pivotIndex) {
+                quickSort(arr, low, pivotIndex - 1, depth + 1, token, placed);
+                low = pivotIndex + 1;
+            } else {
+                quickSort(arr, pivotIndex + 1, high, depth + 1, token, placed);
+                high = pivotIndex - 1;
+            }
+        }
+        if (low == high) {
+            placed[0]++;
+        }
+    }
+
+    /**
+     * Lomuto partition around arr[high]; returns the final index of the pivot.
+     */
+    private static int partition(int[] arr, int low, int high) {
+        int pivot = arr[high];
+        int i = low - 1;
+        for (int j = low; j < high; j++) {
+            if (arr[j] < pivot) {
+                i++;
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+            }
+        }
+        arr[high] = arr[i + 1];
+        arr[i + 1] = pivot;
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(high - low);
+            Metrics.swaps(i - low + 2);
+        }
+        return i + 1;
+    }
+
+    /**
+     * Sorts the array using a stable Merge Sort. A single scratch buffer is allocated
+     * for the whole sort instead of two temporary arrays per merge.
+     *
+     * @param arr the array to sort
+     */
+    public static void mergeSort(int[] arr) {
+        mergeSort(arr, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array using a stable Merge Sort, checking the token in every recursion
+     * frame of at least CHECK_INTERVAL elements.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void mergeSort(int[] arr, CancellationToken token) {
+        if (arr.length < 2) {
+            return;
+        }
+        int[] buffer = new int[arr.length];
+        if (Metrics.ENABLED) {
+            Metrics.allocated(4L * arr.length);
+        }
+        // Every level of the recursion merges up to n elements
+        long total = (long) arr.length * (32 - Integer.numberOfLeadingZeros(arr.length - 1));
+        mergeSort(arr, buffer, 0, arr.length - 1, token, new long[]{0, total});
+    }
+
+    /**
+     * progress[0] counts the elements merged so far over all levels, out of progress[1].
+     */
+    private static void mergeSort(int[] arr, int[] buffer, int l, int r, CancellationToken token, long[] progress) {
+        if (l < r) {
+            boolean checked = r - l >= CancellationToken.CHECK_INTERVAL;
+            if (checked && token.checkpoint(progress[0], progress[1])) {
+                return;
+            }
+            int m = (l + r) >>> 1;
+            mergeSort(arr, buffer, l, m, token, progress);
+            mergeSort(arr, buffer, m + 1, r, token, progress);
+            if (checked && token.isCancelled()) {
+                return;
+            }
+            boolean timed = Metrics.ENABLED && r - l + 1 >= Metrics.MIN_TIMED_MERGE;
+            long start = timed ? System.nanoTime() : 0;
+            if (Metrics.ENABLED) {
+                Metrics.comparisons(1);
+            }
+            if (arr[m] > arr[m + 1]) {
+                merge(arr, buffer, l, m, r);
+            }
+            if (timed) {
+                Metrics.phase(Metrics.mergeLevel(r - l + 1), start);
+            }
+            progress[0] += r - l + 1;
+        }
+    }
+
+    /**
+     * Merges the sorted runs arr[l..m] and arr[m+1..r] using buffer as scratch space.
+     */
+    static void merge(int[] arr, int[] buffer, int l, int m, int r) {
+        // Only the left run has to be copied out; the right run is consumed in place
+        int n1 = m - l + 1;
+        System.arraycopy(arr, l, buffer, l, n1);
+
+        int i = l, j = m + 1, k = l;
+        int leftEnd = m + 1;
+        while (i < leftEnd && j <= r) {
+            if (buffer[i] <= arr[j]) {
+                arr[k++] = buffer[i++];
+            } else {
+                arr[k++] = arr[j++];
+            }
+        }
+        if (i < leftEnd) {
+            System.arraycopy(buffer, i, arr, k, leftEnd - i);
+        }
+        if (Metrics.ENABLED) {
+            // One comparison per element placed by the loop; every left element is
+            // written twice, every right element placed by the loop once
+            Metrics.comparisons((i - l) + (j - m - 1));
+            Metrics.writes(2L * n1 + (j - m - 1));
+        }
+    }
+
+    /**
+     * Sorts the array using an LSD base-10 Radix Sort. Unlike the pseudocode version, negative
+     * values and empty arrays are handled: digits are taken from the distance to the
+     * minimum value, and one output buffer is reused for every pass.
+     *
+     * @param arr the array to sort
+     */
+    public static void radixSort(int[] arr) {
+        radixSort(arr, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array using an LSD base-10 Radix Sort, checking the token before every pass.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void radixSort(int[] arr, CancellationToken token) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = arr[0];
+        int max = arr[0];
+        for (int i = 1; i < n; i++) {
+            int value = arr[i];
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        long range = (long) max - min;
+        int passes = 0;
+        for (long exp = 1; range / exp > 0; exp *= 10) {
+            passes++;
+        }
+
+        int[] src = arr;
+        int[] dst = new int[n];
+        int[] count = new int[10];
+        if (Metrics.ENABLED) {
+            Metrics.allocated(4L * n + 4 * 10);
+        }
+        long exp = 1;
+        for (int pass = 0; pass < passes; pass++, exp *= 10) {
+            if (token.checkpoint((long) pass * n, (long) passes * n)) {
+                break;
+            }
+            long passStart = Metrics.phaseStart();
+            Arrays.fill(count, 0);
+            for (int i = 0; i < n; i++) {
+                count[(int) (((long) src[i] - min) / exp % 10)]++;
+            }
+            for (int d = 1; d < 10; d++) {
+                count[d] += count[d - 1];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                int value = src[i];
+                dst[--count[(int) (((long) value - min) / exp % 10)]] = value;
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+                Metrics.phase("digit pass", passStart);
+            }
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+            }
+        }
+    }
+
+    /** Largest value range (max - min + 1) countingSort accepts: a 64 MB count array. */
+    public static final int MAX_COUNTING_RANGE = 1 << 24;
+
+    /**
+     * Sorts the array using Counting Sort. Only worthwhile when the value range is not
+     * much larger than the array.
+     *
+     * @param arr the array to sort
+     * @throws IllegalArgumentException if max - min + 1 exceeds MAX_COUNTING_RANGE
+     */
+    public static void countingSort(int[] arr) {
+        countingSort(arr, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array using Counting Sort, checking the token after the counting pass.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     * @throws IllegalArgumentException if max - min + 1 exceeds MAX_COUNTING_RANGE
+     */
+    public static void countingSort(int[] arr, CancellationToken token) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = arr[0];
+        int max = arr[0];
+        for (int value : arr) {
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        long range = (long) max - min + 1;
+        if (range > MAX_COUNTING_RANGE) {
+            throw new IllegalArgumentException("Value range " + range + " too large for counting sort");
+        }
+        int[] count = new int[(int) range];
+        if (Metrics.ENABLED) {
+            Metrics.allocated(4 * range);
+            Metrics.writes(n);
+        }
+        for (int value : arr) {
+            count[value - min]++;
+        }
+        if (token.checkpoint(n, 2L * n)) {
+            return;
+        }
+        int k = 0;
+        for (int b = 0; b < count.length; b++) {
+            int c = count[b];
+            if (c != 0) {
+                Arrays.fill(arr, k, k + c, b + min);
+                k += c;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1 if it is not present.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     */
+    public static int linearSearch(int[] arr, int target) {
+        return linearSearch(arr, target, 0, arr.length);
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1 if it is not present,
+     * checking the token once per CHECK_INTERVAL elements.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     * @param token  polled for cancellation, and told the progress
+     * @throws java.util.concurrent.CancellationException if the token was cancelled before the scan ended
+     */
+    public static int linearSearch(int[] arr, int target, CancellationToken token) {
+        for (int from = 0; from < arr.length; from += CancellationToken.CHECK_INTERVAL) {
+            token.progress(from, arr.length);
+            token.throwIfCancelled();
+            int to = Math.min(arr.length, from + CancellationToken.CHECK_INTERVAL);
+            int index = linearSearch(arr, target, from, to);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of target in arr[from, to), or -1.
+     */
+    static int linearSearch(int[] arr, int target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (arr[i] == target) {
+                if (Metrics.ENABLED) {
+                    Metrics.comparisons(i - from + 1);
+                }
+                return i;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(to - from);
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search over an array that the caller guarantees is sorted in non-decreasing
+     * order. Sortedness is not re-checked. Returns the index of any matching element,
+     * or -1 if it is not present.
+     *
+     * @param arr    the sorted array to search
+     * @param target the element to search for
+     */
+    public static int binarySearch(int[] arr, int target) {
+        int low = 0;
+        int high = arr.length - 1;
+        int probes = 0;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int value = arr[mid];
+            probes++;
+            if (value < target) {
+                low = mid + 1;
+            } else if (value > target) {
+                high = mid - 1;
+            } else {
+                if (Metrics.ENABLED) {
+                    Metrics.comparisons(probes);
+                }
+                return mid;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(probes);
+        }
+        return -1;
+    }
+}
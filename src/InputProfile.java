@@ -0,0 +1,94 @@
+/* File: InputProfile.java */
+import java.util.Arrays;
+
+/**
+ * Cheap statistics about an input array, used by {@link AdaptiveSorter} to pick an engine.
+ * Linear passes give the exact size, minimum, maximum and number of natural runs; the
+ * duplicate ratio is estimated from an evenly spaced sample.
+ * <p>
+ * Runs are counted the way {@link TimSort} finds them: from the start of a run, a
+ * strictly descending run if the next element is smaller, else a non-descending run,
+ * each extended as far as it goes. A reversed input is therefore one run.
+ *
+ * @param size           number of elements
+ * @param min            smallest element (0 for an empty array)
+ * @param max            largest element (0 for an empty array)
+ * @param runs           number of natural runs, non-descending or strictly descending
+ * @param sorted         whether the array is in non-descending order
+ * @param duplicateRatio share of sampled elements equal to another sampled element
+ */
+public record InputProfile(int size, int min, int max, int runs, boolean sorted, double duplicateRatio) {
+
+    /** Maximum number of elements sampled for the duplicate estimate. */
+    static final int SAMPLE_SIZE = 1024;
+
+    /**
+     * Profiles the array without modifying it.
+     */
+    public static InputProfile of(int[] arr) {
+        int n = arr.length;
+        if (n == 0) {
+            return new InputProfile(0, 0, 0, 0, true, 0.0);
+        }
+        int min = arr[0];
+        int max = arr[0];
+        for (int value : arr) {
+            if (value < min) {
+                min = value;
+            } else if (value > max) {
+                max = value;
+            }
+        }
+        int runs = 0;
+        boolean descending = false;
+        for (int i = 0; i < n; ) {
+            int j = i + 1;
+            if (j < n && arr[j] < arr[i]) {
+                descending = true;
+                while (j < n && arr[j] < arr[j - 1]) {
+                    j++;
+                }
+            } else {
+                while (j < n && arr[j] >= arr[j - 1]) {
+                    j++;
+                }
+            }
+            runs++;
+            i = j;
+        }
+        return new InputProfile(n, min, max, runs, runs == 1 && !descending, sampleDuplicateRatio(arr));
+    }
+
+    private static double sampleDuplicateRatio(int[] arr) {
+        int sampleSize = Math.min(arr.length, SAMPLE_SIZE);
+        int[] sample = new int[sampleSize];
+        long step = arr.length / sampleSize;
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = arr[(int) (i * step)];
+        }
+        Arrays.sort(sample);
+        int duplicates = 0;
+        for (int i = 1; i < sampleSize; i++) {
+            if (sample[i] == sample[i - 1]) {
+                duplicates++;
+            }
+        }
+        return (double) duplicates / sampleSize;
+    }
+
+    /**
+     * Number of distinct values between min and max, inclusive.
+     */
+    public long range() {
+        return size == 0 ? 0 : (long) max - min + 1;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("n=%d, runs=%d, range=%d, duplicates=%.0f%%", size, runs, range(), duplicateRatio * 100);
+    }
+}
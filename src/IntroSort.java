@@ -0,0 +1,201 @@
+/* File: IntroSort.java */
+
+/**
+ * Hardened Quick Sort ("introsort") for production use.
+ * Compared to the textbook Quick Sort ({@link HeadlessAlgorithms#quickSort}) it
+ * <ul>
+ *     <li>picks the pivot as the median of three, or Tukey's ninther on larger ranges,
+ *     so sorted and reversed inputs no longer degrade,</li>
+ *     <li>partitions three ways (less / equal / greater), so runs of duplicates are
+ *     finished in a single pass,</li>
+ *     <li>recurses only into the smaller side and loops on the larger one, which bounds
+ *     the stack depth by O(log n),</li>
+ *     <li>switches to heap sort once the recursion depth passes 2 * log2(n), which
+ *     guarantees O(n log n) in the worst case.</li>
+ * </ul>
+ * Small ranges are finished with insertion sort. With a {@link CancellationToken} the
+ * token is checked before partitioning any range of at least CHECK_INTERVAL elements.
+ */
+public final class IntroSort {
+
+    /** Ranges of at most this many elements are insertion sorted. */
+    static final int INSERTION_SORT_THRESHOLD = 24;
+    /** From this size on the pivot is the ninther instead of the median of three. */
+    static final int NINTHER_THRESHOLD = 128;
+
+    private IntroSort() {
+    }
+
+    /**
+     * Sorts the array in place.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length - 1);
+    }
+
+    /**
+     * Sorts the array in place. A cancelled sort returns early and leaves the array a
+     * permutation of the input.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void sort(int[] arr, CancellationToken token) {
+        sort(arr, 0, arr.length - 1, token);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) in place.
+     *
+     * @param arr  the array to sort
+     * @param low  the starting index of the range to sort
+     * @param high the ending index of the range to sort
+     */
+    public static void sort(int[] arr, int low, int high) {
+        sort(arr, low, high, CancellationToken.NONE);
+    }
+
+    private static void sort(int[] arr, int low, int high, CancellationToken token) {
+        int n = high - low + 1;
+        if (n < 2) {
+            return;
+        }
+        sort(arr, low, high, 2 * (31 - Integer.numberOfLeadingZeros(n)), 1, token, new long[]{0, n});
+    }
+
+    /**
+     * progress[0] counts the elements in their final position, out of progress[1].
+     */
+    private static void sort(int[] arr, int low, int high, int depthLimit, int depth, CancellationToken token,
+                             long[] progress) {
+        if (Metrics.ENABLED) {
+            Metrics.recursionDepth(depth);
+        }
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (high - low >= CancellationToken.CHECK_INTERVAL && token.checkpoint(progress[0], progress[1])) {
+                return;
+            }
+            if (depthLimit-- == 0) {
+                long start = Metrics.phaseStart();
+                heapSort(arr, low, high);
+                Metrics.phase("heap sort fallback", start);
+                progress[0] += high - low + 1;
+                return;
+            }
+            long bounds = partition(arr, low, high, arr[selectPivot(arr, low, high)]);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            progress[0] += gt - lt + 1;
+
+            // Recurse into the smaller side, loop on the larger one
+            if (lt - low < high - gt) {
+                sort(arr, low, lt - 1, depthLimit, depth + 1, token, progress);
+                low = gt + 1;
+            } else {
+                sort(arr, gt + 1, high, depthLimit, depth + 1, token, progress);
+                high = lt - 1;
+            }
+        }
+        HeadlessAlgorithms.insertionSort(arr, low, high);
+        progress[0] += Math.max(0, high - low + 1);
+    }
+
+    /**
+     * Three-way partitions arr[low..high] around pivot, which must occur in the range, into
+     * arr[low..lt-1] < pivot, arr[lt..gt] == pivot and arr[gt+1..high] > pivot.
+     *
+     * @return lt and gt packed into one long as (lt << 32) | gt
+     */
+    static long partition(int[] arr, int low, int high, int pivot) {
+        int lt = low;
+        int gt = high;
+        int i = low;
+        while (i <= gt) {
+            int value = arr[i];
+            if (value < pivot) {
+                arr[i++] = arr[lt];
+                arr[lt++] = value;
+            } else if (value > pivot) {
+                arr[i] = arr[gt];
+                arr[gt--] = value;
+            } else {
+                i++;
+            }
+        }
+        if (Metrics.ENABLED) {
+            // Elements below the pivot cost one comparison, all others two
+            int less = lt - low;
+            int examined = high - low + 1;
+            Metrics.comparisons(2L * examined - less);
+            Metrics.swaps(less + (high - gt));
+        }
+        return ((long) lt << 32) | (gt & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Returns the index of the pivot: the median of the first, middle and last element,
+     * or on larger ranges the median of three such medians (Tukey's ninther).
+     */
+    static int selectPivot(int[] arr, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(arr, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(arr, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(arr, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(arr, first, middle, last);
+    }
+
+    private static int medianOfThree(int[] arr, int a, int b, int c) {
+        int va = arr[a];
+        int vb = arr[b];
+        int vc = arr[c];
+        if (va < vb) {
+            return vb < vc ? b : (va < vc ? c : a);
+        }
+        return va < vc ? a : (vb < vc ? c : b);
+    }
+
+    /**
+     * Sorts arr[low..high] (inclusive) with heap sort.
+     */
+    static void heapSort(int[] arr, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int top = arr[low];
+            arr[low] = arr[low + end];
+            arr[low + end] = top;
+            siftDown(arr, low, 0, end);
+        }
+    }
+
+    /**
+     * Restores the max-heap property below node i of the heap stored in arr[offset..offset+size-1].
+     */
+    private static void siftDown(int[] arr, int offset, int i, int size) {
+        int value = arr[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int childValue = arr[offset + child];
+            int right = child + 1;
+            if (right < size && arr[offset + right] > childValue) {
+                child = right;
+                childValue = arr[offset + right];
+            }
+            if (value >= childValue) {
+                break;
+            }
+            arr[offset + i] = childValue;
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
+}
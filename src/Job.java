@@ -0,0 +1,51 @@
+/* File: Job.java */
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A job submitted to an {@link ExecutionService}: its eventual result and the token
+ * used to cancel it.
+ *
+ * @param <T> type of the result
+ */
+public final class Job<T> {
+
+    private final CancellationToken token;
+    private final CompletableFuture<T> result;
+
+    Job(CancellationToken token, CompletableFuture<T> result) {
+        this.token = token;
+        this.result = result;
+    }
+
+    /**
+     * Completes with the value returned by the job, exceptionally with what it threw,
+     * or is cancelled when the job is cancelled.
+     */
+    public CompletableFuture<T> result() {
+        return result;
+    }
+
+    public CancellationToken token() {
+        return token;
+    }
+
+    /**
+     * Cancels the job. A queued job is skipped; a running one stops at its next token
+     * check. The result is cancelled at once either way.
+     */
+    public void cancel() {
+        token.cancel();
+        result.cancel(false);
+    }
+
+    /**
+     * Returns the fraction of the work the job has reported done, from 0 to 1.
+     */
+    public double progress() {
+        return token.progress();
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+}
@@ -0,0 +1,566 @@
+/* File: KeyValueSort.java */
+
+/**
+ * Sorts of primitive keys that carry a payload along, so records can be ordered by key
+ * without boxing them into objects and sorting with a Comparator.
+ * <ul>
+ *     <li>quickSort, mergeSort and radixSort sort an int[] or long[] key array and move an
+ *     int[] value array in lockstep (values[i] belongs to keys[i]). The values are
+ *     typically row ids or a second column.</li>
+ *     <li>argsort returns the sorting permutation without touching the keys, and the
+ *     apply methods reorder any number of payload arrays of any type by it.</li>
+ * </ul>
+ * quickSort is the {@link IntroSort} algorithm and not stable; mergeSort, radixSort and
+ * argsort keep equal keys in their original order.
+ */
+public final class KeyValueSort {
+
+    private static final int RADIX = 256;
+
+    private KeyValueSort() {
+    }
+
+    private static void checkLengths(int keys, int values) {
+        if (keys != values) {
+            throw new IllegalArgumentException("Got " + keys + " keys but " + values + " values");
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Argsort
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Returns the stable sorting permutation p of keys: keys[p[0]] <= keys[p[1]] <= ...
+     * The keys are not modified.
+     */
+    public static int[] argsort(int[] keys) {
+        int[] order = identity(keys.length);
+        radixSort(keys.clone(), order);
+        return order;
+    }
+
+    /**
+     * Returns the stable sorting permutation p of keys: keys[p[0]] <= keys[p[1]] <= ...
+     * The keys are not modified.
+     */
+    public static int[] argsort(long[] keys) {
+        int[] order = identity(keys.length);
+        radixSort(keys.clone(), order);
+        return order;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Reorders arr by the permutation: afterwards arr[i] holds what was at arr[order[i]].
+     *
+     * @param order a permutation of 0..arr.length-1, e.g. from argsort
+     * @param arr   the array to reorder
+     */
+    public static void apply(int[] order, int[] arr) {
+        checkLengths(order.length, arr.length);
+        int[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) {
+            arr[i] = source[order[i]];
+        }
+    }
+
+    /**
+     * Reorders arr by the permutation: afterwards arr[i] holds what was at arr[order[i]].
+     */
+    public static void apply(int[] order, long[] arr) {
+        checkLengths(order.length, arr.length);
+        long[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) {
+            arr[i] = source[order[i]];
+        }
+    }
+
+    /**
+     * Reorders arr by the permutation: afterwards arr[i] holds what was at arr[order[i]].
+     */
+    public static void apply(int[] order, double[] arr) {
+        checkLengths(order.length, arr.length);
+        double[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) {
+            arr[i] = source[order[i]];
+        }
+    }
+
+    /**
+     * Reorders arr by the permutation: afterwards arr[i] holds what was at arr[order[i]].
+     */
+    public static void apply(int[] order, float[] arr) {
+        checkLengths(order.length, arr.length);
+        float[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) {
+            arr[i] = source[order[i]];
+        }
+    }
+
+    /**
+     * Reorders arr by the permutation: afterwards arr[i] holds what was at arr[order[i]].
+     */
+    public static <T> void apply(int[] order, T[] arr) {
+        checkLengths(order.length, arr.length);
+        T[] source = arr.clone();
+        for (int i = 0; i < order.length; i++) {
+            arr[i] = source[order[i]];
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Radix sort
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts keys ascending with a byte-wise LSD radix sort, moving values along. Stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void radixSort(int[] keys, int[] values) {
+        int n = keys.length;
+        checkLengths(n, values.length);
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for (int key : keys) {
+            int flipped = key ^ Integer.MIN_VALUE;
+            for (int d = 0; d < Integer.BYTES; d++) {
+                counts[d][(flipped >>> (8 * d)) & 0xFF]++;
+            }
+        }
+        int[] k = keys;
+        int[] v = values;
+        int[] kBuffer = null;
+        int[] vBuffer = null;
+        for (int d = 0; d < Integer.BYTES; d++) {
+            int[] count = counts[d];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            if (kBuffer == null) {
+                kBuffer = new int[n];
+                vBuffer = new int[n];
+            }
+            toOffsets(count);
+            int shift = 8 * d;
+            for (int i = 0; i < n; i++) {
+                int key = k[i];
+                int target = count[((key ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++;
+                kBuffer[target] = key;
+                vBuffer[target] = v[i];
+            }
+            int[] t = k;
+            k = kBuffer;
+            kBuffer = t;
+            t = v;
+            v = vBuffer;
+            vBuffer = t;
+        }
+        if (k != keys) {
+            System.arraycopy(k, 0, keys, 0, n);
+            System.arraycopy(v, 0, values, 0, n);
+        }
+    }
+
+    /**
+     * Sorts keys ascending with a byte-wise LSD radix sort, moving values along. Stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void radixSort(long[] keys, int[] values) {
+        int n = keys.length;
+        checkLengths(n, values.length);
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (long key : keys) {
+            long flipped = key ^ Long.MIN_VALUE;
+            for (int d = 0; d < Long.BYTES; d++) {
+                counts[d][(int) (flipped >>> (8 * d)) & 0xFF]++;
+            }
+        }
+        long[] k = keys;
+        int[] v = values;
+        long[] kBuffer = null;
+        int[] vBuffer = null;
+        for (int d = 0; d < Long.BYTES; d++) {
+            int[] count = counts[d];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            if (kBuffer == null) {
+                kBuffer = new long[n];
+                vBuffer = new int[n];
+            }
+            toOffsets(count);
+            int shift = 8 * d;
+            for (int i = 0; i < n; i++) {
+                long key = k[i];
+                int target = count[(int) ((key ^ Long.MIN_VALUE) >>> shift) & 0xFF]++;
+                kBuffer[target] = key;
+                vBuffer[target] = v[i];
+            }
+            long[] kt = k;
+            k = kBuffer;
+            kBuffer = kt;
+            int[] vt = v;
+            v = vBuffer;
+            vBuffer = vt;
+        }
+        if (k != keys) {
+            System.arraycopy(k, 0, keys, 0, n);
+            System.arraycopy(v, 0, values, 0, n);
+        }
+    }
+
+    private static boolean isTrivialPass(int[] count, int n) {
+        for (int c : count) {
+            if (c == n) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int i = 0; i < RADIX; i++) {
+            int c = count[i];
+            count[i] = sum;
+            sum += c;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Merge sort
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts keys ascending with merge sort, moving values along. Stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void mergeSort(int[] keys, int[] values) {
+        checkLengths(keys.length, values.length);
+        if (keys.length < 2) {
+            return;
+        }
+        mergeSort(keys, values, new int[keys.length], new int[keys.length], 0, keys.length - 1);
+    }
+
+    private static void mergeSort(int[] keys, int[] values, int[] kBuffer, int[] vBuffer, int l, int r) {
+        if (r - l < IntroSort.INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, values, l, r);
+            return;
+        }
+        int m = (l + r) >>> 1;
+        mergeSort(keys, values, kBuffer, vBuffer, l, m);
+        mergeSort(keys, values, kBuffer, vBuffer, m + 1, r);
+        if (keys[m] <= keys[m + 1]) {
+            return;
+        }
+        // As in HeadlessAlgorithms.merge, only the left run is copied out
+        int n1 = m - l + 1;
+        System.arraycopy(keys, l, kBuffer, l, n1);
+        System.arraycopy(values, l, vBuffer, l, n1);
+        int i = l, j = m + 1, k = l;
+        int leftEnd = m + 1;
+        while (i < leftEnd && j <= r) {
+            if (kBuffer[i] <= keys[j]) {
+                values[k] = vBuffer[i];
+                keys[k++] = kBuffer[i++];
+            } else {
+                values[k] = values[j];
+                keys[k++] = keys[j++];
+            }
+        }
+        if (i < leftEnd) {
+            System.arraycopy(kBuffer, i, keys, k, leftEnd - i);
+            System.arraycopy(vBuffer, i, values, k, leftEnd - i);
+        }
+    }
+
+    /**
+     * Sorts keys ascending with merge sort, moving values along. Stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void mergeSort(long[] keys, int[] values) {
+        checkLengths(keys.length, values.length);
+        if (keys.length < 2) {
+            return;
+        }
+        mergeSort(keys, values, new long[keys.length], new int[keys.length], 0, keys.length - 1);
+    }
+
+    private static void mergeSort(long[] keys, int[] values, long[] kBuffer, int[] vBuffer, int l, int r) {
+        if (r - l < IntroSort.INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, values, l, r);
+            return;
+        }
+        int m = (l + r) >>> 1;
+        mergeSort(keys, values, kBuffer, vBuffer, l, m);
+        mergeSort(keys, values, kBuffer, vBuffer, m + 1, r);
+        if (keys[m] <= keys[m + 1]) {
+            return;
+        }
+        int n1 = m - l + 1;
+        System.arraycopy(keys, l, kBuffer, l, n1);
+        System.arraycopy(values, l, vBuffer, l, n1);
+        int i = l, j = m + 1, k = l;
+        int leftEnd = m + 1;
+        while (i < leftEnd && j <= r) {
+            if (kBuffer[i] <= keys[j]) {
+                values[k] = vBuffer[i];
+                keys[k++] = kBuffer[i++];
+            } else {
+                values[k] = values[j];
+                keys[k++] = keys[j++];
+            }
+        }
+        if (i < leftEnd) {
+            System.arraycopy(kBuffer, i, keys, k, leftEnd - i);
+            System.arraycopy(vBuffer, i, values, k, leftEnd - i);
+        }
+    }
+
+    private static void insertionSort(int[] keys, int[] values, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = keys[i];
+            int value = values[i];
+            int j = i - 1;
+            while (j >= low && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] values, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long key = keys[i];
+            int value = values[i];
+            int j = i - 1;
+            while (j >= low && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Quick sort (introsort)
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts keys ascending in place with introsort, moving values along. Not stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void quickSort(int[] keys, int[] values) {
+        int n = keys.length;
+        checkLengths(n, values.length);
+        if (n > 1) {
+            quickSort(keys, values, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+    }
+
+    private static void quickSort(int[] keys, int[] values, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, values, low, high);
+                return;
+            }
+            int pivot = keys[IntroSort.selectPivot(keys, low, high)];
+
+            // Three-way partition, swapping the values wherever the keys are swapped
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int key = keys[i];
+                if (key < pivot) {
+                    swap(keys, values, i++, lt++);
+                } else if (key > pivot) {
+                    swap(keys, values, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(keys, values, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(keys, values, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(keys, values, low, high);
+    }
+
+    /**
+     * Sorts keys[low..high] (inclusive) with heap sort, moving values along; the fallback
+     * once the recursion gets too deep, as in {@link IntroSort}.
+     */
+    private static void heapSort(int[] keys, int[] values, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, values, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, values, low, low + end);
+            siftDown(keys, values, low, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] keys, int[] values, int offset, int i, int size) {
+        int key = keys[offset + i];
+        int value = values[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[offset + right] > keys[offset + child]) {
+                child = right;
+            }
+            if (key >= keys[offset + child]) {
+                break;
+            }
+            keys[offset + i] = keys[offset + child];
+            values[offset + i] = values[offset + child];
+            i = child;
+        }
+        keys[offset + i] = key;
+        values[offset + i] = value;
+    }
+
+    private static void swap(int[] keys, int[] values, int i, int j) {
+        int key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    /**
+     * Sorts keys ascending in place with introsort, moving values along. Not stable.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length
+     */
+    public static void quickSort(long[] keys, int[] values) {
+        int n = keys.length;
+        checkLengths(n, values.length);
+        if (n > 1) {
+            quickSort(keys, values, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+    }
+
+    private static void quickSort(long[] keys, int[] values, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(keys, values, low, high);
+                return;
+            }
+            long pivot = keys[selectPivot(keys, low, high)];
+
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                long key = keys[i];
+                if (key < pivot) {
+                    swap(keys, values, i++, lt++);
+                } else if (key > pivot) {
+                    swap(keys, values, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(keys, values, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(keys, values, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(keys, values, low, high);
+    }
+
+    private static int selectPivot(long[] keys, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(keys, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(keys, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(keys, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(keys, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(keys, first, middle, last);
+    }
+
+    private static int medianOfThree(long[] keys, int a, int b, int c) {
+        long va = keys[a];
+        long vb = keys[b];
+        long vc = keys[c];
+        if (va < vb) {
+            return vb < vc ? b : (va < vc ? c : a);
+        }
+        return va < vc ? a : (vb < vc ? c : b);
+    }
+
+    private static void heapSort(long[] keys, int[] values, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, values, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, values, low, low + end);
+            siftDown(keys, values, low, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] values, int offset, int i, int size) {
+        long key = keys[offset + i];
+        int value = values[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[offset + right] > keys[offset + child]) {
+                child = right;
+            }
+            if (key >= keys[offset + child]) {
+                break;
+            }
+            keys[offset + i] = keys[offset + child];
+            values[offset + i] = values[offset + child];
+            i = child;
+        }
+        keys[offset + i] = key;
+        values[offset + i] = value;
+    }
+
+    private static void swap(long[] keys, int[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
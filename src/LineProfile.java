@@ -0,0 +1,54 @@
+/* File: LineProfile.java */
+
+/**
+ * How often each pseudocode line ran during one profiled run; see
+ * {@link ProfiledAlgorithms}.
+ *
+ * @param algorithm the algorithm profiled
+ * @param lines     its pseudocode
+ * @param hits      number of times each line ran, indexed like lines
+ * @param nanos     wall-clock time of the profiled run
+ */
+public record LineProfile(SortingAlgorithm algorithm, String[] lines, long[] hits, long nanos) {
+
+    /** Total hits over all lines. */
+    public long total() {
+        long total = 0;
+        for (long count : hits) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the line's share of all hits, from 0 to 1. Every hit stands for a
+     * constant amount of work, so this is also the line's estimated share of the time.
+     */
+    public double share(int line) {
+        long total = total();
+        return total == 0 ? 0 : (double) hits[line] / total;
+    }
+
+    /** Index of the line with the most hits, the hot spot. */
+    public int hottestLine() {
+        int hottest = 0;
+        for (int i = 1; i < hits.length; i++) {
+            if (hits[i] > hits[hottest]) {
+                hottest = i;
+            }
+        }
+        return hottest;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder(String.format("%s line profile (%.2f ms)",
+                algorithm.getDisplayName(), nanos / 1_000_000.0));
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].isEmpty()) {
+                out.append(String.format("\n%2d %14d %5.1f%%  %s", i + 1, hits[i], share(i) * 100, lines[i]));
+            }
+        }
+        return out.toString();
+    }
+}
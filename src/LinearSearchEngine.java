@@ -0,0 +1,103 @@
+/* File: LinearSearchEngine.java */
+
+/**
+ * Headless Linear Search over unsorted arrays: first match, count of matches and all
+ * matching indices.
+ * When the JVM runs with --add-modules jdk.incubator.vector the scans use
+ * {@link VectorLinearSearch}; otherwise plain scalar loops are used.
+ */
+public final class LinearSearchEngine {
+
+    /** Arrays shorter than this are always scanned with the scalar loop. */
+    private static final int VECTOR_THRESHOLD = 64;
+
+    private static final boolean VECTOR_AVAILABLE =
+            ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private LinearSearchEngine() {
+    }
+
+    /**
+     * Returns true if the Vector API implementation is in use.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Returns the index of the first occurrence of key, or -1 if it is not present.
+     *
+     * @param arr the array to search
+     * @param key the element to search for
+     */
+    public static int indexOf(int[] arr, int key) {
+        if (VECTOR_AVAILABLE && arr.length >= VECTOR_THRESHOLD) {
+            return VectorLinearSearch.indexOf(arr, key);
+        }
+        return HeadlessAlgorithms.linearSearch(arr, key);
+    }
+
+    /**
+     * Returns the index of the first occurrence of key, or -1 if it is not present,
+     * checking the token once per CHECK_INTERVAL elements.
+     *
+     * @param arr   the array to search
+     * @param key   the element to search for
+     * @param token polled for cancellation, and told the progress
+     * @throws java.util.concurrent.CancellationException if the token was cancelled before the scan ended
+     */
+    public static int indexOf(int[] arr, int key, CancellationToken token) {
+        if (!VECTOR_AVAILABLE || arr.length < VECTOR_THRESHOLD) {
+            return HeadlessAlgorithms.linearSearch(arr, key, token);
+        }
+        for (int from = 0; from < arr.length; from += CancellationToken.CHECK_INTERVAL) {
+            token.progress(from, arr.length);
+            token.throwIfCancelled();
+            int to = Math.min(arr.length, from + CancellationToken.CHECK_INTERVAL);
+            int index = VectorLinearSearch.indexOf(arr, key, from, to);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of elements equal to key.
+     *
+     * @param arr the array to search
+     * @param key the element to count
+     */
+    public static int count(int[] arr, int key) {
+        if (VECTOR_AVAILABLE && arr.length >= VECTOR_THRESHOLD) {
+            return VectorLinearSearch.count(arr, key);
+        }
+        int count = 0;
+        for (int value : arr) {
+            if (value == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the indices of all elements equal to key, in ascending order.
+     *
+     * @param arr the array to search
+     * @param key the element to search for
+     */
+    public static int[] indicesOf(int[] arr, int key) {
+        if (VECTOR_AVAILABLE && arr.length >= VECTOR_THRESHOLD) {
+            return VectorLinearSearch.indicesOf(arr, key);
+        }
+        int[] indices = new int[count(arr, key)];
+        int found = 0;
+        for (int i = 0; i < arr.length && found < indices.length; i++) {
+            if (arr[i] == key) {
+                indices[found++] = i;
+            }
+        }
+        return indices;
+    }
+}
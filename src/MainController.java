@@ -14,7 +14,7 @@ import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
-import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
 
 public class MainController {
     public static final String MODERN_STYLE = """
@@ -79,10 +79,15 @@ public class MainController {
     private Label resultLabel;
     private ProgressBar progressBar;
     private Button executeButton;
+    private Button cancelButton;
     private Button generateRandomArrayButton;
-    private VisualizerPanel visualizerPanel;
+    private CanvasVisualizer visualizerPanel;
     private PseudocodePanel pseudocodePanel;  // New panel for pseudocode display
     private CheckBox stepByStepCheckBox;
+    // The run in progress, for the Cancel button
+    private Task<String> runningTask;
+    // The run whose call() is still executing; a cancelled Task can outlive its cancellation
+    private volatile Task<String> workingTask;
 
     public MainController() {
         root = new BorderPane();
@@ -125,15 +130,9 @@ public class MainController {
         // Algorithm selection
         Label algorithmLabel = new Label("Algorithm:");
         algorithmChoice = new ComboBox<>();
-        algorithmChoice.getItems().addAll(
-                "Selection Sort",
-                "Insertion Sort",
-                "Quick Sort",
-                "Merge Sort",
-                "Radix Sort",
-                "Linear Search",
-                "Binary Search"
-        );
+        for (SortingAlgorithm algorithm : SortingAlgorithm.values()) {
+            algorithmChoice.getItems().add(algorithm.getDisplayName());
+        }
         algorithmChoice.setPromptText("Choose algorithm");
 
         // Target number input
@@ -167,131 +166,13 @@ public class MainController {
         root.setLeft(inputPanel);
 
         // --- Center: SplitPane for Visualizer and Pseudocode Panels ---
-        visualizerPanel = new VisualizerPanel();
+        visualizerPanel = new CanvasVisualizer();
         pseudocodePanel = new PseudocodePanel();
         // Update pseudocode based on selected algorithm
         algorithmChoice.getSelectionModel().selectedItemProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal != null) {
-                // Set different pseudocode for different algorithms.
-                switch (newVal) {
-                    case "Insertion Sort":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "for i = 1 to n-1",
-                                "   key = array[i]",
-                                "   j = i - 1",
-                                "   while j >= 0 and array[j] > key",
-                                "       array[j+1] = array[j]",
-                                "       j = j - 1",
-                                "   array[j+1] = key"
-                        });
-                        break;
-                    case "Selection Sort":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "for i = 0 to n-2",
-                                "   minIndex = i",
-                                "   for j = i+1 to n-1",
-                                "       if array[j] < array[minIndex]",
-                                "           minIndex = j",
-                                "   swap(array[i], array[minIndex])"
-                        });
-                        break;
-                    case "Quick Sort":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "quickSort(arr, low, high):",
-                                "   if low < high:",
-                                "       pivotIndex = partition(arr, low, high)",
-                                "       quickSort(arr, low, pivotIndex - 1)",
-                                "       quickSort(arr, pivotIndex + 1, high)",
-                                "",
-                                "partition(arr, low, high):",
-                                "   pivot = arr[high]",
-                                "   i = low - 1",
-                                "   for j = low to high - 1:",
-                                "       if arr[j] < pivot:",
-                                "           i++",
-                                "           swap(arr[i], arr[j])",
-                                "   swap(arr[i+1], arr[high])",
-                                "   return i + 1"
-                        });
-                        break;
-                    case "Merge Sort":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "mergeSort(arr, l, r):",
-                                "   if l < r:",
-                                "       m = (l + r) / 2",
-                                "       mergeSort(arr, l, m)",
-                                "       mergeSort(arr, m+1, r)",
-                                "       merge(arr, l, m, r)",
-                                "",
-                                "merge(arr, l, m, r):",
-                                "   n1 = m - l + 1",
-                                "   n2 = r - m",
-                                "   create arrays L[0..n1-1] and R[0..n2-1]",
-                                "   copy arr[l..m] into L[]",
-                                "   copy arr[m+1..r] into R[]",
-                                "   i = 0, j = 0, k = l",
-                                "   while i < n1 and j < n2:",
-                                "       if L[i] <= R[j]:",
-                                "           arr[k] = L[i]",
-                                "           i++",
-                                "       else:",
-                                "           arr[k] = R[j]",
-                                "           j++",
-                                "       k++",
-                                "   copy remaining elements of L (if any)",
-                                "   copy remaining elements of R (if any)"
-                        });
-                        break;
-                    case "Radix Sort":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "radixSort(arr):",
-                                "   m = getMax(arr)",
-                                "   for exp = 1; m/exp > 0; exp = exp * 10:",
-                                "       countSort(arr, exp)",
-                                "",
-                                "countSort(arr, exp):",
-                                "   create output array",
-                                "   create count[0..9] and initialize to 0",
-                                "   for each element in arr:",
-                                "       count[(element/exp) % 10]++",
-                                "   for i = 1 to 9:",
-                                "       count[i] += count[i-1]",
-                                "   for i from n-1 downto 0:",
-                                "       output[count[(arr[i]/exp)%10] - 1] = arr[i]",
-                                "       count[(arr[i]/exp)%10]--",
-                                "   copy output to arr"
-                        });
-                        break;
-                    case "Linear Search":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "linearSearch(arr, target):",
-                                "   for i = 0 to n-1:",
-                                "       if arr[i] == target:",
-                                "           return i",
-                                "   return -1"
-                        });
-                        break;
-                    case "Binary Search":
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "binarySearch(arr, target):",
-                                "   low = 0, high = n-1",
-                                "   while low <= high:",
-                                "       mid = (low + high) / 2",
-                                "       if arr[mid] == target:",
-                                "           return mid",
-                                "       else if arr[mid] < target:",
-                                "           low = mid + 1",
-                                "       else:",
-                                "           high = mid - 1",
-                                "   return -1"
-                        });
-                        break;
-                    default:
-                        pseudocodePanel.setPseudocode(new String[] {
-                                "// Pseudocode not available for this algorithm."
-                        });
-                        break;
-                }
+                // Line IDs of the pseudocode match the counters of the profiled algorithms
+                pseudocodePanel.setPseudocode(ProfiledAlgorithms.pseudocode(SortingAlgorithm.fromDisplayName(newVal)));
             }
         });
 
@@ -315,7 +196,19 @@ public class MainController {
         executeButton.setDefaultButton(true);
         executeButton.setOnAction(e -> executeAlgorithm());
 
-        buttonContainer.getChildren().addAll(generateRandomArrayButton, executeButton);
+        cancelButton = new Button("Cancel");
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> {
+            if (runningTask != null) {
+                runningTask.cancel();
+            }
+        });
+
+        // Race mode: compare several engines on the current input
+        Button raceButton = new Button("Race Engines");
+        raceButton.setOnAction(e -> raceEngines());
+
+        buttonContainer.getChildren().addAll(generateRandomArrayButton, executeButton, cancelButton, raceButton);
 
         progressBar = new ProgressBar(0);
         progressBar.setPrefWidth(400);
@@ -384,11 +277,9 @@ public class MainController {
             for (int i = 0; i < size; i++) {
                 arr[i] = (int) (Math.random() * 100);
             }
-            String arrStr = Arrays.toString(arr)
-                    .replace("[", "")
-                    .replace("]", "")
-                    .replace(",", "");
-            arrayElementsInput.setText(arrStr);
+            StringBuilder arrStr = new StringBuilder(size * 3);
+            ArrayIO.formatInts(arr, arrStr);
+            arrayElementsInput.setText(arrStr.toString());
         } catch (NumberFormatException ex) {
             showError("Please enter a valid array size");
         }
@@ -397,15 +288,11 @@ public class MainController {
     private void executeAlgorithm() {
         try {
             int size = Integer.parseInt(arraySizeInput.getText());
-            String[] elements = arrayElementsInput.getText().split("\\s+");
-            if (elements.length == 1 && elements[0].isEmpty()) {
+            int[] arr = ArrayIO.parseInts(arrayElementsInput.getText());
+            if (arr.length == 0) {
                 showError("Please enter array elements or generate a random array");
                 return;
             }
-            int[] arr = new int[elements.length];
-            for (int i = 0; i < elements.length; i++) {
-                arr[i] = Integer.parseInt(elements[i]);
-            }
             if (arr.length != size) {
                 showError("Number of elements doesn't match the specified array size");
                 return;
@@ -425,19 +312,45 @@ public class MainController {
                 }
             }
             boolean stepByStep = stepByStepCheckBox.isSelected();
+            SortingAlgorithm selected = SortingAlgorithm.fromDisplayName(algorithm);
+            // The profiled run only happens while the panel's profiling toggle is on
+            boolean profileLines = pseudocodePanel.isProfiling() && ProfiledAlgorithms.isProfiled(selected);
             // Disable controls during execution
             executeButton.setDisable(true);
             generateRandomArrayButton.setDisable(true);
+            cancelButton.setDisable(false);
             progressBar.setProgress(0);
             progressBar.setVisible(true);
             visualizerPanel.clear();
+            pseudocodePanel.clearProfile();
 
-            // Run the algorithm on a background thread
+            // Run the algorithm on a pooled worker thread
             int finalTarget = target;
             Task<String> task = new Task<>() {
+                // Progress reported by the algorithm drives the progress bar; cancelling the Task cancels the token
+                private final CancellationToken token = new CancellationToken(this::updateProgress);
+
                 @Override
                 protected String call() throws Exception {
-                    return AlgorithmExecutor.executeAlgorithm(arr, algorithm, finalTarget, stepByStep, visualizerPanel, this);
+                    workingTask = this;
+                    try {
+                        int[] input = profileLines ? arr.clone() : null;
+                        String result = AlgorithmExecutor.executeAlgorithm(arr, algorithm, finalTarget, stepByStep, visualizerPanel, token);
+                        // Skip the profiled run once the Cancel button was pressed
+                        token.throwIfCancelled();
+                        if (input != null) {
+                            pseudocodePanel.showProfile(ProfiledAlgorithms.profile(input, selected, finalTarget, token));
+                        }
+                        return result;
+                    } finally {
+                        workingTask = null;
+                        Platform.runLater(() -> workerReturned(this));
+                    }
+                }
+
+                @Override
+                protected void cancelled() {
+                    token.cancel();
                 }
             };
 
@@ -448,24 +361,34 @@ public class MainController {
                 fade.setToValue(1);
                 resultLabel.setText(result);
                 fade.play();
-                executeButton.setDisable(false);
-                generateRandomArrayButton.setDisable(false);
-                progressBar.progressProperty().unbind();
-                progressBar.setProgress(0);
-                progressBar.setVisible(false);
+                finishRun();
             });
 
             task.setOnFailed(e -> {
                 showError("An error occurred: " + task.getException().getMessage());
-                executeButton.setDisable(false);
-                generateRandomArrayButton.setDisable(false);
-                progressBar.progressProperty().unbind();
-                progressBar.setProgress(0);
-                progressBar.setVisible(false);
+                finishRun();
+            });
+
+            // Runs as soon as Cancel is pressed, while the worker may still be running up to the
+            // algorithm's next check; the controls come back once it has returned
+            task.setOnCancelled(e -> {
+                cancelButton.setDisable(true);
+                if (workingTask == task) {
+                    resultLabel.setText("Cancelling...");
+                } else {
+                    resultLabel.setText("Cancelled");
+                    finishRun();
+                }
             });
 
             progressBar.progressProperty().bind(task.progressProperty());
-            new Thread(task).start();
+            runningTask = task;
+            try {
+                ExecutionService.shared().execute(task);
+            } catch (RejectedExecutionException ex) {
+                showError("Too many jobs are waiting, please try again shortly");
+                finishRun();
+            }
         } catch (NumberFormatException ex) {
             showError("Please enter valid numbers");
         } catch (Exception ex) {
@@ -473,6 +396,44 @@ public class MainController {
         }
     }
 
+    /**
+     * Called on the FX thread once the task's call() has returned. A cancelled run is
+     * only finished here, so the next run cannot queue up behind a worker still busy
+     * with the cancelled one.
+     */
+    private void workerReturned(Task<String> task) {
+        if (runningTask == task && task.isCancelled()) {
+            resultLabel.setText("Cancelled");
+            finishRun();
+        }
+    }
+
+    /**
+     * Re-enables the controls after a run succeeded, failed or was cancelled.
+     */
+    private void finishRun() {
+        runningTask = null;
+        executeButton.setDisable(false);
+        generateRandomArrayButton.setDisable(false);
+        cancelButton.setDisable(true);
+        progressBar.progressProperty().unbind();
+        progressBar.setProgress(0);
+        progressBar.setVisible(false);
+    }
+
+    private void raceEngines() {
+        try {
+            int[] arr = ArrayIO.parseInts(arrayElementsInput.getText());
+            if (arr.length == 0) {
+                showError("Please enter array elements or generate a random array");
+                return;
+            }
+            new RaceWindow(arr).show();
+        } catch (NumberFormatException ex) {
+            showError("Please enter valid numbers");
+        }
+    }
+
     private void showError(String message) {
         Platform.runLater(() -> {
             Alert alert = new Alert(Alert.AlertType.ERROR);
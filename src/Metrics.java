@@ -0,0 +1,362 @@
+/* File: Metrics.java */
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Entry point of the engine instrumentation.
+ * <p>
+ * Engines count operations in local variables and report them in batches through the
+ * static methods here, which forward to the {@link SortMetrics} sink installed on the
+ * calling thread. Everything is guarded by ENABLED, a static final flag read once from
+ * the system property searchsort.metrics: when it is false the JIT folds every report
+ * (and the local counting feeding it) away, so uninstrumented runs pay nothing.
+ * <p>
+ * Typical use:
+ * <pre>
+ * try (Metrics.Run run = Metrics.open("INTRO_SORT", arr.length)) {
+ *     IntroSort.sort(arr);
+ *     stats = run.stats();   // null when metrics are disabled
+ * }
+ * </pre>
+ * A closed run is published as a {@link SortRunEvent} JFR event and into
+ * {@link MetricsRegistry#global()}. Helper threads of a parallel engine have no sink of
+ * their own: the engine collects their reports in a {@link Shared} sink and passes the
+ * totals on from the calling thread.
+ * <p>
+ * The merge sorts time their merges per level, see {@link #mergeLevel(int)}.
+ */
+public final class Metrics {
+
+    /** System property that enables instrumentation, e.g. -Dsearchsort.metrics=true. */
+    public static final String PROPERTY = "searchsort.metrics";
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /**
+     * Merges producing runs shorter than this are not timed, so the clock is read only
+     * O(n / MIN_TIMED_MERGE) times; their levels do not show up as phases.
+     */
+    public static final int MIN_TIMED_MERGE = 1 << 12;
+
+    private static final ThreadLocal<SortMetrics> SINK = new ThreadLocal<>();
+    private static final Scope NO_SCOPE = () -> { };
+    private static final String[] MERGE_LEVELS = new String[Integer.SIZE + 1];
+
+    static {
+        for (int level = 0; level < MERGE_LEVELS.length; level++) {
+            MERGE_LEVELS[level] = "merge level " + level;
+        }
+    }
+
+    private Metrics() {
+    }
+
+    private static SortMetrics sink() {
+        SortMetrics sink = SINK.get();
+        return sink != null ? sink : SortMetrics.NOOP;
+    }
+
+    public static void comparisons(long count) {
+        if (ENABLED) {
+            sink().comparisons(count);
+        }
+    }
+
+    public static void swaps(long count) {
+        if (ENABLED) {
+            sink().swaps(count);
+        }
+    }
+
+    public static void writes(long count) {
+        if (ENABLED) {
+            sink().writes(count);
+        }
+    }
+
+    public static void recursionDepth(int depth) {
+        if (ENABLED) {
+            sink().recursionDepth(depth);
+        }
+    }
+
+    public static void allocated(long bytes) {
+        if (ENABLED) {
+            sink().allocated(bytes);
+        }
+    }
+
+    /**
+     * Returns the start time to pass to phase, or 0 without reading the clock when disabled.
+     */
+    public static long phaseStart() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Reports a phase that started at start (from phaseStart) and ends now.
+     */
+    public static void phase(String name, long start) {
+        if (ENABLED) {
+            sink().phase(name, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the phase name of a merge producing a run of the given length. Merge level
+     * k covers runs of 2^(k-1)+1 to 2^k elements: level 1 merges pairs, and the final
+     * merge of n elements is level ceil(log2 n), whatever the engine.
+     */
+    public static String mergeLevel(int length) {
+        return MERGE_LEVELS[32 - Integer.numberOfLeadingZeros(Math.max(length, 1) - 1)];
+    }
+
+    /**
+     * Installs a custom sink on the calling thread until the returned scope is closed.
+     * Has no effect when metrics are disabled.
+     */
+    public static Scope install(SortMetrics sink) {
+        if (!ENABLED) {
+            return NO_SCOPE;
+        }
+        SortMetrics previous = SINK.get();
+        SINK.set(sink);
+        return () -> restore(previous);
+    }
+
+    private static void restore(SortMetrics previous) {
+        if (previous == null) {
+            SINK.remove();
+        } else {
+            SINK.set(previous);
+        }
+    }
+
+    /**
+     * Starts collecting the reports of the calling thread for one run of an engine.
+     *
+     * @param algorithm engine name the run is recorded under
+     * @param size      number of elements
+     */
+    public static Run open(String algorithm, int size) {
+        if (!ENABLED) {
+            return Run.DISABLED;
+        }
+        Run run = new Run(algorithm, size, SINK.get());
+        SINK.set(run);
+        return run;
+    }
+
+    /**
+     * Returns a sink for the helper threads of a parallel engine.
+     */
+    public static Shared shared() {
+        return new Shared();
+    }
+
+    /**
+     * Installation of a sink, closed to restore the previous one.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * Thread-safe sink collecting the reports of the helper threads of one parallel sort.
+     * Every task runs inside {@link #join()}, and once the tasks are done the calling
+     * thread passes the totals on to its own sink with {@link #report()}. Phase times
+     * are summed over the threads, so they measure work rather than elapsed time.
+     */
+    public static final class Shared implements SortMetrics {
+        private final LongAdder comparisons = new LongAdder();
+        private final LongAdder swaps = new LongAdder();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+        private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+
+        private Shared() {
+        }
+
+        /**
+         * Installs this sink on the calling thread until the returned scope is closed,
+         * unless it is installed there already. Has no effect when metrics are disabled.
+         */
+        public Scope join() {
+            return !ENABLED || SINK.get() == this ? NO_SCOPE : install(this);
+        }
+
+        @Override
+        public void comparisons(long count) {
+            comparisons.add(count);
+        }
+
+        @Override
+        public void swaps(long count) {
+            swaps.add(count);
+        }
+
+        @Override
+        public void writes(long count) {
+            writes.add(count);
+        }
+
+        @Override
+        public void recursionDepth(int depth) {
+            maxDepth.accumulate(depth);
+        }
+
+        @Override
+        public void allocated(long bytes) {
+            allocatedBytes.add(bytes);
+        }
+
+        @Override
+        public synchronized void phase(String name, long nanos) {
+            phaseNanos.merge(name, nanos, Long::sum);
+        }
+
+        /**
+         * Passes the totals collected so far on to the calling thread's sink.
+         */
+        public void report() {
+            if (!ENABLED) {
+                return;
+            }
+            SortMetrics sink = sink();
+            sink.comparisons(comparisons.sum());
+            sink.swaps(swaps.sum());
+            sink.writes(writes.sum());
+            sink.recursionDepth((int) maxDepth.get());
+            sink.allocated(allocatedBytes.sum());
+            synchronized (this) {
+                phaseNanos.forEach(sink::phase);
+            }
+        }
+    }
+
+    /**
+     * Sink that accumulates the reports of one run. A run opened inside another one
+     * (e.g. an engine delegating to another engine) passes its totals on when closed.
+     */
+    public static final class Run implements SortMetrics, Scope {
+        static final Run DISABLED = new Run(null, 0, null);
+
+        private final String algorithm;
+        private final int size;
+        private final SortMetrics previous;
+        private final long start = System.nanoTime();
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private long comparisons;
+        private long swaps;
+        private long writes;
+        private int maxDepth;
+        private long allocatedBytes;
+        private RunStats stats;
+
+        private Run(String algorithm, int size, SortMetrics previous) {
+            this.algorithm = algorithm;
+            this.size = size;
+            this.previous = previous;
+        }
+
+        @Override
+        public void comparisons(long count) {
+            comparisons += count;
+        }
+
+        @Override
+        public void swaps(long count) {
+            swaps += count;
+        }
+
+        @Override
+        public void writes(long count) {
+            writes += count;
+        }
+
+        @Override
+        public void recursionDepth(int depth) {
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        @Override
+        public void allocated(long bytes) {
+            allocatedBytes += bytes;
+        }
+
+        @Override
+        public void phase(String name, long nanos) {
+            phaseNanos.merge(name, nanos, Long::sum);
+            SortPhaseEvent event = new SortPhaseEvent();
+            if (event.shouldCommit()) {
+                event.algorithm = algorithm;
+                event.phase = name;
+                event.nanos = nanos;
+                event.commit();
+            }
+        }
+
+        /**
+         * Returns the counts so far, or the final counts once closed; null when metrics
+         * are disabled.
+         */
+        public RunStats stats() {
+            if (this == DISABLED) {
+                return null;
+            }
+            return stats != null ? stats : snapshot(System.nanoTime() - start);
+        }
+
+        private RunStats snapshot(long nanos) {
+            return new RunStats(algorithm, size, nanos, comparisons, swaps, writes, maxDepth, allocatedBytes,
+                    Collections.unmodifiableMap(new LinkedHashMap<>(phaseNanos)));
+        }
+
+        @Override
+        public void close() {
+            if (this == DISABLED || stats != null) {
+                return;
+            }
+            stats = snapshot(System.nanoTime() - start);
+            restore(previous);
+            if (previous != null) {
+                previous.comparisons(comparisons);
+                previous.swaps(swaps);
+                previous.writes(writes);
+                previous.recursionDepth(maxDepth);
+                previous.allocated(allocatedBytes);
+            }
+            publish(stats);
+        }
+
+        private static void publish(RunStats stats) {
+            MetricsRegistry registry = MetricsRegistry.global();
+            String[] tags = {"algorithm", stats.algorithm()};
+            registry.counter("sort.comparisons", tags).increment(stats.comparisons());
+            registry.counter("sort.swaps", tags).increment(stats.swaps());
+            registry.counter("sort.writes", tags).increment(stats.writes());
+            registry.counter("sort.allocated.bytes", tags).increment(stats.allocatedBytes());
+            registry.timer("sort.run", tags).record(stats.nanos());
+            stats.phaseNanos().forEach((phase, nanos) ->
+                    registry.timer("sort.phase", "algorithm", stats.algorithm(), "phase", phase).record(nanos));
+
+            SortRunEvent event = new SortRunEvent();
+            if (event.shouldCommit()) {
+                event.algorithm = stats.algorithm();
+                event.size = stats.size();
+                event.comparisons = stats.comparisons();
+                event.swaps = stats.swaps();
+                event.writes = stats.writes();
+                event.maxDepth = stats.maxDepth();
+                event.allocatedBytes = stats.allocatedBytes();
+                event.nanos = stats.nanos();
+                event.commit();
+            }
+        }
+    }
+}
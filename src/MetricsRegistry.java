@@ -0,0 +1,146 @@
+/* File: MetricsRegistry.java */
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Minimal meter registry in the style of Micrometer: counters and timers identified by
+ * a name plus key/value tags, safe to update from any thread. Instrumented runs are
+ * recorded in the global registry as
+ * <ul>
+ *     <li>counters sort.comparisons, sort.swaps, sort.writes, sort.allocated.bytes,</li>
+ *     <li>timers sort.run and sort.phase (tagged with the phase),</li>
+ * </ul>
+ * all tagged with algorithm=&lt;engine name&gt;. To ship them to a monitoring system,
+ * copy {@link #snapshot()} into the application's own registry periodically.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry instrumented runs are recorded in.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Returns the counter with the given name and tags, creating it on first use.
+     *
+     * @param name meter name, e.g. sort.comparisons
+     * @param tags alternating tag keys and values
+     * @throws IllegalArgumentException if the tags are not key/value pairs
+     */
+    public Counter counter(String name, String... tags) {
+        return counters.computeIfAbsent(id(name, tags), key -> new Counter());
+    }
+
+    /**
+     * Returns the timer with the given name and tags, creating it on first use.
+     *
+     * @param name meter name, e.g. sort.run
+     * @param tags alternating tag keys and values
+     * @throws IllegalArgumentException if the tags are not key/value pairs
+     */
+    public Timer timer(String name, String... tags) {
+        return timers.computeIfAbsent(id(name, tags), key -> new Timer());
+    }
+
+    /**
+     * Returns the current value of every meter by id, e.g. sort.comparisons{algorithm=INTRO_SORT}.
+     * Timers contribute id.count, id.total.nanos and id.max.nanos.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> values = new TreeMap<>();
+        counters.forEach((id, counter) -> values.put(id, counter.count()));
+        timers.forEach((id, timer) -> {
+            values.put(id + ".count", timer.count());
+            values.put(id + ".total.nanos", timer.totalNanos());
+            values.put(id + ".max.nanos", timer.maxNanos());
+        });
+        return values;
+    }
+
+    /**
+     * Removes every meter.
+     */
+    public void clear() {
+        counters.clear();
+        timers.clear();
+    }
+
+    /**
+     * Builds name{k1=v1,k2=v2} with the tags sorted by key, so the order they are given in
+     * does not matter.
+     */
+    private static String id(String name, String... tags) {
+        if (tags.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags must be key/value pairs");
+        }
+        if (tags.length == 0) {
+            return name;
+        }
+        Map<String, String> sorted = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            sorted.put(tags[i], tags[i + 1]);
+        }
+        StringBuilder id = new StringBuilder(name).append('{');
+        sorted.forEach((key, value) -> id.append(key).append('=').append(value).append(','));
+        id.setCharAt(id.length() - 1, '}');
+        return id.toString();
+    }
+
+    /**
+     * Monotonic count.
+     */
+    public static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment(long amount) {
+            count.add(amount);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * Number, total and maximum of recorded durations.
+     */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Timer() {
+        }
+
+        public void record(long nanos) {
+            count.increment();
+            total.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long totalNanos() {
+            return total.sum();
+        }
+
+        public long maxNanos() {
+            return max.get();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/* File: ObjectAlgorithms.java */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * The algorithms of {@link HeadlessAlgorithms} for T[] ordered by a Comparator.
+ * Comparators are assumed to be expensive (e.g. string compares), so the methods try
+ * to call them as rarely as possible:
+ * <ul>
+ *     <li>insertion sort finds every insert position by binary search, after one
+ *     compare to see if the element is already in place,</li>
+ *     <li>quick sort compares every element with the pivot once per partition,</li>
+ *     <li>merge sort builds runs with binary insertion sort, skips merges of runs that are
+ *     already in order with one compare, trims the parts of both runs that are already
+ *     in place by binary search, and gallops (copies whole stretches found by
+ *     exponential search) once one run keeps winning.</li>
+ * </ul>
+ * There is no radix sort: objects have no fixed-width key. Sort an extracted primitive
+ * key with {@link KeyValueSort#argsort(int[])} and apply the permutation instead.
+ */
+public final class ObjectAlgorithms {
+
+    /** Length of the runs merge sort builds with binary insertion sort. */
+    static final int MIN_MERGE = 32;
+    /** Consecutive wins of one run after which merge sort switches to galloping. */
+    static final int MIN_GALLOP = 7;
+
+    private ObjectAlgorithms() {
+    }
+
+    /**
+     * Sorts the array in place using Selection Sort. Not stable.
+     *
+     * @param arr        the array to sort
+     * @param comparator the order of the elements
+     */
+    public static <T> void selectionSort(T[] arr, Comparator<? super T> comparator) {
+        int n = arr.length;
+        for (int i = 0; i < n - 1; i++) {
+            int minIndex = i;
+            T min = arr[i];
+            for (int j = i + 1; j < n; j++) {
+                if (comparator.compare(arr[j], min) < 0) {
+                    min = arr[j];
+                    minIndex = j;
+                }
+            }
+            if (minIndex != i) {
+                arr[minIndex] = arr[i];
+                arr[i] = min;
+            }
+        }
+    }
+
+    /**
+     * Sorts the array in place using binary Insertion Sort. Stable.
+     *
+     * @param arr        the array to sort
+     * @param comparator the order of the elements
+     */
+    public static <T> void insertionSort(T[] arr, Comparator<? super T> comparator) {
+        insertionSort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Sorts arr[lo..hi) (hi exclusive) with binary insertion sort: every element is
+     * inserted after the equal elements before it. An element already in order costs one
+     * compare, any other at most log2(i) + 1.
+     */
+    static <T> void insertionSort(T[] arr, int lo, int hi, Comparator<? super T> comparator) {
+        for (int i = lo + 1; i < hi; i++) {
+            T key = arr[i];
+            if (comparator.compare(key, arr[i - 1]) >= 0) {
+                continue;
+            }
+            int position = upperBound(arr, lo, i - 1, key, comparator);
+            System.arraycopy(arr, position, arr, position + 1, i - position);
+            arr[position] = key;
+        }
+    }
+
+    /**
+     * Sorts the array in place using the {@link IntroSort} algorithm. Not stable.
+     *
+     * @param arr        the array to sort
+     * @param comparator the order of the elements
+     */
+    public static <T> void quickSort(T[] arr, Comparator<? super T> comparator) {
+        int n = arr.length;
+        if (n > 1) {
+            quickSort(arr, 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)), comparator);
+        }
+    }
+
+    private static <T> void quickSort(T[] arr, int low, int high, int depthLimit, Comparator<? super T> comparator) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(arr, low, high, comparator);
+                return;
+            }
+            T pivot = arr[selectPivot(arr, low, high, comparator)];
+
+            // Three-way partition with a single compare per element
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                T value = arr[i];
+                int cmp = comparator.compare(value, pivot);
+                if (cmp < 0) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = value;
+                } else if (cmp > 0) {
+                    arr[i] = arr[gt];
+                    arr[gt--] = value;
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(arr, low, lt - 1, depthLimit, comparator);
+                low = gt + 1;
+            } else {
+                quickSort(arr, gt + 1, high, depthLimit, comparator);
+                high = lt - 1;
+            }
+        }
+        insertionSort(arr, low, high + 1, comparator);
+    }
+
+    private static <T> int selectPivot(T[] arr, int low, int high, Comparator<? super T> comparator) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(arr, low, mid, high, comparator);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(arr, low, low + eighth, low + 2 * eighth, comparator);
+        int middle = medianOfThree(arr, mid - eighth, mid, mid + eighth, comparator);
+        int last = medianOfThree(arr, high - 2 * eighth, high - eighth, high, comparator);
+        return medianOfThree(arr, first, middle, last, comparator);
+    }
+
+    private static <T> int medianOfThree(T[] arr, int a, int b, int c, Comparator<? super T> comparator) {
+        T va = arr[a];
+        T vb = arr[b];
+        T vc = arr[c];
+        if (comparator.compare(va, vb) < 0) {
+            return comparator.compare(vb, vc) < 0 ? b : (comparator.compare(va, vc) < 0 ? c : a);
+        }
+        return comparator.compare(va, vc) < 0 ? a : (comparator.compare(vb, vc) < 0 ? c : b);
+    }
+
+    private static <T> void heapSort(T[] arr, int low, int high, Comparator<? super T> comparator) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(arr, low, i, n, comparator);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            T top = arr[low];
+            arr[low] = arr[low + end];
+            arr[low + end] = top;
+            siftDown(arr, low, 0, end, comparator);
+        }
+    }
+
+    private static <T> void siftDown(T[] arr, int offset, int i, int size, Comparator<? super T> comparator) {
+        T value = arr[offset + i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            T childValue = arr[offset + child];
+            int right = child + 1;
+            if (right < size && comparator.compare(arr[offset + right], childValue) > 0) {
+                child = right;
+                childValue = arr[offset + right];
+            }
+            if (comparator.compare(value, childValue) >= 0) {
+                break;
+            }
+            arr[offset + i] = childValue;
+            i = child;
+        }
+        arr[offset + i] = value;
+    }
+
+    /**
+     * Sorts the array using Merge Sort. Stable.
+     *
+     * @param arr        the array to sort
+     * @param comparator the order of the elements
+     */
+    public static <T> void mergeSort(T[] arr, Comparator<? super T> comparator) {
+        if (arr.length < 2) {
+            return;
+        }
+        mergeSort(arr, Arrays.copyOf(arr, arr.length), 0, arr.length, comparator);
+    }
+
+    private static <T> void mergeSort(T[] arr, T[] buffer, int lo, int hi, Comparator<? super T> comparator) {
+        if (hi - lo <= MIN_MERGE) {
+            insertionSort(arr, lo, hi, comparator);
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(arr, buffer, lo, mid, comparator);
+        mergeSort(arr, buffer, mid, hi, comparator);
+        if (comparator.compare(arr[mid - 1], arr[mid]) <= 0) {
+            return;
+        }
+        // Left elements not greater than the first right element, and right elements not
+        // less than the last left element, are already in their final place
+        int start = upperBound(arr, lo, mid - 1, arr[mid], comparator);
+        int end = lowerBound(arr, mid + 1, hi, arr[mid - 1], comparator);
+
+        System.arraycopy(arr, start, buffer, start, mid - start);
+        int i = start, j = mid, k = start;
+        int leftWins = 0;
+        int rightWins = 0;
+        while (i < mid && j < end) {
+            if (leftWins >= MIN_GALLOP) {
+                // Copy every left element not greater than the next right one in one go
+                int to = gallopUpper(buffer, i, mid, arr[j], comparator);
+                System.arraycopy(buffer, i, arr, k, to - i);
+                k += to - i;
+                i = to;
+                leftWins = 0;
+            } else if (rightWins >= MIN_GALLOP) {
+                // Copy every right element less than the next left one in one go
+                int to = gallopLower(arr, j, end, buffer[i], comparator);
+                System.arraycopy(arr, j, arr, k, to - j);
+                k += to - j;
+                j = to;
+                rightWins = 0;
+            } else if (comparator.compare(arr[j], buffer[i]) < 0) {
+                arr[k++] = arr[j++];
+                rightWins++;
+                leftWins = 0;
+            } else {
+                arr[k++] = buffer[i++];
+                leftWins++;
+                rightWins = 0;
+            }
+        }
+        if (i < mid) {
+            System.arraycopy(buffer, i, arr, k, mid - i);
+        }
+    }
+
+    /**
+     * Returns the first index in arr[lo..hi) whose element is greater than key, probing
+     * lo, lo + 1, lo + 3, lo + 7, ... before a binary search, so the cost is logarithmic
+     * in the distance from lo rather than in the length of the range.
+     */
+    private static <T> int gallopUpper(T[] arr, int lo, int hi, T key, Comparator<? super T> comparator) {
+        int offset = 1;
+        int last = lo;
+        while (lo + offset - 1 < hi && comparator.compare(key, arr[lo + offset - 1]) >= 0) {
+            last = lo + offset;
+            offset = offset * 2;
+        }
+        return upperBound(arr, last, Math.min(hi, lo + offset - 1), key, comparator);
+    }
+
+    /**
+     * Returns the first index in arr[lo..hi) whose element is not less than key, galloping
+     * from lo like gallopUpper.
+     */
+    private static <T> int gallopLower(T[] arr, int lo, int hi, T key, Comparator<? super T> comparator) {
+        int offset = 1;
+        int last = lo;
+        while (lo + offset - 1 < hi && comparator.compare(arr[lo + offset - 1], key) < 0) {
+            last = lo + offset;
+            offset = offset * 2;
+        }
+        return lowerBound(arr, last, Math.min(hi, lo + offset - 1), key, comparator);
+    }
+
+    /**
+     * Returns the first index in arr[lo..hi) whose element is greater than key.
+     */
+    private static <T> int upperBound(T[] arr, int lo, int hi, T key, Comparator<? super T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(key, arr[mid]) < 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first index in arr[lo..hi) whose element is not less than key.
+     */
+    private static <T> int lowerBound(T[] arr, int lo, int hi, T key, Comparator<? super T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(arr[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the first element equal to target (by equals), or -1 if there is none.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     */
+    public static <T> int linearSearch(T[] arr, T target) {
+        for (int i = 0; i < arr.length; i++) {
+            if (Objects.equals(arr[i], target)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search over an array that the caller guarantees is sorted by comparator.
+     * Sortedness is not re-checked. Returns the index of any element the comparator
+     * considers equal to target, or -1 if there is none.
+     *
+     * @param arr        the sorted array to search
+     * @param target     the element to search for
+     * @param comparator the order the array is sorted in
+     */
+    public static <T> int binarySearch(T[] arr, T target, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = arr.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = comparator.compare(arr[mid], target);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
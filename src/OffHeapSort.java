@@ -0,0 +1,605 @@
+/* File: OffHeapSort.java */
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Sorting and searching of int and long keys held in buffers instead of arrays, e.g.
+ * direct buffers shared with native code. Nothing is copied onto the heap: the engines
+ * index the buffer directly and any scratch space is another (caller-supplied or direct)
+ * buffer, so huge key sets cause no heap pressure and no GC pauses.
+ * <p>
+ * Every method works on the elements between the buffer's position and limit, with
+ * indices relative to the position, and leaves position and limit unchanged.
+ * <ul>
+ *     <li>radixSort: byte-wise LSD radix sort, stable, needs a scratch buffer of n keys.</li>
+ *     <li>quickSort: the {@link IntroSort} algorithm, in place, not stable.</li>
+ *     <li>mergeSort: bottom-up merge sort, stable, needs a scratch buffer of n keys.</li>
+ * </ul>
+ */
+public final class OffHeapSort {
+
+    private static final int RADIX = 256;
+    /** Length of the runs insertion sorted before the merge passes. */
+    private static final int MERGE_RUN = 32;
+
+    private OffHeapSort() {
+    }
+
+    /**
+     * Allocates a direct buffer of n ints in native byte order.
+     */
+    public static IntBuffer allocateInts(int n) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(n, Integer.BYTES)).order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+    }
+
+    /**
+     * Allocates a direct buffer of n longs in native byte order.
+     */
+    public static LongBuffer allocateLongs(int n) {
+        return ByteBuffer.allocateDirect(Math.multiplyExact(n, Long.BYTES)).order(ByteOrder.nativeOrder())
+                .asLongBuffer();
+    }
+
+    private static void checkScratch(int n, int scratch) {
+        if (scratch < n) {
+            throw new IllegalArgumentException("Scratch buffer holds " + scratch + " keys, " + n + " needed");
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Radix sort
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts the remaining ints, allocating a direct scratch buffer.
+     */
+    public static void radixSort(IntBuffer keys) {
+        radixSort(keys, allocateInts(keys.remaining()));
+    }
+
+    /**
+     * Sorts the remaining ints using the remaining space of scratch.
+     *
+     * @param keys    the keys to sort
+     * @param scratch at least keys.remaining() ints of working space
+     * @throws IllegalArgumentException if scratch is too small
+     */
+    public static void radixSort(IntBuffer keys, IntBuffer scratch) {
+        int n = keys.remaining();
+        checkScratch(n, scratch.remaining());
+        IntBuffer a = keys.slice();
+        IntBuffer b = scratch.slice();
+
+        // All four histograms in one read of the keys; the sign bit is flipped on the fly
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for (int i = 0; i < n; i++) {
+            int key = a.get(i) ^ Integer.MIN_VALUE;
+            for (int d = 0; d < Integer.BYTES; d++) {
+                counts[d][(key >>> (8 * d)) & 0xFF]++;
+            }
+        }
+        boolean inScratch = false;
+        for (int d = 0; d < Integer.BYTES; d++) {
+            int[] count = counts[d];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            toOffsets(count);
+            int shift = 8 * d;
+            for (int i = 0; i < n; i++) {
+                int value = a.get(i);
+                b.put(count[((value ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++, value);
+            }
+            IntBuffer t = a;
+            a = b;
+            b = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) {
+            b.put(0, a, 0, n);
+        }
+    }
+
+    /**
+     * Sorts the remaining longs, allocating a direct scratch buffer.
+     */
+    public static void radixSort(LongBuffer keys) {
+        radixSort(keys, allocateLongs(keys.remaining()));
+    }
+
+    /**
+     * Sorts the remaining longs using the remaining space of scratch.
+     *
+     * @param keys    the keys to sort
+     * @param scratch at least keys.remaining() longs of working space
+     * @throws IllegalArgumentException if scratch is too small
+     */
+    public static void radixSort(LongBuffer keys, LongBuffer scratch) {
+        int n = keys.remaining();
+        checkScratch(n, scratch.remaining());
+        LongBuffer a = keys.slice();
+        LongBuffer b = scratch.slice();
+
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = 0; i < n; i++) {
+            long key = a.get(i) ^ Long.MIN_VALUE;
+            for (int d = 0; d < Long.BYTES; d++) {
+                counts[d][(int) (key >>> (8 * d)) & 0xFF]++;
+            }
+        }
+        boolean inScratch = false;
+        for (int d = 0; d < Long.BYTES; d++) {
+            int[] count = counts[d];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            toOffsets(count);
+            int shift = 8 * d;
+            for (int i = 0; i < n; i++) {
+                long value = a.get(i);
+                b.put(count[(int) ((value ^ Long.MIN_VALUE) >>> shift) & 0xFF]++, value);
+            }
+            LongBuffer t = a;
+            a = b;
+            b = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) {
+            b.put(0, a, 0, n);
+        }
+    }
+
+    /**
+     * A pass is trivial when every key has the same byte, i.e. one bucket holds everything.
+     */
+    private static boolean isTrivialPass(int[] count, int n) {
+        for (int c : count) {
+            if (c == n) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Turns the bucket sizes into the start offset of every bucket.
+     */
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int i = 0; i < RADIX; i++) {
+            int c = count[i];
+            count[i] = sum;
+            sum += c;
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Quick sort (introsort)
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts the remaining ints in place.
+     */
+    public static void quickSort(IntBuffer keys) {
+        int n = keys.remaining();
+        if (n > 1) {
+            quickSort(keys.slice(), 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+    }
+
+    private static void quickSort(IntBuffer a, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, low, high);
+                return;
+            }
+            int pivot = a.get(selectPivot(a, low, high));
+
+            // Three-way partition: a[low..lt-1] < pivot, a[lt..gt] == pivot, a[gt+1..high] > pivot
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                int value = a.get(i);
+                if (value < pivot) {
+                    a.put(i++, a.get(lt));
+                    a.put(lt++, value);
+                } else if (value > pivot) {
+                    a.put(i, a.get(gt));
+                    a.put(gt--, value);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(a, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(a, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(a, low, high);
+    }
+
+    private static int selectPivot(IntBuffer a, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(a, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(a, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(a, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(a, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(a, first, middle, last);
+    }
+
+    private static int medianOfThree(IntBuffer a, int i, int j, int k) {
+        int vi = a.get(i);
+        int vj = a.get(j);
+        int vk = a.get(k);
+        if (vi < vj) {
+            return vj < vk ? j : (vi < vk ? k : i);
+        }
+        return vi < vk ? i : (vj < vk ? k : j);
+    }
+
+    private static void heapSort(IntBuffer a, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            int top = a.get(low);
+            a.put(low, a.get(low + end));
+            a.put(low + end, top);
+            siftDown(a, low, 0, end);
+        }
+    }
+
+    private static void siftDown(IntBuffer a, int offset, int i, int size) {
+        int value = a.get(offset + i);
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int childValue = a.get(offset + child);
+            int right = child + 1;
+            if (right < size && a.get(offset + right) > childValue) {
+                child = right;
+                childValue = a.get(offset + right);
+            }
+            if (value >= childValue) {
+                break;
+            }
+            a.put(offset + i, childValue);
+            i = child;
+        }
+        a.put(offset + i, value);
+    }
+
+    private static void insertionSort(IntBuffer a, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = a.get(i);
+            int j = i - 1;
+            while (j >= low && a.get(j) > key) {
+                a.put(j + 1, a.get(j));
+                j--;
+            }
+            a.put(j + 1, key);
+        }
+    }
+
+    /**
+     * Sorts the remaining longs in place.
+     */
+    public static void quickSort(LongBuffer keys) {
+        int n = keys.remaining();
+        if (n > 1) {
+            quickSort(keys.slice(), 0, n - 1, 2 * (31 - Integer.numberOfLeadingZeros(n)));
+        }
+    }
+
+    private static void quickSort(LongBuffer a, int low, int high, int depthLimit) {
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, low, high);
+                return;
+            }
+            long pivot = a.get(selectPivot(a, low, high));
+
+            int lt = low;
+            int gt = high;
+            int i = low;
+            while (i <= gt) {
+                long value = a.get(i);
+                if (value < pivot) {
+                    a.put(i++, a.get(lt));
+                    a.put(lt++, value);
+                } else if (value > pivot) {
+                    a.put(i, a.get(gt));
+                    a.put(gt--, value);
+                } else {
+                    i++;
+                }
+            }
+
+            if (lt - low < high - gt) {
+                quickSort(a, low, lt - 1, depthLimit);
+                low = gt + 1;
+            } else {
+                quickSort(a, gt + 1, high, depthLimit);
+                high = lt - 1;
+            }
+        }
+        insertionSort(a, low, high);
+    }
+
+    private static int selectPivot(LongBuffer a, int low, int high) {
+        int mid = (low + high) >>> 1;
+        if (high - low + 1 < IntroSort.NINTHER_THRESHOLD) {
+            return medianOfThree(a, low, mid, high);
+        }
+        int eighth = (high - low + 1) >>> 3;
+        int first = medianOfThree(a, low, low + eighth, low + 2 * eighth);
+        int middle = medianOfThree(a, mid - eighth, mid, mid + eighth);
+        int last = medianOfThree(a, high - 2 * eighth, high - eighth, high);
+        return medianOfThree(a, first, middle, last);
+    }
+
+    private static int medianOfThree(LongBuffer a, int i, int j, int k) {
+        long vi = a.get(i);
+        long vj = a.get(j);
+        long vk = a.get(k);
+        if (vi < vj) {
+            return vj < vk ? j : (vi < vk ? k : i);
+        }
+        return vi < vk ? i : (vj < vk ? k : j);
+    }
+
+    private static void heapSort(LongBuffer a, int low, int high) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, low, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            long top = a.get(low);
+            a.put(low, a.get(low + end));
+            a.put(low + end, top);
+            siftDown(a, low, 0, end);
+        }
+    }
+
+    private static void siftDown(LongBuffer a, int offset, int i, int size) {
+        long value = a.get(offset + i);
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            long childValue = a.get(offset + child);
+            int right = child + 1;
+            if (right < size && a.get(offset + right) > childValue) {
+                child = right;
+                childValue = a.get(offset + right);
+            }
+            if (value >= childValue) {
+                break;
+            }
+            a.put(offset + i, childValue);
+            i = child;
+        }
+        a.put(offset + i, value);
+    }
+
+    private static void insertionSort(LongBuffer a, int low, int high) {
+        for (int i = low + 1; i <= high; i++) {
+            long key = a.get(i);
+            int j = i - 1;
+            while (j >= low && a.get(j) > key) {
+                a.put(j + 1, a.get(j));
+                j--;
+            }
+            a.put(j + 1, key);
+        }
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Merge sort
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Sorts the remaining ints, allocating a direct scratch buffer.
+     */
+    public static void mergeSort(IntBuffer keys) {
+        mergeSort(keys, allocateInts(keys.remaining()));
+    }
+
+    /**
+     * Sorts the remaining ints using the remaining space of scratch. Bottom-up: runs of
+     * MERGE_RUN keys are insertion sorted, then merged pairwise between the two buffers.
+     *
+     * @param keys    the keys to sort
+     * @param scratch at least keys.remaining() ints of working space
+     * @throws IllegalArgumentException if scratch is too small
+     */
+    public static void mergeSort(IntBuffer keys, IntBuffer scratch) {
+        int n = keys.remaining();
+        checkScratch(n, scratch.remaining());
+        IntBuffer a = keys.slice();
+        IntBuffer b = scratch.slice();
+        for (int low = 0; low < n; low += MERGE_RUN) {
+            insertionSort(a, low, Math.min(low + MERGE_RUN, n) - 1);
+        }
+        boolean inScratch = false;
+        for (int width = MERGE_RUN; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + 2 * width, n);
+                merge(a, b, low, mid, high);
+            }
+            IntBuffer t = a;
+            a = b;
+            b = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) {
+            b.put(0, a, 0, n);
+        }
+    }
+
+    /**
+     * Merges src[low..mid) and src[mid..high) into dst[low..high); ties take the left run.
+     */
+    private static void merge(IntBuffer src, IntBuffer dst, int low, int mid, int high) {
+        int i = low;
+        int j = mid;
+        int k = low;
+        if (mid < high && src.get(mid - 1) > src.get(mid)) {
+            while (i < mid && j < high) {
+                int left = src.get(i);
+                int right = src.get(j);
+                if (left <= right) {
+                    dst.put(k++, left);
+                    i++;
+                } else {
+                    dst.put(k++, right);
+                    j++;
+                }
+            }
+        }
+        dst.put(k, src, i, mid - i);
+        k += mid - i;
+        dst.put(k, src, j, high - j);
+    }
+
+    /**
+     * Sorts the remaining longs, allocating a direct scratch buffer.
+     */
+    public static void mergeSort(LongBuffer keys) {
+        mergeSort(keys, allocateLongs(keys.remaining()));
+    }
+
+    /**
+     * Sorts the remaining longs using the remaining space of scratch.
+     *
+     * @param keys    the keys to sort
+     * @param scratch at least keys.remaining() longs of working space
+     * @throws IllegalArgumentException if scratch is too small
+     */
+    public static void mergeSort(LongBuffer keys, LongBuffer scratch) {
+        int n = keys.remaining();
+        checkScratch(n, scratch.remaining());
+        LongBuffer a = keys.slice();
+        LongBuffer b = scratch.slice();
+        for (int low = 0; low < n; low += MERGE_RUN) {
+            insertionSort(a, low, Math.min(low + MERGE_RUN, n) - 1);
+        }
+        boolean inScratch = false;
+        for (int width = MERGE_RUN; width < n; width *= 2) {
+            for (int low = 0; low < n; low += 2 * width) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + 2 * width, n);
+                merge(a, b, low, mid, high);
+            }
+            LongBuffer t = a;
+            a = b;
+            b = t;
+            inScratch = !inScratch;
+        }
+        if (inScratch) {
+            b.put(0, a, 0, n);
+        }
+    }
+
+    private static void merge(LongBuffer src, LongBuffer dst, int low, int mid, int high) {
+        int i = low;
+        int j = mid;
+        int k = low;
+        if (mid < high && src.get(mid - 1) > src.get(mid)) {
+            while (i < mid && j < high) {
+                long left = src.get(i);
+                long right = src.get(j);
+                if (left <= right) {
+                    dst.put(k++, left);
+                    i++;
+                } else {
+                    dst.put(k++, right);
+                    j++;
+                }
+            }
+        }
+        dst.put(k, src, i, mid - i);
+        k += mid - i;
+        dst.put(k, src, j, high - j);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Search
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Returns the index of the first occurrence of target, or -1 if it is not present.
+     */
+    public static int linearSearch(IntBuffer keys, int target) {
+        int base = keys.position();
+        for (int i = 0, n = keys.remaining(); i < n; i++) {
+            if (keys.get(base + i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1 if it is not present.
+     */
+    public static int linearSearch(LongBuffer keys, long target) {
+        int base = keys.position();
+        for (int i = 0, n = keys.remaining(); i < n; i++) {
+            if (keys.get(base + i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of target in sorted keys, or -1 if it is
+     * not present. The keys must be sorted; this is not checked.
+     */
+    public static int binarySearch(IntBuffer keys, int target) {
+        int base = keys.position();
+        int low = 0;
+        int high = keys.remaining();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys.get(base + mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < keys.remaining() && keys.get(base + low) == target ? low : -1;
+    }
+
+    /**
+     * Returns the index of the first occurrence of target in sorted keys, or -1 if it is
+     * not present. The keys must be sorted; this is not checked.
+     */
+    public static int binarySearch(LongBuffer keys, long target) {
+        int base = keys.position();
+        int low = 0;
+        int high = keys.remaining();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys.get(base + mid) < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < keys.remaining() && keys.get(base + low) == target ? low : -1;
+    }
+}
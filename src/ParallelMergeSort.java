@@ -0,0 +1,522 @@
+/* File: ParallelMergeSort.java */
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Parallel, stable Merge Sort on a ForkJoinPool.
+ * Exactly one auxiliary buffer is allocated per sort; the array and the buffer swap
+ * source/destination roles on every level of the recursion, so no data is copied back
+ * between levels. Runs shorter than the insertion cutoff are finished with insertion
+ * sort, and merges of large runs are themselves split and merged in parallel.
+ * The int sort can be cancelled through a {@link CancellationToken}, which every task
+ * above the parallel threshold checks before it forks. Its tasks report to a
+ * {@link Metrics.Shared} sink whichever thread runs them, and merges of at least
+ * MIN_TIMED_MERGE elements are timed under their merge level.
+ */
+public final class ParallelMergeSort {
+
+    /** Runs of at most this many elements are sorted with insertion sort. */
+    public static final int DEFAULT_INSERTION_CUTOFF = 32;
+    /** Sorts and merges below this many elements are done sequentially. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 1 << 13;
+
+    private ParallelMergeSort() {
+    }
+
+    /**
+     * Sorts the array on the common pool with the default cutoffs.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(int[] arr) {
+        sort(arr, ForkJoinPool.commonPool(), DEFAULT_INSERTION_CUTOFF, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Sorts the array on the common pool with the default cutoffs. A cancelled sort
+     * returns early and leaves the contents of the array unspecified.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void sort(int[] arr, CancellationToken token) {
+        sort(arr, ForkJoinPool.commonPool(), DEFAULT_INSERTION_CUTOFF, DEFAULT_PARALLEL_THRESHOLD, token);
+    }
+
+    /**
+     * Sorts the array.
+     *
+     * @param arr               the array to sort
+     * @param pool              the pool that runs the sort and merge tasks
+     * @param insertionCutoff   runs of at most this many elements are insertion sorted
+     * @param parallelThreshold sorts and merges below this size run sequentially; at least 2
+     * @throws IllegalArgumentException if insertionCutoff is below 1, or parallelThreshold is
+     *                                  below 2 or below insertionCutoff
+     */
+    public static void sort(int[] arr, ForkJoinPool pool, int insertionCutoff, int parallelThreshold) {
+        sort(arr, pool, insertionCutoff, parallelThreshold, CancellationToken.NONE);
+    }
+
+    private static void sort(int[] arr, ForkJoinPool pool, int insertionCutoff, int parallelThreshold,
+                             CancellationToken token) {
+        checkCutoffs(insertionCutoff, parallelThreshold);
+        if (arr.length < 2) {
+            return;
+        }
+        int[] buffer = new int[arr.length];
+        if (Metrics.ENABLED) {
+            Metrics.allocated(4L * arr.length);
+        }
+        SortState state = new SortState(token, arr.length, insertionCutoff);
+        pool.invoke(new IntSortTask(arr, buffer, 0, arr.length, false, insertionCutoff, parallelThreshold, state));
+        state.metrics.report();
+    }
+
+    /**
+     * Stably sorts the array of records on the common pool with the default cutoffs.
+     * Records that compare equal keep their original relative order.
+     *
+     * @param arr        the array to sort
+     * @param comparator the ordering of the records
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator) {
+        sort(arr, comparator, ForkJoinPool.commonPool(), DEFAULT_INSERTION_CUTOFF, DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Stably sorts the array of records.
+     *
+     * @param arr               the array to sort
+     * @param comparator        the ordering of the records
+     * @param pool              the pool that runs the sort and merge tasks
+     * @param insertionCutoff   runs of at most this many elements are insertion sorted
+     * @param parallelThreshold sorts and merges below this size run sequentially; at least 2
+     * @throws IllegalArgumentException if insertionCutoff is below 1, or parallelThreshold is
+     *                                  below 2 or below insertionCutoff
+     */
+    public static <T> void sort(T[] arr, Comparator<? super T> comparator, ForkJoinPool pool,
+                                int insertionCutoff, int parallelThreshold) {
+        checkCutoffs(insertionCutoff, parallelThreshold);
+        if (arr.length < 2) {
+            return;
+        }
+        Object[] buffer = new Object[arr.length];
+        pool.invoke(new ObjectSortTask<>(arr, buffer, 0, arr.length, false, comparator,
+                insertionCutoff, parallelThreshold));
+    }
+
+    /**
+     * A parallel merge splits the longer run at its middle, which only shrinks both halves
+     * when that run has at least 2 elements, so merges of 2 or fewer must be sequential.
+     */
+    private static void checkCutoffs(int insertionCutoff, int parallelThreshold) {
+        if (insertionCutoff < 1 || parallelThreshold < 2 || parallelThreshold < insertionCutoff) {
+            throw new IllegalArgumentException("Invalid cutoffs: insertion " + insertionCutoff
+                    + ", parallel " + parallelThreshold);
+        }
+    }
+
+    /**
+     * Shared by the tasks of one int sort: the token, the elements sorted or merged so
+     * far summed over all levels of the recursion, and the metrics sink of the tasks.
+     */
+    private static final class SortState {
+        private final CancellationToken token;
+        private final LongAdder done = new LongAdder();
+        private final long total;
+        private final Metrics.Shared metrics = Metrics.shared();
+
+        SortState(CancellationToken token, int length, int insertionCutoff) {
+            this.token = token;
+            int levels = 1;
+            for (int size = length; size > insertionCutoff; size = (size + 1) >>> 1) {
+                levels++;
+            }
+            this.total = (long) length * levels;
+        }
+
+        boolean checkpoint() {
+            return token.checkpoint(done.sum(), total);
+        }
+    }
+
+    /**
+     * Sorts arr[lo, hi) and leaves the result in arr, or in buffer if intoBuffer is set.
+     * Both halves are sorted into the opposite array and then merged into the target.
+     */
+    private static final class IntSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] arr;
+        private final int[] buffer;
+        private final int lo;
+        private final int hi;
+        private final boolean intoBuffer;
+        private final int insertionCutoff;
+        private final int parallelThreshold;
+        private final SortState state;
+
+        IntSortTask(int[] arr, int[] buffer, int lo, int hi, boolean intoBuffer,
+                    int insertionCutoff, int parallelThreshold, SortState state) {
+            this.arr = arr;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuffer = intoBuffer;
+            this.insertionCutoff = insertionCutoff;
+            this.parallelThreshold = parallelThreshold;
+            this.state = state;
+        }
+
+        @Override
+        protected void compute() {
+            try (Metrics.Scope scope = state.metrics.join()) {
+                sortRange();
+            }
+        }
+
+        private void sortRange() {
+            int n = hi - lo;
+            if (n <= insertionCutoff) {
+                // Leaves always read the untouched input, which is still in arr
+                HeadlessAlgorithms.insertionSort(arr, lo, hi - 1);
+                if (intoBuffer) {
+                    System.arraycopy(arr, lo, buffer, lo, n);
+                    if (Metrics.ENABLED) {
+                        Metrics.writes(n);
+                    }
+                }
+                state.done.add(n);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            IntSortTask left = new IntSortTask(arr, buffer, lo, mid, !intoBuffer, insertionCutoff, parallelThreshold,
+                    state);
+            IntSortTask right = new IntSortTask(arr, buffer, mid, hi, !intoBuffer, insertionCutoff, parallelThreshold,
+                    state);
+            if (n <= parallelThreshold) {
+                left.compute();
+                right.compute();
+            } else {
+                if (state.checkpoint()) {
+                    return;
+                }
+                invokeAll(left, right);
+                if (state.token.isCancelled()) {
+                    return;
+                }
+            }
+            boolean timed = Metrics.ENABLED && n >= Metrics.MIN_TIMED_MERGE;
+            long start = timed ? System.nanoTime() : 0;
+            int[] src = intoBuffer ? arr : buffer;
+            int[] dst = intoBuffer ? buffer : arr;
+            if (Metrics.ENABLED) {
+                Metrics.comparisons(1);
+            }
+            if (src[mid - 1] <= src[mid]) {
+                System.arraycopy(src, lo, dst, lo, n);
+                if (Metrics.ENABLED) {
+                    Metrics.writes(n);
+                }
+            } else {
+                new IntMergeTask(src, lo, mid, mid, hi, dst, lo, parallelThreshold, state.metrics).compute();
+            }
+            if (timed) {
+                Metrics.phase(Metrics.mergeLevel(n), start);
+            }
+            state.done.add(n);
+        }
+    }
+
+    /**
+     * Merges src[lo1, hi1) and src[lo2, hi2) into dst starting at dstLo. Large merges are
+     * split around the median of the longer run and both halves are merged in parallel.
+     */
+    private static final class IntMergeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dst;
+        private final int dstLo;
+        private final int parallelThreshold;
+        private final Metrics.Shared metrics;
+
+        IntMergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int dstLo, int parallelThreshold,
+                     Metrics.Shared metrics) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+            this.parallelThreshold = parallelThreshold;
+            this.metrics = metrics;
+        }
+
+        @Override
+        protected void compute() {
+            try (Metrics.Scope scope = metrics.join()) {
+                merge();
+            }
+        }
+
+        private void merge() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= parallelThreshold) {
+                mergeSequential();
+                return;
+            }
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                // Right elements equal to the pivot must stay behind it, so take the lower bound
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1]);
+            } else {
+                // Left elements equal to the pivot must stay in front of it, so take the upper bound
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2]);
+            }
+            int dstSplit = dstLo + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new IntMergeTask(src, lo1, split1, lo2, split2, dst, dstLo, parallelThreshold, metrics),
+                    new IntMergeTask(src, split1, hi1, split2, hi2, dst, dstSplit, parallelThreshold, metrics));
+        }
+
+        private void mergeSequential() {
+            int i = lo1, j = lo2, k = dstLo;
+            long comparisons = 0;
+            while (i < hi1 && j < hi2) {
+                comparisons++;
+                if (src[i] <= src[j]) {
+                    dst[k++] = src[i++];
+                } else {
+                    dst[k++] = src[j++];
+                }
+            }
+            if (i < hi1) {
+                System.arraycopy(src, i, dst, k, hi1 - i);
+            } else if (j < hi2) {
+                System.arraycopy(src, j, dst, k, hi2 - j);
+            }
+            if (Metrics.ENABLED) {
+                Metrics.comparisons(comparisons);
+                Metrics.writes((hi1 - lo1) + (hi2 - lo2));
+            }
+        }
+
+        private static int lowerBound(int[] a, int lo, int hi, int key) {
+            int comparisons = 0;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                comparisons++;
+                if (a[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (Metrics.ENABLED) {
+                Metrics.comparisons(comparisons);
+            }
+            return lo;
+        }
+
+        private static int upperBound(int[] a, int lo, int hi, int key) {
+            int comparisons = 0;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                comparisons++;
+                if (a[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            if (Metrics.ENABLED) {
+                Metrics.comparisons(comparisons);
+            }
+            return lo;
+        }
+    }
+
+    /**
+     * Object version of IntSortTask. Leaves use binary insertion sort to keep the number
+     * of comparator calls low.
+     */
+    private static final class ObjectSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] arr;
+        private final Object[] buffer;
+        private final int lo;
+        private final int hi;
+        private final boolean intoBuffer;
+        private final Comparator<? super T> comparator;
+        private final int insertionCutoff;
+        private final int parallelThreshold;
+
+        ObjectSortTask(Object[] arr, Object[] buffer, int lo, int hi, boolean intoBuffer,
+                       Comparator<? super T> comparator, int insertionCutoff, int parallelThreshold) {
+            this.arr = arr;
+            this.buffer = buffer;
+            this.lo = lo;
+            this.hi = hi;
+            this.intoBuffer = intoBuffer;
+            this.comparator = comparator;
+            this.insertionCutoff = insertionCutoff;
+            this.parallelThreshold = parallelThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n = hi - lo;
+            if (n <= insertionCutoff) {
+                binaryInsertionSort();
+                if (intoBuffer) {
+                    System.arraycopy(arr, lo, buffer, lo, n);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            ObjectSortTask<T> left = new ObjectSortTask<>(arr, buffer, lo, mid, !intoBuffer,
+                    comparator, insertionCutoff, parallelThreshold);
+            ObjectSortTask<T> right = new ObjectSortTask<>(arr, buffer, mid, hi, !intoBuffer,
+                    comparator, insertionCutoff, parallelThreshold);
+            if (n <= parallelThreshold) {
+                left.compute();
+                right.compute();
+            } else {
+                invokeAll(left, right);
+            }
+            Object[] src = intoBuffer ? arr : buffer;
+            Object[] dst = intoBuffer ? buffer : arr;
+            if (compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, lo, dst, lo, n);
+            } else {
+                new ObjectMergeTask<>(src, lo, mid, mid, hi, dst, lo, comparator, parallelThreshold).compute();
+            }
+        }
+
+        private void binaryInsertionSort() {
+            for (int i = lo + 1; i < hi; i++) {
+                Object key = arr[i];
+                // Insert after every element that compares equal to keep the sort stable
+                int left = lo;
+                int right = i;
+                while (left < right) {
+                    int mid = (left + right) >>> 1;
+                    if (compare(key, arr[mid]) < 0) {
+                        right = mid;
+                    } else {
+                        left = mid + 1;
+                    }
+                }
+                System.arraycopy(arr, left, arr, left + 1, i - left);
+                arr[left] = key;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object a, Object b) {
+            return comparator.compare((T) a, (T) b);
+        }
+    }
+
+    /**
+     * Object version of IntMergeTask.
+     */
+    private static final class ObjectMergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Object[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final Object[] dst;
+        private final int dstLo;
+        private final Comparator<? super T> comparator;
+        private final int parallelThreshold;
+
+        ObjectMergeTask(Object[] src, int lo1, int hi1, int lo2, int hi2, Object[] dst, int dstLo,
+                        Comparator<? super T> comparator, int parallelThreshold) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.dstLo = dstLo;
+            this.comparator = comparator;
+            this.parallelThreshold = parallelThreshold;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= parallelThreshold) {
+                mergeSequential();
+                return;
+            }
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = bound(lo2, hi2, src[split1], false);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = bound(lo1, hi1, src[split2], true);
+            }
+            int dstSplit = dstLo + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new ObjectMergeTask<>(src, lo1, split1, lo2, split2, dst, dstLo, comparator, parallelThreshold),
+                    new ObjectMergeTask<>(src, split1, hi1, split2, hi2, dst, dstSplit, comparator, parallelThreshold));
+        }
+
+        private void mergeSequential() {
+            int i = lo1, j = lo2, k = dstLo;
+            while (i < hi1 && j < hi2) {
+                if (compare(src[i], src[j]) <= 0) {
+                    dst[k++] = src[i++];
+                } else {
+                    dst[k++] = src[j++];
+                }
+            }
+            if (i < hi1) {
+                System.arraycopy(src, i, dst, k, hi1 - i);
+            } else if (j < hi2) {
+                System.arraycopy(src, j, dst, k, hi2 - j);
+            }
+        }
+
+        /**
+         * Returns the first index in [lo, hi) whose element is greater than key (upper
+         * bound) or not less than key (lower bound).
+         */
+        private int bound(int lo, int hi, Object key, boolean upper) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int c = compare(src[mid], key);
+                if (c < 0 || (upper && c == 0)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        @SuppressWarnings("unchecked")
+        private int compare(Object a, Object b) {
+            return comparator.compare((T) a, (T) b);
+        }
+    }
+}
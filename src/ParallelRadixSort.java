@@ -0,0 +1,425 @@
+/* File: ParallelRadixSort.java */
+import java.util.stream.IntStream;
+
+/**
+ * LSD Radix Sort on bytes (radix 256) for int, long, float and double arrays.
+ * <ul>
+ *     <li>Negative numbers are handled by flipping the sign bit (and for floating point
+ *     all other bits of negative values) so that keys compare as unsigned integers.</li>
+ *     <li>One buffer is allocated and the array and buffer swap roles on every pass.</li>
+ *     <li>Passes where every key has the same byte are skipped, so e.g. small
+ *     non-negative ints need only one or two passes.</li>
+ *     <li>From PARALLEL_THRESHOLD elements on, each pass builds per-chunk histograms in
+ *     parallel and scatters every chunk from its own prefix-sum offsets.</li>
+ * </ul>
+ * The sort is stable. Floating point values are ordered like Arrays.sort: -0.0 before
+ * 0.0 and NaN last. The int sort can be cancelled through a {@link CancellationToken},
+ * which is checked before every pass.
+ */
+public final class ParallelRadixSort {
+
+    /** Arrays of at least this many elements are sorted in parallel. */
+    public static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    private static final int RADIX = 256;
+    private static final int MIN_CHUNK = 1 << 15;
+    /** Phase names reported to {@link Metrics}, one per byte. */
+    private static final String[] PASS_NAMES = {
+            "byte 0 pass", "byte 1 pass", "byte 2 pass", "byte 3 pass",
+            "byte 4 pass", "byte 5 pass", "byte 6 pass", "byte 7 pass"};
+
+    private ParallelRadixSort() {
+    }
+
+    /**
+     * Sorts the array in ascending order.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(int[] arr) {
+        sort(arr, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array in ascending order. A cancelled sort skips its remaining passes and
+     * leaves the array a permutation of the input.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void sort(int[] arr, CancellationToken token) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Integer.MIN_VALUE;
+        }
+        sortUnsigned(arr, arr.length >= PARALLEL_THRESHOLD, token);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(long[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Long.MIN_VALUE;
+        }
+        sortUnsigned(arr);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order. The values are sorted as bit patterns in a
+     * temporary int[], so all NaNs come back as the canonical NaN.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(float[] arr) {
+        int[] keys = new int[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            int bits = Float.floatToIntBits(arr[i]);
+            keys[i] = bits ^ ((bits >> 31) | Integer.MIN_VALUE);
+        }
+        sortUnsigned(keys);
+        for (int i = 0; i < arr.length; i++) {
+            int key = keys[i];
+            arr[i] = Float.intBitsToFloat(key ^ ((~key >> 31) | Integer.MIN_VALUE));
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order. The values are sorted as bit patterns in a
+     * temporary long[], so all NaNs come back as the canonical NaN.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(double[] arr) {
+        long[] keys = new long[arr.length];
+        for (int i = 0; i < arr.length; i++) {
+            long bits = Double.doubleToLongBits(arr[i]);
+            keys[i] = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        }
+        sortUnsigned(keys);
+        for (int i = 0; i < arr.length; i++) {
+            long key = keys[i];
+            arr[i] = Double.longBitsToDouble(key ^ ((~key >> 63) | Long.MIN_VALUE));
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order on the calling thread only, e.g. when the
+     * caller already sorts several arrays in parallel.
+     *
+     * @param arr the array to sort
+     */
+    public static void sortSequential(int[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Integer.MIN_VALUE;
+        }
+        sortUnsigned(arr, false, CancellationToken.NONE);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order on the calling thread only.
+     *
+     * @param arr the array to sort
+     */
+    public static void sortSequential(long[] arr) {
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Long.MIN_VALUE;
+        }
+        sortUnsigned(arr, false);
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts the array treating every element as an unsigned 32-bit key.
+     *
+     * @param arr the array to sort
+     */
+    public static void sortUnsigned(int[] arr) {
+        sortUnsigned(arr, arr.length >= PARALLEL_THRESHOLD, CancellationToken.NONE);
+    }
+
+    private static void sortUnsigned(int[] arr, boolean parallel, CancellationToken token) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        long start = Metrics.phaseStart();
+        int[][] counts = parallel ? parallelHistogram(arr) : histogram(arr);
+        Metrics.phase("histogram", start);
+
+        int[] src = arr;
+        int[] dst = null;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int[] count = counts[pass];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            if (token.checkpoint(pass, Integer.BYTES)) {
+                break;
+            }
+            if (dst == null) {
+                dst = new int[n];
+                if (Metrics.ENABLED) {
+                    Metrics.allocated((long) Integer.BYTES * n);
+                }
+            }
+            start = Metrics.phaseStart();
+            int shift = pass * 8;
+            if (parallel) {
+                parallelScatter(src, dst, shift);
+            } else {
+                scatter(src, dst, shift, count);
+            }
+            int[] swap = src;
+            src = dst;
+            dst = swap;
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+                Metrics.phase(PASS_NAMES[pass], start);
+            }
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+            }
+        }
+    }
+
+    /**
+     * Sorts the array treating every element as an unsigned 64-bit key.
+     *
+     * @param arr the array to sort
+     */
+    public static void sortUnsigned(long[] arr) {
+        sortUnsigned(arr, arr.length >= PARALLEL_THRESHOLD);
+    }
+
+    private static void sortUnsigned(long[] arr, boolean parallel) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        long start = Metrics.phaseStart();
+        int[][] counts = parallel ? parallelHistogram(arr) : histogram(arr);
+        Metrics.phase("histogram", start);
+
+        long[] src = arr;
+        long[] dst = null;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int[] count = counts[pass];
+            if (isTrivialPass(count, n)) {
+                continue;
+            }
+            if (dst == null) {
+                dst = new long[n];
+                if (Metrics.ENABLED) {
+                    Metrics.allocated((long) Long.BYTES * n);
+                }
+            }
+            start = Metrics.phaseStart();
+            int shift = pass * 8;
+            if (parallel) {
+                parallelScatter(src, dst, shift);
+            } else {
+                scatter(src, dst, shift, count);
+            }
+            long[] swap = src;
+            src = dst;
+            dst = swap;
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+                Metrics.phase(PASS_NAMES[pass], start);
+            }
+        }
+        if (src != arr) {
+            System.arraycopy(src, 0, arr, 0, n);
+            if (Metrics.ENABLED) {
+                Metrics.writes(n);
+            }
+        }
+    }
+
+    /**
+     * A pass is trivial when all n keys fall into one bucket.
+     */
+    private static boolean isTrivialPass(int[] count, int n) {
+        for (int c : count) {
+            if (c != 0) {
+                return c == n;
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Histograms: one read of the input counts the bytes of every pass at once.
+    // ---------------------------------------------------------------------------------
+
+    private static int[][] histogram(int[] arr) {
+        return histogram(arr, 0, arr.length);
+    }
+
+    private static int[][] histogram(int[] arr, int from, int to) {
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        int[] c0 = counts[0], c1 = counts[1], c2 = counts[2], c3 = counts[3];
+        for (int i = from; i < to; i++) {
+            int key = arr[i];
+            c0[key & 0xFF]++;
+            c1[(key >>> 8) & 0xFF]++;
+            c2[(key >>> 16) & 0xFF]++;
+            c3[key >>> 24]++;
+        }
+        return counts;
+    }
+
+    private static int[][] histogram(long[] arr) {
+        return histogram(arr, 0, arr.length);
+    }
+
+    private static int[][] histogram(long[] arr, int from, int to) {
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = from; i < to; i++) {
+            long key = arr[i];
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass][(int) (key >>> (pass * 8)) & 0xFF]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int[][] parallelHistogram(int[] arr) {
+        int chunks = chunkCount(arr.length);
+        int[][][] partial = new int[chunks][][];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                partial[c] = histogram(arr, chunkStart(arr.length, chunks, c), chunkStart(arr.length, chunks, c + 1)));
+        return sumHistograms(partial, Integer.BYTES);
+    }
+
+    private static int[][] parallelHistogram(long[] arr) {
+        int chunks = chunkCount(arr.length);
+        int[][][] partial = new int[chunks][][];
+        IntStream.range(0, chunks).parallel().forEach(c ->
+                partial[c] = histogram(arr, chunkStart(arr.length, chunks, c), chunkStart(arr.length, chunks, c + 1)));
+        return sumHistograms(partial, Long.BYTES);
+    }
+
+    private static int[][] sumHistograms(int[][][] partial, int passes) {
+        int[][] counts = new int[passes][RADIX];
+        for (int[][] chunk : partial) {
+            for (int pass = 0; pass < passes; pass++) {
+                for (int b = 0; b < RADIX; b++) {
+                    counts[pass][b] += chunk[pass][b];
+                }
+            }
+        }
+        return counts;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Scatter: stable distribution of src into dst by the byte at the given shift.
+    // ---------------------------------------------------------------------------------
+
+    private static void scatter(int[] src, int[] dst, int shift, int[] count) {
+        int[] offset = exclusivePrefixSum(count);
+        for (int key : src) {
+            dst[offset[(key >>> shift) & 0xFF]++] = key;
+        }
+    }
+
+    private static void scatter(long[] src, long[] dst, int shift, int[] count) {
+        int[] offset = exclusivePrefixSum(count);
+        for (long key : src) {
+            dst[offset[(int) (key >>> shift) & 0xFF]++] = key;
+        }
+    }
+
+    /**
+     * Each chunk counts its own bytes, then chunk c of bucket b starts after all
+     * smaller buckets and after bucket b of chunks 0..c-1, which keeps the pass stable.
+     */
+    private static void parallelScatter(int[] src, int[] dst, int shift) {
+        int n = src.length;
+        int chunks = chunkCount(n);
+        int[][] offsets = new int[chunks][RADIX];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                count[(src[i] >>> shift) & 0xFF]++;
+            }
+        });
+        chunkOffsets(offsets);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                int key = src[i];
+                dst[offset[(key >>> shift) & 0xFF]++] = key;
+            }
+        });
+    }
+
+    private static void parallelScatter(long[] src, long[] dst, int shift) {
+        int n = src.length;
+        int chunks = chunkCount(n);
+        int[][] offsets = new int[chunks][RADIX];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] count = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                count[(int) (src[i] >>> shift) & 0xFF]++;
+            }
+        });
+        chunkOffsets(offsets);
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = offsets[c];
+            for (int i = chunkStart(n, chunks, c), end = chunkStart(n, chunks, c + 1); i < end; i++) {
+                long key = src[i];
+                dst[offset[(int) (key >>> shift) & 0xFF]++] = key;
+            }
+        });
+    }
+
+    /**
+     * Turns per-chunk bucket counts into per-chunk starting offsets, in place.
+     */
+    private static void chunkOffsets(int[][] counts) {
+        int running = 0;
+        for (int b = 0; b < RADIX; b++) {
+            for (int[] count : counts) {
+                int c = count[b];
+                count[b] = running;
+                running += c;
+            }
+        }
+    }
+
+    private static int[] exclusivePrefixSum(int[] count) {
+        int[] offset = new int[RADIX];
+        int running = 0;
+        for (int b = 0; b < RADIX; b++) {
+            offset[b] = running;
+            running += count[b];
+        }
+        return offset;
+    }
+
+    private static int chunkCount(int n) {
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(4 * parallelism, n / MIN_CHUNK));
+    }
+
+    private static int chunkStart(int n, int chunks, int c) {
+        return (int) ((long) n * c / chunks);
+    }
+}
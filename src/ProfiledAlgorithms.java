@@ -0,0 +1,495 @@
+/* File: ProfiledAlgorithms.java */
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The pseudocode shown for each algorithm, and versions of the algorithms that count how
+ * often every pseudocode line runs.
+ * <p>
+ * Each profiled algorithm follows its pseudocode line by line and bumps hits[line] (the
+ * 0-based line index) as it goes: one array increment per line, no clock reads, no
+ * allocation. The normal engines carry no tagging at all; the profiled versions only
+ * run when the pseudocode panel asks for a profile, so profiling costs nothing while it
+ * is switched off.
+ * <p>
+ * Loop headers count every evaluation of their condition, including the final failing
+ * one. Lines that copy a block (e.g. "copy arr[l..m] into L[]") count one hit per element
+ * copied, so that every hit stands for a constant amount of work and the hit counts are
+ * a fair proxy for the share of time spent on each line.
+ * <p>
+ * Like {@link TracedAlgorithms}, the profiled versions poll their
+ * {@link CancellationToken} once per outer loop iteration, recursion frame or block of
+ * CHECK_INTERVAL elements and stop early when it is cancelled; the counts are then
+ * those of the partial run.
+ */
+public final class ProfiledAlgorithms {
+
+    private static final Map<SortingAlgorithm, String[]> PSEUDOCODE = new EnumMap<>(SortingAlgorithm.class);
+
+    static {
+        PSEUDOCODE.put(SortingAlgorithm.INSERTION_SORT, new String[] {
+                "for i = 1 to n-1",
+                "   key = array[i]",
+                "   j = i - 1",
+                "   while j >= 0 and array[j] > key",
+                "       array[j+1] = array[j]",
+                "       j = j - 1",
+                "   array[j+1] = key"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.SELECTION_SORT, new String[] {
+                "for i = 0 to n-2",
+                "   minIndex = i",
+                "   for j = i+1 to n-1",
+                "       if array[j] < array[minIndex]",
+                "           minIndex = j",
+                "   swap(array[i], array[minIndex])"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.QUICK_SORT, new String[] {
+                "quickSort(arr, low, high):",
+                "   if low < high:",
+                "       pivotIndex = partition(arr, low, high)",
+                "       quickSort(arr, low, pivotIndex - 1)",
+                "       quickSort(arr, pivotIndex + 1, high)",
+                "",
+                "partition(arr, low, high):",
+                "   pivot = arr[high]",
+                "   i = low - 1",
+                "   for j = low to high - 1:",
+                "       if arr[j] < pivot:",
+                "           i++",
+                "           swap(arr[i], arr[j])",
+                "   swap(arr[i+1], arr[high])",
+                "   return i + 1"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.MERGE_SORT, new String[] {
+                "mergeSort(arr, l, r):",
+                "   if l < r:",
+                "       m = (l + r) / 2",
+                "       mergeSort(arr, l, m)",
+                "       mergeSort(arr, m+1, r)",
+                "       merge(arr, l, m, r)",
+                "",
+                "merge(arr, l, m, r):",
+                "   n1 = m - l + 1",
+                "   n2 = r - m",
+                "   create arrays L[0..n1-1] and R[0..n2-1]",
+                "   copy arr[l..m] into L[]",
+                "   copy arr[m+1..r] into R[]",
+                "   i = 0, j = 0, k = l",
+                "   while i < n1 and j < n2:",
+                "       if L[i] <= R[j]:",
+                "           arr[k] = L[i]",
+                "           i++",
+                "       else:",
+                "           arr[k] = R[j]",
+                "           j++",
+                "       k++",
+                "   copy remaining elements of L (if any)",
+                "   copy remaining elements of R (if any)"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.RADIX_SORT, new String[] {
+                "radixSort(arr):",
+                "   m = getMax(arr)",
+                "   for exp = 1; m/exp > 0; exp = exp * 10:",
+                "       countSort(arr, exp)",
+                "",
+                "countSort(arr, exp):",
+                "   create output array",
+                "   create count[0..9] and initialize to 0",
+                "   for each element in arr:",
+                "       count[(element/exp) % 10]++",
+                "   for i = 1 to 9:",
+                "       count[i] += count[i-1]",
+                "   for i from n-1 downto 0:",
+                "       output[count[(arr[i]/exp)%10] - 1] = arr[i]",
+                "       count[(arr[i]/exp)%10]--",
+                "   copy output to arr"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.LINEAR_SEARCH, new String[] {
+                "linearSearch(arr, target):",
+                "   for i = 0 to n-1:",
+                "       if arr[i] == target:",
+                "           return i",
+                "   return -1"
+        });
+        PSEUDOCODE.put(SortingAlgorithm.BINARY_SEARCH, new String[] {
+                "binarySearch(arr, target):",
+                "   low = 0, high = n-1",
+                "   while low <= high:",
+                "       mid = (low + high) / 2",
+                "       if arr[mid] == target:",
+                "           return mid",
+                "       else if arr[mid] < target:",
+                "           low = mid + 1",
+                "       else:",
+                "           high = mid - 1",
+                "   return -1"
+        });
+    }
+
+    private static final String[] NO_PSEUDOCODE = {"// Pseudocode not available for this algorithm."};
+
+    private ProfiledAlgorithms() {
+    }
+
+    /**
+     * Returns the pseudocode lines for the algorithm, or a one-line placeholder for
+     * algorithms without a profiled version.
+     */
+    public static String[] pseudocode(SortingAlgorithm algorithm) {
+        return PSEUDOCODE.getOrDefault(algorithm, NO_PSEUDOCODE).clone();
+    }
+
+    /**
+     * Returns whether the algorithm has pseudocode and a profiled version.
+     */
+    public static boolean isProfiled(SortingAlgorithm algorithm) {
+        return PSEUDOCODE.containsKey(algorithm);
+    }
+
+    /**
+     * Runs the profiled version of the algorithm on arr (sorting it in place for sorts)
+     * and returns the line counts. Binary search sorts arr first without counting.
+     *
+     * @param arr       the input
+     * @param algorithm the algorithm to run
+     * @param target    the element to search for; ignored by sorts
+     * @param token     polled while profiling, and told the progress
+     * @throws IllegalArgumentException for algorithms without a profiled version
+     */
+    public static LineProfile profile(int[] arr, SortingAlgorithm algorithm, int target, CancellationToken token) {
+        if (!isProfiled(algorithm)) {
+            throw new IllegalArgumentException(algorithm + " has no profiled version");
+        }
+        if (algorithm == SortingAlgorithm.BINARY_SEARCH) {
+            Arrays.sort(arr);
+        }
+        String[] lines = pseudocode(algorithm);
+        long[] hits = new long[lines.length];
+        long start = System.nanoTime();
+        switch (algorithm) {
+            case INSERTION_SORT -> insertionSort(arr, hits, token);
+            case SELECTION_SORT -> selectionSort(arr, hits, token);
+            case QUICK_SORT -> quickSort(arr, hits, token);
+            case MERGE_SORT -> mergeSort(arr, hits, token);
+            case RADIX_SORT -> radixSort(arr, hits, token);
+            case LINEAR_SEARCH -> linearSearch(arr, target, hits, token);
+            case BINARY_SEARCH -> binarySearch(arr, target, hits, token);
+            default -> throw new IllegalStateException();
+        }
+        return new LineProfile(algorithm, lines, hits, System.nanoTime() - start);
+    }
+
+    /**
+     * Sorts the array using Insertion Sort, counting line hits.
+     */
+    public static void insertionSort(int[] arr, long[] hits, CancellationToken token) {
+        int n = arr.length;
+        for (int i = 1; ; i++) {
+            hits[0]++;                                   // for i = 1 to n-1
+            if (i > n - 1 || token.checkpoint(i - 1, n - 1)) {
+                break;
+            }
+            int key = arr[i];
+            hits[1]++;                                   // key = array[i]
+            int j = i - 1;
+            hits[2]++;                                   // j = i - 1
+            while (true) {
+                hits[3]++;                               // while j >= 0 and array[j] > key
+                if (j < 0 || arr[j] <= key) {
+                    break;
+                }
+                arr[j + 1] = arr[j];
+                hits[4]++;                               // array[j+1] = array[j]
+                j--;
+                hits[5]++;                               // j = j - 1
+            }
+            arr[j + 1] = key;
+            hits[6]++;                                   // array[j+1] = key
+        }
+    }
+
+    /**
+     * Sorts the array using Selection Sort, counting line hits.
+     */
+    public static void selectionSort(int[] arr, long[] hits, CancellationToken token) {
+        int n = arr.length;
+        for (int i = 0; ; i++) {
+            hits[0]++;                                   // for i = 0 to n-2
+            if (i > n - 2 || token.checkpoint(i, n - 1)) {
+                break;
+            }
+            int minIndex = i;
+            hits[1]++;                                   // minIndex = i
+            for (int j = i + 1; ; j++) {
+                hits[2]++;                               // for j = i+1 to n-1
+                if (j > n - 1) {
+                    break;
+                }
+                hits[3]++;                               // if array[j] < array[minIndex]
+                if (arr[j] < arr[minIndex]) {
+                    minIndex = j;
+                    hits[4]++;                           // minIndex = j
+                }
+            }
+            int temp = arr[i];
+            arr[i] = arr[minIndex];
+            arr[minIndex] = temp;
+            hits[5]++;                                   // swap(array[i], array[minIndex])
+        }
+    }
+
+    /**
+     * Sorts the array using Quick Sort (last element as pivot), counting line hits. The
+     * larger partition is handled by looping instead of recursing so that a sorted input
+     * does not overflow the stack; the hits are the same as for the recursive version.
+     */
+    public static void quickSort(int[] arr, long[] hits, CancellationToken token) {
+        quickSort(arr, 0, arr.length - 1, hits, token);
+    }
+
+    private static void quickSort(int[] arr, int low, int high, long[] hits, CancellationToken token) {
+        while (true) {
+            hits[0]++;                                   // quickSort(arr, low, high):
+            hits[1]++;                                   // if low < high:
+            // Every partition places one pivot, so the partitions done measure the progress
+            if (low >= high || token.checkpoint(hits[6], arr.length)) {
+                return;
+            }
+            int pivotIndex = partition(arr, low, high, hits);
+            hits[2]++;                                   // pivotIndex = partition(arr, low, high)
+            hits[3]++;                                   // quickSort(arr, low, pivotIndex - 1)
+            hits[4]++;                                   // quickSort(arr, pivotIndex + 1, high)
+            if (pivotIndex - low < high - pivotIndex) {
+                quickSort(arr, low, pivotIndex - 1, hits, token);
+                low = pivotIndex + 1;
+            } else {
+                quickSort(arr, pivotIndex + 1, high, hits, token);
+                high = pivotIndex - 1;
+            }
+        }
+    }
+
+    private static int partition(int[] arr, int low, int high, long[] hits) {
+        hits[6]++;                                       // partition(arr, low, high):
+        int pivot = arr[high];
+        hits[7]++;                                       // pivot = arr[high]
+        int i = low - 1;
+        hits[8]++;                                       // i = low - 1
+        for (int j = low; ; j++) {
+            hits[9]++;                                   // for j = low to high - 1:
+            if (j > high - 1) {
+                break;
+            }
+            hits[10]++;                                  // if arr[j] < pivot:
+            if (arr[j] < pivot) {
+                i++;
+                hits[11]++;                              // i++
+                int temp = arr[i];
+                arr[i] = arr[j];
+                arr[j] = temp;
+                hits[12]++;                              // swap(arr[i], arr[j])
+            }
+        }
+        int temp = arr[i + 1];
+        arr[i + 1] = arr[high];
+        arr[high] = temp;
+        hits[13]++;                                      // swap(arr[i+1], arr[high])
+        hits[14]++;                                      // return i + 1
+        return i + 1;
+    }
+
+    /**
+     * Sorts the array using Merge Sort, counting line hits. L and R are allocated per
+     * merge, as in the pseudocode.
+     */
+    public static void mergeSort(int[] arr, long[] hits, CancellationToken token) {
+        mergeSort(arr, 0, arr.length - 1, hits, token);
+    }
+
+    private static void mergeSort(int[] arr, int l, int r, long[] hits, CancellationToken token) {
+        hits[0]++;                                       // mergeSort(arr, l, r):
+        hits[1]++;                                       // if l < r:
+        // The merges done, out of n - 1, measure the progress
+        if (l >= r || token.checkpoint(hits[7], arr.length - 1)) {
+            return;
+        }
+        int m = (l + r) >>> 1;
+        hits[2]++;                                       // m = (l + r) / 2
+        hits[3]++;                                       // mergeSort(arr, l, m)
+        mergeSort(arr, l, m, hits, token);
+        hits[4]++;                                       // mergeSort(arr, m+1, r)
+        mergeSort(arr, m + 1, r, hits, token);
+        if (token.isCancelled()) {
+            return;
+        }
+        hits[5]++;                                       // merge(arr, l, m, r)
+        merge(arr, l, m, r, hits);
+    }
+
+    private static void merge(int[] arr, int l, int m, int r, long[] hits) {
+        hits[7]++;                                       // merge(arr, l, m, r):
+        int n1 = m - l + 1;
+        hits[8]++;                                       // n1 = m - l + 1
+        int n2 = r - m;
+        hits[9]++;                                       // n2 = r - m
+        int[] left = new int[n1];
+        int[] right = new int[n2];
+        hits[10]++;                                      // create arrays L[0..n1-1] and R[0..n2-1]
+        System.arraycopy(arr, l, left, 0, n1);
+        hits[11] += n1;                                  // copy arr[l..m] into L[]
+        System.arraycopy(arr, m + 1, right, 0, n2);
+        hits[12] += n2;                                  // copy arr[m+1..r] into R[]
+        int i = 0, j = 0, k = l;
+        hits[13]++;                                      // i = 0, j = 0, k = l
+        while (true) {
+            hits[14]++;                                  // while i < n1 and j < n2:
+            if (i >= n1 || j >= n2) {
+                break;
+            }
+            hits[15]++;                                  // if L[i] <= R[j]:
+            if (left[i] <= right[j]) {
+                arr[k] = left[i];
+                hits[16]++;                              // arr[k] = L[i]
+                i++;
+                hits[17]++;                              // i++
+            } else {
+                hits[18]++;                              // else:
+                arr[k] = right[j];
+                hits[19]++;                              // arr[k] = R[j]
+                j++;
+                hits[20]++;                              // j++
+            }
+            k++;
+            hits[21]++;                                  // k++
+        }
+        System.arraycopy(left, i, arr, k, n1 - i);
+        hits[22] += n1 - i;                              // copy remaining elements of L (if any)
+        System.arraycopy(right, j, arr, k + n1 - i, n2 - j);
+        hits[23] += n2 - j;                              // copy remaining elements of R (if any)
+    }
+
+    /**
+     * Sorts the array using an LSD base-10 Radix Sort, counting line hits. Digits are
+     * taken from value - min, as in {@link HeadlessAlgorithms#radixSort}, so negative
+     * values sort correctly; getMax counts one hit per element scanned.
+     */
+    public static void radixSort(int[] arr, long[] hits, CancellationToken token) {
+        int n = arr.length;
+        hits[0]++;                                       // radixSort(arr):
+        int min = n == 0 ? 0 : arr[0];
+        int max = min;
+        for (int value : arr) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        long m = (long) max - min;
+        hits[1] += n;                                    // m = getMax(arr)
+        int passes = String.valueOf(m).length();
+        for (long exp = 1; ; exp *= 10) {
+            hits[2]++;                                   // for exp = 1; m/exp > 0; exp = exp * 10:
+            // One countSort per pass, so the countSorts done measure the progress
+            if (m / exp <= 0 || token.checkpoint(hits[3], passes)) {
+                break;
+            }
+            hits[3]++;                                   // countSort(arr, exp)
+            countSort(arr, min, exp, hits);
+        }
+    }
+
+    private static void countSort(int[] arr, int min, long exp, long[] hits) {
+        int n = arr.length;
+        hits[5]++;                                       // countSort(arr, exp):
+        int[] output = new int[n];
+        hits[6]++;                                       // create output array
+        int[] count = new int[10];
+        hits[7]++;                                       // create count[0..9] and initialize to 0
+        for (int value : arr) {
+            hits[8]++;                                   // for each element in arr:
+            count[(int) (((long) value - min) / exp % 10)]++;
+            hits[9]++;                                   // count[(element/exp) % 10]++
+        }
+        hits[8]++;                                       // the check that ends the loop
+        for (int i = 1; ; i++) {
+            hits[10]++;                                  // for i = 1 to 9:
+            if (i > 9) {
+                break;
+            }
+            count[i] += count[i - 1];
+            hits[11]++;                                  // count[i] += count[i-1]
+        }
+        for (int i = n - 1; ; i--) {
+            hits[12]++;                                  // for i from n-1 downto 0:
+            if (i < 0) {
+                break;
+            }
+            int digit = (int) (((long) arr[i] - min) / exp % 10);
+            output[count[digit] - 1] = arr[i];
+            hits[13]++;                                  // output[count[(arr[i]/exp)%10] - 1] = arr[i]
+            count[digit]--;
+            hits[14]++;                                  // count[(arr[i]/exp)%10]--
+        }
+        System.arraycopy(output, 0, arr, 0, n);
+        hits[15] += n;                                   // copy output to arr
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1, counting line hits.
+     */
+    public static int linearSearch(int[] arr, int target, long[] hits, CancellationToken token) {
+        hits[0]++;                                       // linearSearch(arr, target):
+        for (int i = 0; ; i++) {
+            hits[1]++;                                   // for i = 0 to n-1:
+            if (i > arr.length - 1) {
+                break;
+            }
+            if ((i & (CancellationToken.CHECK_INTERVAL - 1)) == 0 && token.checkpoint(i, arr.length)) {
+                return -1;
+            }
+            hits[2]++;                                   // if arr[i] == target:
+            if (arr[i] == target) {
+                hits[3]++;                               // return i
+                return i;
+            }
+        }
+        hits[4]++;                                       // return -1
+        return -1;
+    }
+
+    /**
+     * Binary search over a sorted array, counting line hits. Returns the index of any
+     * matching element, or -1.
+     */
+    public static int binarySearch(int[] arr, int target, long[] hits, CancellationToken token) {
+        hits[0]++;                                       // binarySearch(arr, target):
+        int low = 0, high = arr.length - 1;
+        hits[1]++;                                       // low = 0, high = n-1
+        int maxProbes = 32 - Integer.numberOfLeadingZeros(arr.length);
+        while (true) {
+            hits[2]++;                                   // while low <= high:
+            // The probes made (mid computations) measure the progress
+            if (low > high || token.checkpoint(hits[3], maxProbes)) {
+                break;
+            }
+            int mid = (low + high) >>> 1;
+            hits[3]++;                                   // mid = (low + high) / 2
+            hits[4]++;                                   // if arr[mid] == target:
+            if (arr[mid] == target) {
+                hits[5]++;                               // return mid
+                return mid;
+            }
+            hits[6]++;                                   // else if arr[mid] < target:
+            if (arr[mid] < target) {
+                low = mid + 1;
+                hits[7]++;                               // low = mid + 1
+            } else {
+                hits[8]++;                               // else:
+                high = mid - 1;
+                hits[9]++;                               // high = mid - 1
+            }
+        }
+        hits[10]++;                                      // return -1
+        return -1;
+    }
+}
@@ -2,6 +2,7 @@ import javafx.animation.FadeTransition;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.*;
@@ -10,12 +11,17 @@ import javafx.scene.text.Font;
 import javafx.util.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 public class PseudocodePanel {
     private final VBox pane;
     private final VBox codeContainer;
     private final List<Label> lines;
+    private final List<Label> stats;
+    // Heat-map background of each line, restored after hover and highlight
+    private final List<String> heat;
     private final ScrollPane scrollPane;
+    private final CheckBox profileCheckBox;
 
     // Constants for styling
     private static final double LINE_SPACING = 8;
@@ -23,9 +29,13 @@ public class PseudocodePanel {
     private static final String FONT_FAMILY = "JetBrains Mono";
     private static final double FONT_SIZE = 14;
     private static final Duration HIGHLIGHT_TRANSITION_DURATION = Duration.millis(300);
+    private static final String NO_HEAT = "-fx-background-color: transparent;";
+    private static final double MAX_HEAT_OPACITY = 0.65;
 
     public PseudocodePanel() {
         this.lines = new ArrayList<>();
+        this.stats = new ArrayList<>();
+        this.heat = new ArrayList<>();
 
         // Initialize main container
         this.pane = new VBox();
@@ -41,9 +51,23 @@ public class PseudocodePanel {
         this.scrollPane.setFitToWidth(true);
         this.scrollPane.setFitToHeight(true);
 
+        // Line profiling toggle: the profiled run only happens while it is checked
+        this.profileCheckBox = new CheckBox("Profile lines");
+        this.profileCheckBox.setStyle("-fx-text-fill: #d4d4d4;");
+        this.profileCheckBox.selectedProperty().addListener((obs, oldVal, newVal) -> {
+            if (!newVal) {
+                clearProfile();
+            }
+        });
+
         // Add title and scroll pane to main container
         Label titleLabel = createTitleLabel("Algorithm Pseudocode");
-        this.pane.getChildren().addAll(titleLabel, scrollPane);
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox header = new HBox(titleLabel, spacer, profileCheckBox);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(0, PADDING, 0, 0));
+        this.pane.getChildren().addAll(header, scrollPane);
 
         setupStyles();
     }
@@ -85,10 +109,14 @@ public class PseudocodePanel {
         Platform.runLater(() -> {
             codeContainer.getChildren().clear();
             lines.clear();
+            stats.clear();
+            heat.clear();
 
             for (int i = 0; i < codeLines.length; i++) {
                 HBox lineContainer = createLineContainer(i + 1, codeLines[i]);
                 lines.add((Label) lineContainer.getChildren().get(1));
+                stats.add((Label) lineContainer.getChildren().get(3));
+                heat.add(NO_HEAT);
                 codeContainer.getChildren().add(lineContainer);
             }
         });
@@ -113,15 +141,20 @@ public class PseudocodePanel {
         codeLabel.setFont(Font.font(FONT_FAMILY, FONT_SIZE));
         codeLabel.setStyle("-fx-text-fill: #d4d4d4;");
 
-        container.getChildren().addAll(numberLabel, codeLabel);
+        // Profile label: hits and share of the line, filled in by showProfile
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        Label statsLabel = new Label();
+        statsLabel.setFont(Font.font(FONT_FAMILY, FONT_SIZE - 2));
+        statsLabel.setStyle("-fx-text-fill: #9c9c9c;");
+
+        container.getChildren().addAll(numberLabel, codeLabel, spacer, statsLabel);
 
         // Corrected hover effect
         container.setOnMouseEntered(e -> container.setStyle(
                 "-fx-background-color: #3c3c3c;"
         ));
-        container.setOnMouseExited(e -> container.setStyle(
-                "-fx-background-color: transparent;"
-        ));
+        container.setOnMouseExited(e -> container.setStyle(heat.get(lineNumber - 1)));
 
         return container;
     }
@@ -151,9 +184,56 @@ public class PseudocodePanel {
 
     public void clearHighlights() {
         Platform.runLater(() -> {
-            for (Label line : lines) {
-                HBox container = (HBox) line.getParent();
-                container.setStyle("-fx-background-color: transparent;");
+            for (int i = 0; i < lines.size(); i++) {
+                lines.get(i).getParent().setStyle(heat.get(i));
+            }
+        });
+    }
+
+    /**
+     * Returns whether line profiling is switched on. Call on the JavaFX thread, before
+     * starting a run.
+     */
+    public boolean isProfiling() {
+        return profileCheckBox.isSelected();
+    }
+
+    /**
+     * Shows the profile as a heat map: each line gets its hit count and share, and a
+     * background whose intensity is its share relative to the hottest line.
+     *
+     * @param profile line counts for the pseudocode currently shown
+     */
+    public void showProfile(LineProfile profile) {
+        Platform.runLater(() -> {
+            if (profile.hits().length != lines.size()) {
+                // The algorithm was changed while the profiled run was in progress
+                return;
+            }
+            double hottest = profile.share(profile.hottestLine());
+            for (int i = 0; i < lines.size(); i++) {
+                double share = profile.share(i);
+                boolean code = !profile.lines()[i].isEmpty();
+                stats.get(i).setText(code ? String.format("%,d  %5.1f%%", profile.hits()[i], share * 100) : "");
+                double opacity = hottest == 0 ? 0 : MAX_HEAT_OPACITY * share / hottest;
+                // CSS needs a decimal point whatever the default locale
+                heat.set(i, String.format(Locale.ROOT,
+                        "-fx-background-color: rgba(255, 87, 34, %.3f); -fx-background-radius: 4;", opacity));
+                lines.get(i).getParent().setStyle(heat.get(i));
+            }
+            scrollPane.setVvalue((double) profile.hottestLine() / Math.max(1, lines.size() - 1));
+        });
+    }
+
+    /**
+     * Removes the counts and heat map left by showProfile.
+     */
+    public void clearProfile() {
+        Platform.runLater(() -> {
+            for (int i = 0; i < lines.size(); i++) {
+                stats.get(i).setText("");
+                heat.set(i, NO_HEAT);
+                lines.get(i).getParent().setStyle(NO_HEAT);
             }
         });
     }
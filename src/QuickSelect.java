@@ -0,0 +1,171 @@
+/* File: QuickSelect.java */
+import java.util.Arrays;
+
+/**
+ * Order statistics without a full sort, built on the hardened partition of {@link IntroSort}.
+ * <ul>
+ *     <li>select (introselect / nth_element): puts the element of a given rank in place in
+ *     expected O(n), falling back to heap sort of the remaining range after 2 * log2(n)
+ *     bad pivots, so the worst case is O(n log n).</li>
+ *     <li>partialSort: the k smallest elements in order, in O(n + k log k).</li>
+ *     <li>selectAll / percentiles: several ranks in one call. Every partition step only
+ *     descends into the sides that still contain a requested rank.</li>
+ * </ul>
+ * For streaming input that is never held in one array see {@link BoundedIntHeap}.
+ */
+public final class QuickSelect {
+
+    private QuickSelect() {
+    }
+
+    /**
+     * Rearranges arr so that arr[k] holds the element that would be at index k if the
+     * array were sorted, with no greater element before it and no smaller one after it.
+     *
+     * @param arr the array to rearrange
+     * @param k   the rank to select, 0 for the minimum
+     * @return arr[k]
+     * @throws IndexOutOfBoundsException if k is not an index of arr
+     */
+    public static int select(int[] arr, int k) {
+        checkRank(k, arr.length);
+        int low = 0;
+        int high = arr.length - 1;
+        int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+        while (high - low >= IntroSort.INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                IntroSort.heapSort(arr, low, high);
+                return arr[k];
+            }
+            long bounds = IntroSort.partition(arr, low, high, arr[IntroSort.selectPivot(arr, low, high)]);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            if (k < lt) {
+                high = lt - 1;
+            } else if (k > gt) {
+                low = gt + 1;
+            } else {
+                return arr[k];
+            }
+        }
+        HeadlessAlgorithms.insertionSort(arr, low, high);
+        return arr[k];
+    }
+
+    /**
+     * Sorts the k smallest elements into arr[0..k-1]; the rest of the array is left in
+     * unspecified order.
+     *
+     * @param arr the array to rearrange
+     * @param k   number of smallest elements to sort, 0 to arr.length
+     * @throws IndexOutOfBoundsException if k is negative or greater than arr.length
+     */
+    public static void partialSort(int[] arr, int k) {
+        if (k < 0 || k > arr.length) {
+            throw new IndexOutOfBoundsException("k " + k + " out of range for length " + arr.length);
+        }
+        if (k == 0) {
+            return;
+        }
+        if (k < arr.length) {
+            select(arr, k - 1);
+        }
+        IntroSort.sort(arr, 0, k - 1);
+    }
+
+    /**
+     * Selects several ranks at once. Afterwards every requested rank is in place as with
+     * select, and the array between two requested ranks holds exactly the elements of
+     * that range.
+     *
+     * @param arr   the array to rearrange
+     * @param ranks the ranks to select, in any order, duplicates allowed
+     * @return the selected element for every rank, in the order of ranks
+     * @throws IndexOutOfBoundsException if a rank is not an index of arr
+     */
+    public static int[] selectAll(int[] arr, int... ranks) {
+        int[] sorted = ranks.clone();
+        Arrays.sort(sorted);
+        for (int rank : sorted) {
+            checkRank(rank, arr.length);
+        }
+        if (sorted.length > 0) {
+            int depthLimit = 2 * (31 - Integer.numberOfLeadingZeros(arr.length));
+            selectAll(arr, 0, arr.length - 1, sorted, 0, sorted.length - 1, depthLimit);
+        }
+        int[] values = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            values[i] = arr[ranks[i]];
+        }
+        return values;
+    }
+
+    /**
+     * Places the ranks r[rlo..rhi] (sorted, all within low..high) of arr[low..high].
+     */
+    private static void selectAll(int[] arr, int low, int high, int[] r, int rlo, int rhi, int depthLimit) {
+        while (rlo <= rhi) {
+            if (high - low < IntroSort.INSERTION_SORT_THRESHOLD) {
+                HeadlessAlgorithms.insertionSort(arr, low, high);
+                return;
+            }
+            if (depthLimit-- == 0) {
+                IntroSort.heapSort(arr, low, high);
+                return;
+            }
+            long bounds = IntroSort.partition(arr, low, high, arr[IntroSort.selectPivot(arr, low, high)]);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+
+            // Ranks below lt go left, ranks above gt go right, the ones in between are done
+            int left = rlo;
+            while (left <= rhi && r[left] < lt) {
+                left++;
+            }
+            int right = left;
+            while (right <= rhi && r[right] <= gt) {
+                right++;
+            }
+            if (left - rlo < rhi - right + 1) {
+                selectAll(arr, low, lt - 1, r, rlo, left - 1, depthLimit);
+                low = gt + 1;
+                rlo = right;
+            } else {
+                selectAll(arr, gt + 1, high, r, right, rhi, depthLimit);
+                high = lt - 1;
+                rhi = left - 1;
+            }
+        }
+    }
+
+    /**
+     * Returns the percentiles of arr by the nearest-rank method: the p-th percentile is
+     * the smallest element with at least p percent of the elements less or equal to it.
+     * The array is rearranged as by selectAll.
+     *
+     * @param arr         the array to rearrange, not empty
+     * @param percentiles the percentiles to compute, each in 0..100
+     * @return the value of every percentile, in the given order
+     * @throws IllegalArgumentException if the array is empty or a percentile is out of range
+     */
+    public static int[] percentiles(int[] arr, double... percentiles) {
+        if (arr.length == 0) {
+            throw new IllegalArgumentException("No percentiles of an empty array");
+        }
+        int[] ranks = new int[percentiles.length];
+        for (int i = 0; i < percentiles.length; i++) {
+            double p = percentiles[i];
+            if (!(p >= 0 && p <= 100)) {
+                throw new IllegalArgumentException("Percentile " + p + " is not in 0..100");
+            }
+            ranks[i] = Math.max(0, (int) Math.ceil(p * arr.length / 100) - 1);
+        }
+        return selectAll(arr, ranks);
+    }
+
+    private static void checkRank(int k, int length) {
+        if (k < 0 || k >= length) {
+            throw new IndexOutOfBoundsException("Rank " + k + " out of range for length " + length);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/* File: RaceResult.java */
+
+/**
+ * Measurements of one engine in a {@link SortRace}, or the reason it failed.
+ *
+ * @param engine         engine name, e.g. INTRO_SORT
+ * @param size           number of elements sorted
+ * @param wallNanos      elapsed time of the sort
+ * @param cpuNanos       CPU time of the racing thread, or -1 if the JVM cannot measure it
+ * @param allocatedBytes heap allocated by the racing thread, or -1 if the JVM cannot measure it
+ * @param stats          operation counts, or null when {@link Metrics} are disabled
+ * @param sorted         whether the output was checked to be in ascending order
+ * @param trace          recording of the textbook version for playback, or null
+ * @param error          why the engine failed, e.g. an input it does not accept, or null
+ */
+public record RaceResult(String engine, int size, long wallNanos, long cpuNanos, long allocatedBytes,
+                         RunStats stats, boolean sorted, StepTrace trace, String error) {
+
+    /**
+     * Returns the result of an engine that threw instead of sorting; it has no measurements.
+     */
+    public static RaceResult failed(String engine, int size, Throwable cause) {
+        String error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        return new RaceResult(engine, size, -1, -1, -1, null, false, null, error);
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    /** Key comparisons, or -1 without metrics or when the engine is not instrumented. */
+    public long comparisons() {
+        return stats == null || stats.isEmpty() ? -1 : stats.comparisons();
+    }
+
+    /** Element exchanges, or -1 without metrics or when the engine is not instrumented. */
+    public long swaps() {
+        return stats == null || stats.isEmpty() ? -1 : stats.swaps();
+    }
+
+    /** Returns a copy carrying the given trace. */
+    public RaceResult withTrace(StepTrace trace) {
+        return new RaceResult(engine, size, wallNanos, cpuNanos, allocatedBytes, stats, sorted, trace, error);
+    }
+}
@@ -0,0 +1,226 @@
+/* File: RaceWindow.java */
+import javafx.concurrent.Task;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollPane;
+import javafx.scene.control.Spinner;
+import javafx.scene.control.TextArea;
+import javafx.scene.control.Tooltip;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.stage.Stage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Window of the race mode: pick sort engines, race them on one input with
+ * {@link SortRace} and compare wall time, CPU time, allocation and operation counts in
+ * one table. Optionally every engine's algorithm is then replayed side by side, all at
+ * the same number of steps per second, so the one needing fewest steps finishes first.
+ */
+public class RaceWindow {
+
+    /** Largest input offered for playback; the quadratic sorts record too many steps beyond it. */
+    public static final int MAX_PLAYBACK_SIZE = 2_000;
+    private static final int PLAYBACK_COLUMNS = 2;
+
+    private final Stage stage = new Stage();
+    private final int[] input;
+    private final Map<Sorter, CheckBox> engineBoxes = new LinkedHashMap<>();
+    private final Spinner<Integer> workersSpinner;
+    private final CheckBox playbackCheckBox = new CheckBox("Synchronized playback");
+    private final Button raceButton = new Button("Start Race");
+    private final Button cancelButton = new Button("Cancel");
+    private final TextArea resultArea = new TextArea();
+    private final GridPane playbackGrid = new GridPane();
+    // The visualizers in playbackGrid, disposed whenever the grid is cleared
+    private final List<CanvasVisualizer> visualizers = new ArrayList<>();
+    private Task<List<RaceResult>> runningTask;
+
+    /**
+     * @param input the array every engine sorts a copy of; copied
+     */
+    public RaceWindow(int[] input) {
+        this.input = input.clone();
+
+        // Engines, with the default engine of every algorithm preselected unless it is too slow for the input
+        List<Sorter> preselected = SortRace.defaultRacers(this.input.length);
+        VBox enginePanel = new VBox(6, new Label("Engines:"));
+        for (SortingAlgorithm algorithm : SortingAlgorithm.values()) {
+            if (algorithm.isSearch()) {
+                continue;
+            }
+            List<Sorter> sorters = AlgorithmRegistry.getDefault().sorters(algorithm);
+            for (int i = 0; i < sorters.size(); i++) {
+                CheckBox box = new CheckBox(sorters.get(i).name());
+                box.setSelected(preselected.contains(sorters.get(i)));
+                engineBoxes.put(sorters.get(i), box);
+                enginePanel.getChildren().add(box);
+            }
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        workersSpinner = new Spinner<>(1, Math.max(cores, engineBoxes.size()),
+                SortRace.defaultWorkers(engineBoxes.size()));
+        workersSpinner.setTooltip(new Tooltip("Number of engines running at the same time"));
+        playbackCheckBox.setDisable(this.input.length > MAX_PLAYBACK_SIZE);
+        playbackCheckBox.setTooltip(new Tooltip("Replays each engine's algorithm after the race (up to "
+                + MAX_PLAYBACK_SIZE + " elements)"));
+        raceButton.setOnAction(e -> startRace());
+        cancelButton.setDisable(true);
+        cancelButton.setOnAction(e -> cancelRace());
+        enginePanel.getChildren().addAll(new Label("Workers:"), workersSpinner, playbackCheckBox, raceButton,
+                cancelButton);
+        enginePanel.setPadding(new Insets(10));
+
+        resultArea.setEditable(false);
+        resultArea.setFont(Font.font("Monospaced", 13));
+        resultArea.setPrefRowCount(12);
+        resultArea.setText(String.format("Input: %s%nSelect the engines and start the race.",
+                ArraySummary.of(this.input)));
+
+        playbackGrid.setHgap(10);
+        playbackGrid.setVgap(10);
+        playbackGrid.setPadding(new Insets(10));
+        ScrollPane playbackScroll = new ScrollPane(playbackGrid);
+        playbackScroll.setFitToWidth(true);
+
+        BorderPane root = new BorderPane();
+        root.setLeft(new ScrollPane(enginePanel));
+        root.setCenter(new VBox(10, resultArea, playbackScroll));
+        root.setPadding(new Insets(10));
+
+        Scene scene = new Scene(root, 1100, 750);
+        scene.getStylesheets().add("data:text/css," + MainController.MODERN_STYLE.replaceAll("\n", ""));
+        stage.setTitle("Engine Race");
+        stage.setScene(scene);
+        stage.setOnHidden(e -> {
+            cancelRace();
+            clearPlayback();
+        });
+    }
+
+    public void show() {
+        stage.show();
+    }
+
+    private void startRace() {
+        List<Sorter> racers = new ArrayList<>();
+        engineBoxes.forEach((sorter, box) -> {
+            if (box.isSelected()) {
+                racers.add(sorter);
+            }
+        });
+        if (racers.isEmpty()) {
+            resultArea.setText("Select at least one engine.");
+            return;
+        }
+        int workers = workersSpinner.getValue();
+        boolean playback = playbackCheckBox.isSelected() && !playbackCheckBox.isDisabled();
+
+        raceButton.setDisable(true);
+        cancelButton.setDisable(false);
+        clearPlayback();
+        resultArea.setText(String.format("Racing %d engines on %,d elements with %d workers...",
+                racers.size(), input.length, workers));
+
+        Task<List<RaceResult>> task = new Task<>() {
+            // Cancelling the Task cancels the race
+            private final CancellationToken token = new CancellationToken();
+
+            @Override
+            protected List<RaceResult> call() {
+                return SortRace.run(input, racers, workers, playback, token);
+            }
+
+            @Override
+            protected void cancelled() {
+                token.cancel();
+            }
+        };
+        task.setOnSucceeded(e -> {
+            List<RaceResult> results = task.getValue();
+            resultArea.setText(String.format("%,d elements, %d workers%n%s", input.length, workers,
+                    SortRace.table(results)));
+            if (playback) {
+                showPlayback(results);
+            }
+            finishRace();
+        });
+        task.setOnFailed(e -> {
+            resultArea.setText("The race failed: " + task.getException().getMessage());
+            finishRace();
+        });
+        task.setOnCancelled(e -> {
+            resultArea.setText("Race cancelled.");
+            finishRace();
+        });
+        runningTask = task;
+        try {
+            ExecutionService.shared().execute(task);
+        } catch (RejectedExecutionException ex) {
+            resultArea.setText("Too many jobs are waiting, please try again shortly");
+            finishRace();
+        }
+    }
+
+    private void cancelRace() {
+        if (runningTask != null) {
+            runningTask.cancel();
+        }
+    }
+
+    private void finishRace() {
+        runningTask = null;
+        raceButton.setDisable(false);
+        cancelButton.setDisable(true);
+    }
+
+    /**
+     * Replays every result's trace in its own visualizer, all at the speed that plays the
+     * longest trace in the usual time. Failed engines have no trace and are left out.
+     */
+    private void showPlayback(List<RaceResult> results) {
+        long longest = 0;
+        for (RaceResult result : results) {
+            if (result.trace() != null) {
+                longest = Math.max(longest, result.trace().size());
+            }
+        }
+        double speed = CanvasVisualizer.playbackSpeed(longest);
+        for (int i = 0; i < results.size(); i++) {
+            RaceResult result = results.get(i);
+            if (result.trace() == null) {
+                continue;
+            }
+            CanvasVisualizer visualizer = new CanvasVisualizer();
+            visualizers.add(visualizer);
+            visualizer.getPane().setPrefSize(500, 260);
+            Label title = new Label(String.format("%d. %s (%,d steps)", i + 1, result.engine(),
+                    result.trace().recorded()));
+            VBox cell = new VBox(4, title, visualizer.getPane());
+            cell.setAlignment(Pos.TOP_LEFT);
+            playbackGrid.add(cell, i % PLAYBACK_COLUMNS, i / PLAYBACK_COLUMNS);
+            visualizer.play(result.trace(), speed);
+        }
+    }
+
+    /**
+     * Removes the playback visualizers and stops their timers.
+     */
+    private void clearPlayback() {
+        visualizers.forEach(CanvasVisualizer::dispose);
+        visualizers.clear();
+        playbackGrid.getChildren().clear();
+    }
+}
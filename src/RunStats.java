@@ -0,0 +1,40 @@
+/* File: RunStats.java */
+import java.util.Map;
+
+/**
+ * Counts collected during one instrumented run of an engine.
+ *
+ * @param algorithm      engine name, e.g. INTRO_SORT
+ * @param size           number of elements
+ * @param nanos          wall-clock time of the run
+ * @param comparisons    key comparisons
+ * @param swaps          element exchanges
+ * @param writes         other array stores
+ * @param maxDepth       deepest recursion reported
+ * @param allocatedBytes scratch space allocated
+ * @param phaseNanos     total time per phase name, in the order the phases first ran
+ */
+public record RunStats(String algorithm, int size, long nanos, long comparisons, long swaps, long writes,
+                       int maxDepth, long allocatedBytes, Map<String, Long> phaseNanos) {
+
+    /**
+     * Whether the run reported nothing at all, which means the engine is not
+     * instrumented; its counts are then unknown rather than zero.
+     */
+    public boolean isEmpty() {
+        return comparisons == 0 && swaps == 0 && writes == 0 && maxDepth == 0 && allocatedBytes == 0
+                && phaseNanos.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        if (isEmpty()) {
+            return "Comparisons, swaps and writes: n/a (engine not instrumented)";
+        }
+        StringBuilder out = new StringBuilder(String.format(
+                "Comparisons: %,d\nSwaps: %,d\nWrites: %,d\nMax recursion depth: %d\nAllocated: %,d bytes",
+                comparisons, swaps, writes, maxDepth, allocatedBytes));
+        phaseNanos.forEach((phase, time) -> out.append(String.format("\n  %s: %.2f ms", phase, time / 1_000_000.0)));
+        return out.toString();
+    }
+}
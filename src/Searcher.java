@@ -0,0 +1,46 @@
+/* File: Searcher.java */
+
+/**
+ * A headless search engine. Engines are looked up through {@link AlgorithmRegistry};
+ * third-party engines can be added by listing their class in
+ * META-INF/services/Searcher.
+ */
+public interface Searcher {
+
+    /**
+     * The algorithm family this engine implements.
+     */
+    SortingAlgorithm algorithm();
+
+    /**
+     * Unique engine name, e.g. "VECTOR_LINEAR_SEARCH".
+     */
+    String name();
+
+    /**
+     * True if the array must be sorted in ascending order before searching.
+     */
+    boolean requiresSortedInput();
+
+    /**
+     * Returns the index of an element equal to target, or -1 if there is none.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     */
+    int search(int[] arr, int target);
+
+    /**
+     * Returns the index of an element equal to target, or -1 if there is none, polling
+     * the token and reporting progress to it. Engines that do not override this ignore
+     * the token.
+     *
+     * @param arr    the array to search
+     * @param target the element to search for
+     * @param token  polled for cancellation, and told the progress
+     * @throws java.util.concurrent.CancellationException if the token was cancelled before the search ended
+     */
+    default int search(int[] arr, int target, CancellationToken token) {
+        return search(arr, target);
+    }
+}
@@ -0,0 +1,41 @@
+/* File: SortMetrics.java */
+
+/**
+ * Receiver of the operation counts the headless engines report while they run.
+ * Engines never call it directly but through the static methods of {@link Metrics},
+ * which route to the sink installed on the current thread and do nothing at all unless
+ * metrics are enabled.
+ * <p>
+ * Every method has an empty default, so a sink implements only what it needs. Counts
+ * arrive in batches (e.g. once per partition or pass), not once per operation.
+ */
+public interface SortMetrics {
+
+    /** A sink that ignores everything. */
+    SortMetrics NOOP = new SortMetrics() {
+    };
+
+    /** Key comparisons. */
+    default void comparisons(long count) {
+    }
+
+    /** Exchanges of two elements. */
+    default void swaps(long count) {
+    }
+
+    /** Array stores other than the ones that are part of a swap. */
+    default void writes(long count) {
+    }
+
+    /** Current recursion depth, reported when a recursive call starts. */
+    default void recursionDepth(int depth) {
+    }
+
+    /** Bytes of scratch space allocated. */
+    default void allocated(long bytes) {
+    }
+
+    /** Duration of one phase, e.g. a radix pass or a merge level. */
+    default void phase(String name, long nanos) {
+    }
+}
@@ -0,0 +1,26 @@
+/* File: SortPhaseEvent.java */
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one phase of an instrumented run, e.g. one radix pass.
+ */
+@Name("searchsort.SortPhase")
+@Label("Sort Phase")
+@Category("Search-Sort")
+@StackTrace(false)
+class SortPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Elapsed")
+    @Timespan
+    long nanos;
+}
@@ -0,0 +1,208 @@
+/* File: SortRace.java */
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs several sort engines on copies of the same input at the same time and measures
+ * each of them, to compare engines on real data before picking a default.
+ * <p>
+ * Every racer gets its own copy of the input, made up front on the calling thread, and
+ * runs as one job on a private {@link ExecutionService} with a fixed number of workers.
+ * With fewer workers than racers the rest queue up; with more workers than cores the
+ * racers compete for CPU and wall times stretch, while CPU times stay comparable.
+ * <p>
+ * CPU time and allocation come from {@link ThreadMXBean} and cover the racing thread
+ * only: helper threads of the parallel engines are not included, their wall time is.
+ * Comparisons and swaps are only known when {@link Metrics} are enabled.
+ * <p>
+ * An engine that throws, e.g. counting sort on a value range it does not accept, is
+ * reported as a failed result and does not stop the other racers. A race is cancelled
+ * through its {@link CancellationToken}: queued racers are skipped, and running ones
+ * stop at their engine's next check.
+ */
+public final class SortRace {
+
+    /**
+     * Largest input the quadratic engines (selection and insertion sort) race on by
+     * default; beyond it they take seconds to minutes.
+     */
+    public static final int QUADRATIC_LIMIT = 20_000;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    /** How often the racing thread checks the token while waiting for a racer. */
+    private static final long POLL_MILLIS = 50;
+
+    private SortRace() {
+    }
+
+    /**
+     * Returns the default engine of every sorting algorithm, in algorithm order. The
+     * quadratic ones are left out for inputs longer than QUADRATIC_LIMIT.
+     *
+     * @param size length of the input to race on
+     */
+    public static List<Sorter> defaultRacers(int size) {
+        List<Sorter> racers = new ArrayList<>();
+        for (SortingAlgorithm algorithm : SortingAlgorithm.values()) {
+            if (!algorithm.isSearch() && (size <= QUADRATIC_LIMIT || !isQuadratic(algorithm))) {
+                racers.add(AlgorithmRegistry.getDefault().sorter(algorithm));
+            }
+        }
+        return racers;
+    }
+
+    private static boolean isQuadratic(SortingAlgorithm algorithm) {
+        return algorithm == SortingAlgorithm.SELECTION_SORT || algorithm == SortingAlgorithm.INSERTION_SORT;
+    }
+
+    /**
+     * Number of workers used when none is given: one per racer, at most one per core.
+     */
+    public static int defaultWorkers(int racers) {
+        return Math.max(1, Math.min(racers, Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Races the engines on input and returns their results, fastest first and failed
+     * engines last.
+     *
+     * @param input        the array to sort; not modified
+     * @param racers       the engines to compare
+     * @param workers      number of racers that run at the same time
+     * @param recordTraces whether to also record each engine's algorithm for playback;
+     *                     recording happens after the timed sort and is not measured
+     * @param token        cancels the race; told the share of racers finished
+     * @throws IllegalArgumentException if workers is below 1
+     * @throws CancellationException    if the token was cancelled before every racer finished
+     */
+    public static List<RaceResult> run(int[] input, List<Sorter> racers, int workers, boolean recordTraces,
+                                       CancellationToken token) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("Workers must be positive, got " + workers);
+        }
+        List<Job<RaceResult>> jobs = new ArrayList<>();
+        try (ExecutionService pool = new ExecutionService(workers, racers.size(), 1)) {
+            for (Sorter racer : racers) {
+                int[] copy = input.clone();
+                int[] traceInput = recordTraces ? input.clone() : null;
+                jobs.add(pool.submit(jobToken -> race(racer, copy, traceInput, jobToken)));
+            }
+            List<RaceResult> results = new ArrayList<>();
+            try {
+                for (int i = 0; i < jobs.size(); i++) {
+                    results.add(await(jobs.get(i), racers.get(i), input.length, token));
+                    token.progress(results.size(), jobs.size());
+                }
+            } finally {
+                // After a cancellation or an unexpected error: queued racers are skipped,
+                // running ones stop at their next check. Finished jobs are unaffected.
+                jobs.forEach(Job::cancel);
+            }
+            results.sort(Comparator.comparing(RaceResult::isFailed).thenComparingLong(RaceResult::wallNanos));
+            return results;
+        }
+    }
+
+    /**
+     * Waits for the racer's result, checking the token every POLL_MILLIS. An engine that
+     * threw gives a failed result.
+     */
+    private static RaceResult await(Job<RaceResult> job, Sorter racer, int size, CancellationToken token) {
+        while (true) {
+            token.throwIfCancelled();
+            try {
+                return job.result().get(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // Still racing
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Race interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                return RaceResult.failed(racer.name(), size, e.getCause());
+            }
+        }
+    }
+
+    private static RaceResult race(Sorter racer, int[] arr, int[] traceInput, CancellationToken token) {
+        RaceResult result;
+        try (Metrics.Run run = Metrics.open(racer.name(), arr.length)) {
+            long cpuStart = cpuTime();
+            long allocationStart = allocatedBytes();
+            long start = System.nanoTime();
+            racer.sort(arr, token);
+            long wall = System.nanoTime() - start;
+            token.throwIfCancelled();
+            long cpu = cpuStart < 0 ? -1 : cpuTime() - cpuStart;
+            long allocated = allocationStart < 0 ? -1 : allocatedBytes() - allocationStart;
+            result = new RaceResult(racer.name(), arr.length, wall, cpu, allocated, run.stats(), isSorted(arr), null,
+                    null);
+        }
+        if (traceInput != null) {
+            Sorter engine = racer instanceof AdaptiveSorter adaptive ? adaptive.choose(traceInput) : racer;
+            result = result.withTrace(TracedAlgorithms.record(traceInput, engine.algorithm(), 0,
+                    StepTrace.DEFAULT_CAPACITY, token));
+        }
+        return result;
+    }
+
+    private static long cpuTime() {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled()
+                ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private static boolean isSorted(int[] arr) {
+        for (int i = 1; i < arr.length; i++) {
+            if (arr[i - 1] > arr[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Formats the results as a fixed-width table, one row per engine. Failed engines get
+     * no rank and show their error instead of measurements.
+     */
+    public static String table(List<RaceResult> results) {
+        StringBuilder out = new StringBuilder(String.format("%-4s %-20s %12s %12s %14s %16s %14s %s%n",
+                "#", "Engine", "Wall ms", "CPU ms", "Allocated", "Comparisons", "Swaps", "Sorted"));
+        int rank = 1;
+        for (RaceResult result : results) {
+            if (result.isFailed()) {
+                out.append(String.format("%-4s %-20s failed: %s%n", "-", result.engine(), result.error()));
+                continue;
+            }
+            out.append(String.format("%-4d %-20s %12.3f %12s %14s %16s %14s %s%n", rank++, result.engine(),
+                    result.wallNanos() / 1_000_000.0,
+                    result.cpuNanos() < 0 ? "n/a" : String.format("%.3f", result.cpuNanos() / 1_000_000.0),
+                    count(result.allocatedBytes()), count(result.comparisons()), count(result.swaps()),
+                    result.sorted() ? "yes" : "NO"));
+        }
+        if (!Metrics.ENABLED) {
+            out.append("Comparisons and swaps need -D").append(Metrics.PROPERTY).append("=true");
+        }
+        return out.toString();
+    }
+
+    private static String count(long value) {
+        return value < 0 ? "n/a" : String.format("%,d", value);
+    }
+}
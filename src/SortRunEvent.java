@@ -0,0 +1,46 @@
+/* File: SortRunEvent.java */
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event committed at the end of every instrumented run (see {@link Metrics#open}).
+ * Record with e.g. -XX:StartFlightRecording and look for searchsort.SortRun.
+ */
+@Name("searchsort.SortRun")
+@Label("Sort Run")
+@Category("Search-Sort")
+@Description("One run of a sort or search engine with its operation counts")
+@StackTrace(false)
+class SortRunEvent extends jdk.jfr.Event {
+
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Size")
+    int size;
+
+    @Label("Comparisons")
+    long comparisons;
+
+    @Label("Swaps")
+    long swaps;
+
+    @Label("Writes")
+    long writes;
+
+    @Label("Max Recursion Depth")
+    int maxDepth;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("Elapsed")
+    @Timespan
+    long nanos;
+}
@@ -0,0 +1,277 @@
+/* File: SortedArrayCache.java */
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Remembers the sorted form of arrays that were sorted before, so sorting the same
+ * content again costs a hash, a comparison and a copy instead of an O(n log n) sort.
+ * Meant for repeated queries over the same reference tables.
+ * <p>
+ * Entries are found by a 64-bit fingerprint of the content (xxHash64 of the array's
+ * little-endian bytes) and then confirmed by comparing the input with the copy kept in
+ * the entry, so a fingerprint collision can never return the wrong array. An entry
+ * weighs the bytes of both arrays, and the total weight is bounded:
+ * <ul>
+ *     <li>Eviction is least recently used first.</li>
+ *     <li>Admission follows TinyLFU: a small count-min sketch estimates how often each
+ *     content was asked for recently, and a new entry only displaces entries that were
+ *     asked for less often. A stream of one-off arrays therefore cannot flush the tables
+ *     that are queried again and again.</li>
+ * </ul>
+ * All methods are thread-safe; hashing and sorting happen outside the lock.
+ */
+public final class SortedArrayCache {
+
+    /** Default bound on the total weight of the entries. */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private static final SortedArrayCache SHARED = new SortedArrayCache(DEFAULT_MAX_BYTES);
+
+    // xxHash64 primes
+    private static final long P1 = 0x9E3779B185EBCA87L;
+    private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+    private static final long P3 = 0x165667B19E3779F9L;
+    private static final long P4 = 0x85EBCA77C2B2AE63L;
+    private static final long P5 = 0x27D4EB2F165667C5L;
+
+    private final long maxBytes;
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch = new FrequencySketch();
+    private long weight;
+    private long hits;
+    private long misses;
+
+    private record Entry(int[] input, int[] sorted, long weight) {
+    }
+
+    /**
+     * @param maxBytes bound on the total weight of the entries
+     * @throws IllegalArgumentException if maxBytes is negative
+     */
+    public SortedArrayCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Maximum size must not be negative, got " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cache shared by the application, bounded by DEFAULT_MAX_BYTES.
+     */
+    public static SortedArrayCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Sorts arr in place. If the same content was sorted before, the remembered result is
+     * copied into arr; otherwise sort runs and its result is offered to the cache.
+     *
+     * @param arr  the array to sort
+     * @param sort sorts an array in ascending order, e.g. {@code Arrays::sort} or an engine
+     * @return true if the result came from the cache and sort did not run
+     */
+    public boolean sort(int[] arr, Consumer<int[]> sort) {
+        long weight = weightOf(arr.length);
+        if (weight > maxBytes) {
+            sort.accept(arr);
+            return false;
+        }
+        long fingerprint = fingerprint(arr);
+        int[] sorted = lookup(fingerprint, arr);
+        if (sorted != null) {
+            System.arraycopy(sorted, 0, arr, 0, arr.length);
+            return true;
+        }
+        int[] input = arr.clone();
+        sort.accept(arr);
+        offer(fingerprint, new Entry(input, arr.clone(), weight));
+        return false;
+    }
+
+    private synchronized int[] lookup(long fingerprint, int[] arr) {
+        sketch.increment(fingerprint);
+        Entry entry = entries.get(fingerprint);
+        if (entry != null && Arrays.equals(entry.input(), arr)) {
+            hits++;
+            return entry.sorted();
+        }
+        misses++;
+        return null;
+    }
+
+    private synchronized void offer(long fingerprint, Entry entry) {
+        if (entries.containsKey(fingerprint)) {
+            // Another thread cached it meanwhile, or a colliding content holds the slot
+            return;
+        }
+        // Pick the least recently used victims that make room, if the candidate beats them
+        long needed = weight + entry.weight() - maxBytes;
+        int frequency = sketch.frequency(fingerprint);
+        Iterator<Map.Entry<Long, Entry>> victims = entries.entrySet().iterator();
+        long freed = 0;
+        int count = 0;
+        while (freed < needed && victims.hasNext()) {
+            Map.Entry<Long, Entry> victim = victims.next();
+            if (sketch.frequency(victim.getKey()) >= frequency) {
+                return;
+            }
+            freed += victim.getValue().weight();
+            count++;
+        }
+        Iterator<Entry> evicted = entries.values().iterator();
+        for (int i = 0; i < count; i++) {
+            weight -= evicted.next().weight();
+            evicted.remove();
+        }
+        entries.put(fingerprint, entry);
+        weight += entry.weight();
+    }
+
+    /** Bytes an entry for an array of the given length weighs: the input and the sorted copy. */
+    private static long weightOf(int length) {
+        return 2L * Integer.BYTES * length;
+    }
+
+    /**
+     * Returns the xxHash64 (seed 0) of the array's contents as little-endian bytes.
+     */
+    public static long fingerprint(int[] arr) {
+        int n = arr.length;
+        int i = 0;
+        long hash;
+        if (n >= 8) {
+            long v1 = P1 + P2;
+            long v2 = P2;
+            long v3 = 0;
+            long v4 = -P1;
+            for (; i + 8 <= n; i += 8) {
+                v1 = round(v1, lane(arr, i));
+                v2 = round(v2, lane(arr, i + 2));
+                v3 = round(v3, lane(arr, i + 4));
+                v4 = round(v4, lane(arr, i + 6));
+            }
+            hash = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7) + Long.rotateLeft(v3, 12)
+                    + Long.rotateLeft(v4, 18);
+            hash = mergeRound(hash, v1);
+            hash = mergeRound(hash, v2);
+            hash = mergeRound(hash, v3);
+            hash = mergeRound(hash, v4);
+        } else {
+            hash = P5;
+        }
+        hash += (long) n * Integer.BYTES;
+        for (; i + 2 <= n; i += 2) {
+            hash ^= round(0, lane(arr, i));
+            hash = Long.rotateLeft(hash, 27) * P1 + P4;
+        }
+        if (i < n) {
+            hash ^= (arr[i] & 0xFFFFFFFFL) * P1;
+            hash = Long.rotateLeft(hash, 23) * P2 + P3;
+        }
+        hash ^= hash >>> 33;
+        hash *= P2;
+        hash ^= hash >>> 29;
+        hash *= P3;
+        hash ^= hash >>> 32;
+        return hash;
+    }
+
+    private static long lane(int[] arr, int i) {
+        return (arr[i] & 0xFFFFFFFFL) | ((long) arr[i + 1] << 32);
+    }
+
+    private static long round(long acc, long input) {
+        return Long.rotateLeft(acc + input * P2, 31) * P1;
+    }
+
+    private static long mergeRound(long hash, long v) {
+        return (hash ^ round(0, v)) * P1 + P4;
+    }
+
+    /** Lookups answered from the cache. */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /** Lookups that had to sort. */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /** Number of cached arrays. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Total weight of the cached arrays in bytes. */
+    public synchronized long weightBytes() {
+        return weight;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Drops every entry. The hit and miss counts are kept.
+     */
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("SortedArrayCache[%d arrays, %,d of %,d bytes, %d hits, %d misses]",
+                entries.size(), weight, maxBytes, hits, misses);
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters, four per key, estimating how often each
+     * fingerprint was looked up. All counters are halved after every RESET_INTERVAL
+     * increments, so old popularity fades.
+     */
+    private static final class FrequencySketch {
+
+        private static final int WIDTH = 1 << 10;
+        private static final int RESET_INTERVAL = 10 * WIDTH;
+        private static final int MAX_COUNT = 15;
+
+        private final byte[][] rows = new byte[4][WIDTH];
+        private int increments;
+
+        void increment(long key) {
+            for (int row = 0; row < rows.length; row++) {
+                int slot = slot(key, row);
+                if (rows[row][slot] < MAX_COUNT) {
+                    rows[row][slot]++;
+                }
+            }
+            if (++increments == RESET_INTERVAL) {
+                for (byte[] counters : rows) {
+                    for (int i = 0; i < counters.length; i++) {
+                        counters[i] >>= 1;
+                    }
+                }
+                increments = 0;
+            }
+        }
+
+        int frequency(long key) {
+            int frequency = MAX_COUNT;
+            for (int row = 0; row < rows.length; row++) {
+                frequency = Math.min(frequency, rows[row][slot(key, row)]);
+            }
+            return frequency;
+        }
+
+        private static int slot(long key, int row) {
+            // Each row takes a different 16-bit slice of the (already well mixed) fingerprint
+            return (int) (key >>> (16 * row)) & (WIDTH - 1);
+        }
+    }
+}
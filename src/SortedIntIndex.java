@@ -0,0 +1,300 @@
+/* File: SortedIntIndex.java */
+import java.util.Arrays;
+
+/**
+ * Read-only search index over a sorted int[], built once and then queried many times.
+ * Sortedness is verified once when the index is built instead of on every lookup.
+ * <p>
+ * Two memory layouts are supported:
+ * <ul>
+ *     <li>SORTED: the plain sorted array, searched with a branchless lower bound. Batch
+ *     queries are interleaved in groups so the cache misses of several keys overlap.</li>
+ *     <li>EYTZINGER: the array stored in breadth-first (heap) order, so the first levels
+ *     of every search share a few cache lines. Costs an extra int per element to map
+ *     results back to sorted positions.</li>
+ * </ul>
+ * All positions returned are positions in the sorted array, whatever the layout.
+ */
+public final class SortedIntIndex {
+
+    /**
+     * Memory layout of the index.
+     */
+    public enum Layout {
+        SORTED,
+        EYTZINGER
+    }
+
+    /** Number of keys searched in lockstep by the batch methods of the SORTED layout. */
+    private static final int BATCH_GROUP = 8;
+
+    private final Layout layout;
+    private final int size;
+    /** SORTED: the sorted keys. EYTZINGER: keys in BFS order, 1-based (slot 0 unused). */
+    private final int[] keys;
+    /** EYTZINGER only: sorted position of every BFS slot, with slot 0 mapping to size. */
+    private final int[] positions;
+
+    private SortedIntIndex(Layout layout, int size, int[] keys, int[] positions) {
+        this.layout = layout;
+        this.size = size;
+        this.keys = keys;
+        this.positions = positions;
+    }
+
+    /**
+     * Builds a SORTED index. The array is used as is (not copied) and must not be
+     * modified afterwards.
+     *
+     * @param sorted keys in non-decreasing order
+     * @throws IllegalArgumentException if the array is not sorted
+     */
+    public static SortedIntIndex of(int[] sorted) {
+        return of(sorted, Layout.SORTED);
+    }
+
+    /**
+     * Builds an index with the given layout. For SORTED the array is used as is (not
+     * copied) and must not be modified afterwards.
+     *
+     * @param sorted keys in non-decreasing order
+     * @param layout the memory layout of the index
+     * @throws IllegalArgumentException if the array is not sorted
+     */
+    public static SortedIntIndex of(int[] sorted, Layout layout) {
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] < sorted[i - 1]) {
+                throw new IllegalArgumentException("Array is not sorted at index " + i);
+            }
+        }
+        if (layout == Layout.SORTED) {
+            return new SortedIntIndex(layout, sorted.length, sorted, null);
+        }
+        int n = sorted.length;
+        int[] bfs = new int[n + 1];
+        int[] positions = new int[n + 1];
+        positions[0] = n;
+        buildEytzinger(sorted, bfs, positions, 0, 1);
+        return new SortedIntIndex(layout, n, bfs, positions);
+    }
+
+    /**
+     * Fills the BFS slots with an in-order walk of the implicit tree rooted at slot k;
+     * returns the next sorted position to place.
+     */
+    private static int buildEytzinger(int[] sorted, int[] bfs, int[] positions, int i, int k) {
+        if (k < bfs.length) {
+            i = buildEytzinger(sorted, bfs, positions, i, 2 * k);
+            bfs[k] = sorted[i];
+            positions[k] = i;
+            i = buildEytzinger(sorted, bfs, positions, i + 1, 2 * k + 1);
+        }
+        return i;
+    }
+
+    public Layout getLayout() {
+        return layout;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the first position whose key is not less than key, or size() if there is none.
+     */
+    public int lowerBound(int key) {
+        if (layout == Layout.SORTED) {
+            return sortedLowerBound(key);
+        }
+        return positions[eytzingerSlot(key, false)];
+    }
+
+    /**
+     * Returns the first position whose key is greater than key, or size() if there is none.
+     */
+    public int upperBound(int key) {
+        if (layout == Layout.SORTED) {
+            return sortedUpperBound(key);
+        }
+        return positions[eytzingerSlot(key, true)];
+    }
+
+    /**
+     * Returns {lowerBound(key), upperBound(key)}: the half-open range of positions holding key.
+     */
+    public int[] equalRange(int key) {
+        return new int[] {lowerBound(key), upperBound(key)};
+    }
+
+    /**
+     * Returns the position of the first occurrence of key, or -1 if it is not present.
+     */
+    public int indexOf(int key) {
+        if (layout == Layout.SORTED) {
+            int position = sortedLowerBound(key);
+            return position < size && keys[position] == key ? position : -1;
+        }
+        int slot = eytzingerSlot(key, false);
+        return slot != 0 && keys[slot] == key ? positions[slot] : -1;
+    }
+
+    /**
+     * Returns the key at the given sorted position.
+     */
+    public int keyAt(int position) {
+        if (layout == Layout.SORTED) {
+            return keys[position];
+        }
+        // Sorted position -> BFS slot is not stored, so walk down the tree instead
+        int k = 1;
+        while (positions[k] != position) {
+            k = 2 * k + (positions[k] < position ? 1 : 0);
+        }
+        return keys[k];
+    }
+
+    /**
+     * Batch version of lowerBound.
+     *
+     * @param queries the keys to look up
+     * @return the lower bound of every key, in query order
+     */
+    public int[] lowerBounds(int[] queries) {
+        int[] result = new int[queries.length];
+        if (layout == Layout.SORTED) {
+            sortedBounds(queries, result, false);
+        } else {
+            for (int q = 0; q < queries.length; q++) {
+                result[q] = lowerBound(queries[q]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Batch version of upperBound.
+     *
+     * @param queries the keys to look up
+     * @return the upper bound of every key, in query order
+     */
+    public int[] upperBounds(int[] queries) {
+        int[] result = new int[queries.length];
+        if (layout == Layout.SORTED) {
+            sortedBounds(queries, result, true);
+        } else {
+            for (int q = 0; q < queries.length; q++) {
+                result[q] = upperBound(queries[q]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Batch version of indexOf.
+     *
+     * @param queries the keys to look up
+     * @return the position of the first occurrence of every key, or -1, in query order
+     */
+    public int[] indexOf(int[] queries) {
+        if (layout == Layout.EYTZINGER) {
+            int[] result = new int[queries.length];
+            for (int q = 0; q < queries.length; q++) {
+                result[q] = indexOf(queries[q]);
+            }
+            return result;
+        }
+        int[] result = lowerBounds(queries);
+        for (int q = 0; q < queries.length; q++) {
+            int position = result[q];
+            if (position == size || keys[position] != queries[q]) {
+                result[q] = -1;
+            }
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // EYTZINGER layout
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Walks down the BFS tree going right whenever the slot's key is less than key (or
+     * not greater, for the upper bound). The bound is the last slot where we went left,
+     * found by stripping the trailing right turns (1 bits) plus one more bit; 0 means
+     * every key compared less.
+     */
+    private int eytzingerSlot(int key, boolean upper) {
+        int k = 1;
+        while (k <= size) {
+            int probe = keys[k];
+            k = 2 * k + ((upper ? probe <= key : probe < key) ? 1 : 0);
+        }
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    // ---------------------------------------------------------------------------------
+    // SORTED layout
+    // ---------------------------------------------------------------------------------
+
+    private int sortedLowerBound(int key) {
+        if (size == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = size;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = keys[base + half] < key ? base + half : base;
+            n -= half;
+        }
+        return base + (keys[base] < key ? 1 : 0);
+    }
+
+    private int sortedUpperBound(int key) {
+        if (size == 0) {
+            return 0;
+        }
+        int base = 0;
+        int n = size;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = keys[base + half] <= key ? base + half : base;
+            n -= half;
+        }
+        return base + (keys[base] <= key ? 1 : 0);
+    }
+
+    /**
+     * The branchless search takes the same number of steps for every key, so a group
+     * of keys can be advanced in lockstep, letting their memory loads overlap.
+     */
+    private void sortedBounds(int[] queries, int[] result, boolean upper) {
+        if (size == 0) {
+            return;
+        }
+        int[] base = new int[BATCH_GROUP];
+        int q = 0;
+        for (; q + BATCH_GROUP <= queries.length; q += BATCH_GROUP) {
+            Arrays.fill(base, 0);
+            int n = size;
+            while (n > 1) {
+                int half = n >>> 1;
+                for (int g = 0; g < BATCH_GROUP; g++) {
+                    int key = queries[q + g];
+                    int probe = keys[base[g] + half];
+                    base[g] = (upper ? probe <= key : probe < key) ? base[g] + half : base[g];
+                }
+                n -= half;
+            }
+            for (int g = 0; g < BATCH_GROUP; g++) {
+                int key = queries[q + g];
+                int last = keys[base[g]];
+                result[q + g] = base[g] + ((upper ? last <= key : last < key) ? 1 : 0);
+            }
+        }
+        for (; q < queries.length; q++) {
+            result[q] = upper ? sortedUpperBound(queries[q]) : sortedLowerBound(queries[q]);
+        }
+    }
+}
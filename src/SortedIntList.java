@@ -0,0 +1,458 @@
+/* File: SortedIntList.java */
+import java.util.Arrays;
+
+/**
+ * Mutable sorted multiset of ints with rank / select, for read-mostly data that receives
+ * a trickle of updates. Unlike re-sorting the whole array (or rebuilding a
+ * {@link SortedIntIndex}) after every change, a point insert or delete costs
+ * O(log n + B) element moves.
+ * <p>
+ * The values are kept as a blocked sorted array: a list of sorted int[] blocks of about
+ * B = load values each (split at 2 * load, merged below load / 2), plus the maximum of
+ * every block for a binary search to the right block. Positions are found from the
+ * prefix sums of the block lengths, rebuilt lazily on the first rank query after a
+ * change.
+ * <p>
+ * append adds values without ordering them. They are kept in a buffer and merged in
+ * bulk on the next query: one by one if there are few, otherwise with a single linear
+ * merge of the sorted buffer into all values.
+ */
+public final class SortedIntList {
+
+    /** Default block size B. */
+    public static final int DEFAULT_LOAD = 1024;
+
+    private final int load;
+    private int[][] blocks = new int[0][];
+    private int[] lengths = new int[0];
+    private int[] maxes = new int[0];
+    private int blockCount;
+    private int size;
+
+    /** offsets[b] is the number of values in blocks before b; stale when offsetsValid is false. */
+    private int[] offsets = new int[1];
+    private boolean offsetsValid = true;
+
+    private int[] pending = new int[16];
+    private int pendingCount;
+
+    /**
+     * Creates an empty list with the default block size.
+     */
+    public SortedIntList() {
+        this(DEFAULT_LOAD);
+    }
+
+    /**
+     * Creates an empty list.
+     *
+     * @param load block size B, at least 4
+     */
+    public SortedIntList(int load) {
+        if (load < 4) {
+            throw new IllegalArgumentException("Block size must be at least 4, got " + load);
+        }
+        this.load = load;
+    }
+
+    /**
+     * Creates a list holding the given values (in any order). The array is not modified.
+     */
+    public static SortedIntList of(int... values) {
+        SortedIntList list = new SortedIntList();
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        list.build(sorted, sorted.length);
+        return list;
+    }
+
+    /**
+     * Number of values, including appended values that are not merged yet.
+     */
+    public int size() {
+        return size + pendingCount;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Updates
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Inserts one value at its sorted position.
+     */
+    public void add(int value) {
+        if (blockCount == 0) {
+            insertBlock(0, new int[] {value}, 1);
+            size++;
+            return;
+        }
+        int b = blockOfUpper(value);
+        if (b == blockCount) {
+            b--;
+        }
+        int[] block = blocks[b];
+        int length = lengths[b];
+        int position = upperBound(block, length, value);
+        if (length == block.length) {
+            block = Arrays.copyOf(block, Math.min(2 * load, 2 * length));
+            blocks[b] = block;
+        }
+        System.arraycopy(block, position, block, position + 1, length - position);
+        block[position] = value;
+        lengths[b] = ++length;
+        maxes[b] = block[length - 1];
+        size++;
+        offsetsValid = false;
+        if (length >= 2 * load) {
+            split(b);
+        }
+    }
+
+    /**
+     * Adds a value without ordering it yet; it is merged on the next query.
+     */
+    public void append(int value) {
+        if (pendingCount == pending.length) {
+            pending = Arrays.copyOf(pending, 2 * pendingCount);
+        }
+        pending[pendingCount++] = value;
+    }
+
+    /**
+     * Adds all values without ordering them yet; they are merged on the next query.
+     */
+    public void appendAll(int[] values) {
+        if (pendingCount + values.length > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(2 * pending.length, pendingCount + values.length));
+        }
+        System.arraycopy(values, 0, pending, pendingCount, values.length);
+        pendingCount += values.length;
+    }
+
+    /**
+     * Removes one occurrence of value.
+     *
+     * @return whether the value was present
+     */
+    public boolean remove(int value) {
+        flush();
+        int b = blockOfLower(value);
+        if (b == blockCount) {
+            return false;
+        }
+        int[] block = blocks[b];
+        int length = lengths[b];
+        int position = lowerBound(block, length, value);
+        if (block[position] != value) {
+            return false;
+        }
+        System.arraycopy(block, position + 1, block, position, length - position - 1);
+        lengths[b] = --length;
+        size--;
+        offsetsValid = false;
+        if (length == 0) {
+            removeBlock(b);
+        } else {
+            maxes[b] = block[length - 1];
+            if (length < load / 2 && blockCount > 1) {
+                join(b < blockCount - 1 ? b : b - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        blocks = new int[0][];
+        lengths = new int[0];
+        maxes = new int[0];
+        blockCount = 0;
+        size = 0;
+        pendingCount = 0;
+        offsetsValid = false;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Queries
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Returns the value at the given sorted position (select).
+     *
+     * @throws IndexOutOfBoundsException if position is not in 0..size()-1
+     */
+    public int get(int position) {
+        flush();
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of range for size " + size);
+        }
+        ensureOffsets();
+        // Last block whose offset is not greater than position
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return blocks[low][position - offsets[low]];
+    }
+
+    /**
+     * Returns the number of values less than value (rank), which is also the position of
+     * its first occurrence if present.
+     */
+    public int rank(int value) {
+        flush();
+        int b = blockOfLower(value);
+        if (b == blockCount) {
+            return size;
+        }
+        ensureOffsets();
+        return offsets[b] + lowerBound(blocks[b], lengths[b], value);
+    }
+
+    /**
+     * Returns the number of values not greater than value.
+     */
+    public int upperRank(int value) {
+        flush();
+        int b = blockOfUpper(value);
+        if (b == blockCount) {
+            return size;
+        }
+        ensureOffsets();
+        return offsets[b] + upperBound(blocks[b], lengths[b], value);
+    }
+
+    /**
+     * Returns the number of occurrences of value.
+     */
+    public int count(int value) {
+        return upperRank(value) - rank(value);
+    }
+
+    public boolean contains(int value) {
+        flush();
+        int b = blockOfLower(value);
+        return b < blockCount && blocks[b][lowerBound(blocks[b], lengths[b], value)] == value;
+    }
+
+    /**
+     * Returns the position of the first occurrence of value, or -1 if it is not present.
+     */
+    public int indexOf(int value) {
+        return contains(value) ? rank(value) : -1;
+    }
+
+    /**
+     * Returns all values in ascending order.
+     */
+    public int[] toArray() {
+        flush();
+        int[] result = new int[size];
+        for (int b = 0, k = 0; b < blockCount; b++) {
+            System.arraycopy(blocks[b], 0, result, k, lengths[b]);
+            k += lengths[b];
+        }
+        return result;
+    }
+
+    // ---------------------------------------------------------------------------------
+    // Internals
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * Merges the appended values. Inserting one value moves about B / 2 values, so once
+     * there are more than 2 * size / B of them a linear merge of everything is cheaper.
+     */
+    private void flush() {
+        if (pendingCount == 0) {
+            return;
+        }
+        int count = pendingCount;
+        pendingCount = 0;
+        if ((long) count * load / 2 < size) {
+            for (int i = 0; i < count; i++) {
+                add(pending[i]);
+            }
+        } else {
+            int[] appended = Arrays.copyOf(pending, count);
+            Arrays.sort(appended);
+            int[] current = toArray();
+            int[] merged = new int[current.length + count];
+            int i = 0, j = 0, k = 0;
+            while (i < current.length && j < count) {
+                merged[k++] = current[i] <= appended[j] ? current[i++] : appended[j++];
+            }
+            System.arraycopy(current, i, merged, k, current.length - i);
+            System.arraycopy(appended, j, merged, k + current.length - i, count - j);
+            build(merged, merged.length);
+        }
+        if (pending.length > 1024) {
+            pending = new int[16];
+        }
+    }
+
+    /**
+     * Replaces the content with the first n values of sorted, cut into blocks of load values.
+     */
+    private void build(int[] sorted, int n) {
+        int count = (n + load - 1) / load;
+        blocks = new int[Math.max(4, count)][];
+        lengths = new int[blocks.length];
+        maxes = new int[blocks.length];
+        blockCount = count;
+        for (int b = 0; b < count; b++) {
+            int from = b * load;
+            int to = Math.min(n, from + load);
+            blocks[b] = Arrays.copyOfRange(sorted, from, to);
+            lengths[b] = to - from;
+            maxes[b] = sorted[to - 1];
+        }
+        size = n;
+        offsetsValid = false;
+    }
+
+    /**
+     * Returns the first block whose maximum is not less than value, or blockCount.
+     */
+    private int blockOfLower(int value) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxes[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the first block whose maximum is greater than value, or blockCount.
+     */
+    private int blockOfUpper(int value) {
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxes[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] block, int length, int value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] block, int length, int value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (block[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void ensureOffsets() {
+        if (offsetsValid) {
+            return;
+        }
+        if (offsets.length < blockCount + 1) {
+            offsets = new int[blocks.length + 1];
+        }
+        int sum = 0;
+        for (int b = 0; b < blockCount; b++) {
+            offsets[b] = sum;
+            sum += lengths[b];
+        }
+        offsets[blockCount] = sum;
+        offsetsValid = true;
+    }
+
+    /**
+     * Splits block b into two halves.
+     */
+    private void split(int b) {
+        int[] block = blocks[b];
+        int length = lengths[b];
+        int half = length >>> 1;
+        int[] upper = Arrays.copyOfRange(block, half, Math.max(length, half + load));
+        lengths[b] = half;
+        maxes[b] = block[half - 1];
+        insertBlock(b + 1, upper, length - half);
+    }
+
+    /**
+     * Joins blocks b and b + 1, splitting the result again if it became too large.
+     */
+    private void join(int b) {
+        int leftLength = lengths[b];
+        int rightLength = lengths[b + 1];
+        int[] joined = Arrays.copyOf(blocks[b], Math.max(leftLength + rightLength, load));
+        System.arraycopy(blocks[b + 1], 0, joined, leftLength, rightLength);
+        blocks[b] = joined;
+        lengths[b] = leftLength + rightLength;
+        maxes[b] = maxes[b + 1];
+        removeBlock(b + 1);
+        if (lengths[b] >= 2 * load) {
+            split(b);
+        }
+    }
+
+    private void insertBlock(int b, int[] block, int length) {
+        if (blockCount == blocks.length) {
+            int capacity = Math.max(4, 2 * blockCount);
+            blocks = Arrays.copyOf(blocks, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            maxes = Arrays.copyOf(maxes, capacity);
+        }
+        System.arraycopy(blocks, b, blocks, b + 1, blockCount - b);
+        System.arraycopy(lengths, b, lengths, b + 1, blockCount - b);
+        System.arraycopy(maxes, b, maxes, b + 1, blockCount - b);
+        blocks[b] = block;
+        lengths[b] = length;
+        maxes[b] = block[length - 1];
+        blockCount++;
+        offsetsValid = false;
+    }
+
+    private void removeBlock(int b) {
+        System.arraycopy(blocks, b + 1, blocks, b, blockCount - b - 1);
+        System.arraycopy(lengths, b + 1, lengths, b, blockCount - b - 1);
+        System.arraycopy(maxes, b + 1, maxes, b, blockCount - b - 1);
+        blocks[--blockCount] = null;
+        offsetsValid = false;
+    }
+}
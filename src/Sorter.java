@@ -0,0 +1,40 @@
+/* File: Sorter.java */
+
+/**
+ * A headless sorting engine. Engines are looked up through {@link AlgorithmRegistry};
+ * third-party engines can be added by listing their class in
+ * META-INF/services/Sorter.
+ */
+public interface Sorter {
+
+    /**
+     * The algorithm family this engine implements.
+     */
+    SortingAlgorithm algorithm();
+
+    /**
+     * Unique engine name, e.g. "INTRO_SORT".
+     */
+    String name();
+
+    Capabilities capabilities();
+
+    /**
+     * Sorts the array in ascending order.
+     *
+     * @param arr the array to sort
+     */
+    void sort(int[] arr);
+
+    /**
+     * Sorts the array in ascending order, polling the token and reporting progress to it.
+     * A cancelled sort may return early with the array in any order; callers check the
+     * token afterwards. Engines that do not override this ignore the token.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    default void sort(int[] arr, CancellationToken token) {
+        sort(arr);
+    }
+}
@@ -1,9 +1,45 @@
 public enum SortingAlgorithm {
-    SELECTION_SORT,
-    INSERTION_SORT,
-    QUICK_SORT,
-    MERGE_SORT,
-    RADIX_SORT,
-    LINEAR_SEARCH,
-    BINARY_SEARCH
+    SELECTION_SORT("Selection Sort", "O(n²) - Quadratic time"),
+    INSERTION_SORT("Insertion Sort", "O(n²) - Quadratic time (O(n) for nearly sorted arrays)"),
+    QUICK_SORT("Quick Sort", "O(n log n) average, O(n²) worst case"),
+    MERGE_SORT("Merge Sort", "O(n log n) - Consistent performance"),
+    RADIX_SORT("Radix Sort", "O(d * n) where d is the number of digits"),
+    LINEAR_SEARCH("Linear Search", "O(n) - Linear time"),
+    BINARY_SEARCH("Binary Search", "O(log n) - Logarithmic time"),
+    AUTO("Auto Sort", "Depends on the engine chosen for the input");
+
+    private final String displayName;
+    private final String timeComplexity;
+
+    SortingAlgorithm(String displayName, String timeComplexity) {
+        this.displayName = displayName;
+        this.timeComplexity = timeComplexity;
+    }
+
+    /**
+     * The name shown in the UI, e.g. "Quick Sort".
+     */
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getTimeComplexity() {
+        return timeComplexity;
+    }
+
+    public boolean isSearch() {
+        return this == LINEAR_SEARCH || this == BINARY_SEARCH;
+    }
+
+    /**
+     * Returns the constant with the given display name, or null if there is none.
+     */
+    public static SortingAlgorithm fromDisplayName(String displayName) {
+        for (SortingAlgorithm algorithm : values()) {
+            if (algorithm.displayName.equals(displayName)) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
 }
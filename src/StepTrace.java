@@ -0,0 +1,233 @@
+/* File: StepTrace.java */
+import java.util.Arrays;
+
+/**
+ * Compact log of the steps an algorithm took, recorded at full speed for later replay
+ * by a {@link TracePlayer}. Recording costs a few int stores per step: no UI calls,
+ * no copies of the array and no sleeping.
+ * <p>
+ * Every step is four ints (operation and up to three operands) in a ring buffer of
+ * fixed capacity. The buffer starts small and doubles as steps come in, so a short
+ * recording only costs what it uses. When the buffer is full the oldest step is dropped
+ * and applied to the base array, which always holds the array as it was before the
+ * oldest retained step.
+ * Writes record the value they overwrite, so every step can be undone as well as redone.
+ * Steps are numbered from 0 in recording order; after an overflow the retained ones are
+ * firstStep() .. recorded() - 1.
+ */
+public final class StepTrace {
+
+    /** Default number of retained steps (up to 16 MB). */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /** Number of steps the buffer holds before it first grows (16 KB). */
+    private static final int INITIAL_STEPS = 1 << 10;
+
+    /**
+     * Kind of step.
+     */
+    public enum Op {
+        /** Elements a and b were compared. */
+        COMPARE,
+        /** Elements a and b were exchanged. */
+        SWAP,
+        /** Element a was set to b, overwriting c. */
+        WRITE,
+        /** Element a was compared with the search target. */
+        PROBE,
+        /** The range a..b (inclusive) was marked with the Mark whose ordinal is c. */
+        MARK
+    }
+
+    /**
+     * Meaning of a MARK step.
+     */
+    public enum Mark {
+        /** The subarray being worked on. */
+        RANGE,
+        /** The pivot of a partition. */
+        PIVOT,
+        /** Elements in their final position. */
+        SORTED,
+        /** The element a search was looking for. */
+        FOUND
+    }
+
+    private static final Op[] OPS = Op.values();
+    private static final Mark[] MARKS = Mark.values();
+    private static final int STRIDE = 4;
+
+    private final int[] base;
+    private int[] steps;
+    private final int capacity;
+    private long recorded;
+
+    /**
+     * One recorded step.
+     *
+     * @param index position of the step in the trace
+     */
+    public record Step(long index, Op op, int a, int b, int c) {
+
+        /** For MARK steps, the kind of mark. */
+        public Mark mark() {
+            return MARKS[c];
+        }
+
+        @Override
+        public String toString() {
+            return switch (op) {
+                case COMPARE -> "Compare index " + a + " with index " + b;
+                case SWAP -> "Swap index " + a + " and index " + b;
+                case WRITE -> "Write " + b + " at index " + a;
+                case PROBE -> "Check index " + a;
+                case MARK -> "Mark [" + a + ".." + b + "] " + mark().name().toLowerCase();
+            };
+        }
+    }
+
+    /**
+     * Creates a trace of the default capacity.
+     *
+     * @param initial the array before the first step; copied
+     */
+    public StepTrace(int[] initial) {
+        this(initial, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initial  the array before the first step; copied
+     * @param capacity number of steps retained
+     * @throws IllegalArgumentException if capacity is not positive or too large for one array
+     */
+    public StepTrace(int[] initial, int capacity) {
+        if (capacity < 1 || capacity > Integer.MAX_VALUE / STRIDE) {
+            throw new IllegalArgumentException("Capacity must be in 1.." + Integer.MAX_VALUE / STRIDE
+                    + ", got " + capacity);
+        }
+        this.base = initial.clone();
+        this.capacity = capacity;
+        this.steps = new int[Math.min(capacity, INITIAL_STEPS) * STRIDE];
+    }
+
+    public void compare(int i, int j) {
+        append(Op.COMPARE, i, j, 0);
+    }
+
+    public void swap(int i, int j) {
+        append(Op.SWAP, i, j, 0);
+    }
+
+    /**
+     * Records arr[index] = value, where old is the value it replaced.
+     */
+    public void write(int index, int value, int old) {
+        append(Op.WRITE, index, value, old);
+    }
+
+    public void probe(int index) {
+        append(Op.PROBE, index, 0, 0);
+    }
+
+    /**
+     * Marks low..high (inclusive).
+     */
+    public void mark(int low, int high, Mark mark) {
+        append(Op.MARK, low, high, mark.ordinal());
+    }
+
+    private void append(Op op, int a, int b, int c) {
+        if (recorded >= capacity) {
+            // Fold the step about to be overwritten into the base array
+            apply(base, (int) (recorded % capacity) * STRIDE, true);
+        }
+        int at = (int) (recorded % capacity) * STRIDE;
+        if (at == steps.length) {
+            // Not wrapped yet, so the buffer is below capacity
+            steps = Arrays.copyOf(steps, (int) Math.min((long) capacity * STRIDE, 2L * steps.length));
+        }
+        steps[at] = op.ordinal();
+        steps[at + 1] = a;
+        steps[at + 2] = b;
+        steps[at + 3] = c;
+        recorded++;
+    }
+
+    /** Number of steps ever recorded; the index the next step gets. */
+    public long recorded() {
+        return recorded;
+    }
+
+    /** Index of the oldest retained step. */
+    public long firstStep() {
+        return Math.max(0, recorded - capacity);
+    }
+
+    /** Number of retained steps. */
+    public int size() {
+        return (int) (recorded - firstStep());
+    }
+
+    public int length() {
+        return base.length;
+    }
+
+    /**
+     * Returns a copy of the array as it was before firstStep().
+     */
+    public int[] baseArray() {
+        return base.clone();
+    }
+
+    /**
+     * Returns the step with the given index.
+     *
+     * @throws IndexOutOfBoundsException if the step is not retained
+     */
+    public Step step(long index) {
+        int at = offset(index);
+        return new Step(index, OPS[steps[at]], steps[at + 1], steps[at + 2], steps[at + 3]);
+    }
+
+    /**
+     * Applies step index to arr (redo).
+     */
+    void redo(int[] arr, long index) {
+        apply(arr, offset(index), true);
+    }
+
+    /**
+     * Reverts step index on arr, which must be the state right after it (undo).
+     */
+    void undo(int[] arr, long index) {
+        apply(arr, offset(index), false);
+    }
+
+    private int offset(long index) {
+        if (index < firstStep() || index >= recorded) {
+            throw new IndexOutOfBoundsException("Step " + index + " not in [" + firstStep() + ", " + recorded + ")");
+        }
+        return (int) (index % capacity) * STRIDE;
+    }
+
+    private void apply(int[] arr, int at, boolean forward) {
+        int a = steps[at + 1];
+        int b = steps[at + 2];
+        switch (OPS[steps[at]]) {
+            case SWAP -> {
+                int temp = arr[a];
+                arr[a] = arr[b];
+                arr[b] = temp;
+            }
+            case WRITE -> arr[a] = forward ? b : steps[at + 3];
+            default -> {
+                // COMPARE, PROBE and MARK do not change the array
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "StepTrace[" + size() + " of " + recorded + " steps, " + base.length + " elements]";
+    }
+}
@@ -0,0 +1,619 @@
+/* File: TimSort.java */
+
+/**
+ * Run-adaptive, stable merge sort for int[] in the style of TimSort.
+ * <ul>
+ *     <li>The input is scanned for natural runs: non-descending runs are kept, strictly
+ *     descending runs are reversed in place.</li>
+ *     <li>Runs shorter than minRun (16..32) are extended with binary insertion sort.</li>
+ *     <li>Runs are pushed on a stack and merged while the stack invariants
+ *     runLen[i-2] > runLen[i-1] + runLen[i] and runLen[i-1] > runLen[i] are violated,
+ *     which keeps merges balanced.</li>
+ *     <li>Merges first trim the parts of each run that are already in place, then switch
+ *     to galloping (exponential search) as soon as one run keeps winning.</li>
+ * </ul>
+ * Input made of a few presorted chunks therefore sorts in close to O(n) time, while
+ * random input stays O(n log n). The scratch buffer only grows as large as the shorter
+ * run of the biggest merge.
+ * <p>
+ * Comparisons are counted in locals and reported to {@link Metrics} once per run, merge
+ * or gallop; every merge reports its writes, and merges of at least MIN_TIMED_MERGE
+ * elements are timed under their merge level.
+ */
+public final class TimSort {
+
+    /** Inputs shorter than this are sorted with a single binary insertion sort. */
+    static final int MIN_MERGE = 32;
+    /** Initial number of consecutive wins before a merge switches to galloping. */
+    static final int MIN_GALLOP = 7;
+    /** Enough stack for any int-sized input given the run length invariants. */
+    private static final int MAX_STACK = 49;
+
+    private final int[] a;
+    private int[] tmp;
+    private int minGallop = MIN_GALLOP;
+
+    private final int[] runBase = new int[MAX_STACK];
+    private final int[] runLen = new int[MAX_STACK];
+    private int stackSize;
+
+    private TimSort(int[] a, int length) {
+        this.a = a;
+        this.tmp = new int[Math.min(length >>> 1, 256)];
+        if (Metrics.ENABLED) {
+            Metrics.allocated(4L * tmp.length);
+        }
+    }
+
+    /**
+     * Sorts the array in ascending order.
+     *
+     * @param arr the array to sort
+     */
+    public static void sort(int[] arr) {
+        sort(arr, 0, arr.length, CancellationToken.NONE);
+    }
+
+    /**
+     * Sorts the array in ascending order, checking the token whenever another
+     * CHECK_INTERVAL elements were scanned into runs. A cancelled sort returns early and
+     * leaves the array a permutation of the input.
+     *
+     * @param arr   the array to sort
+     * @param token polled for cancellation, and told the progress
+     */
+    public static void sort(int[] arr, CancellationToken token) {
+        sort(arr, 0, arr.length, token);
+    }
+
+    /**
+     * Sorts arr[lo, hi) in ascending order.
+     *
+     * @param arr the array to sort
+     * @param lo  the first index to sort, inclusive
+     * @param hi  the last index to sort, exclusive
+     */
+    public static void sort(int[] arr, int lo, int hi) {
+        sort(arr, lo, hi, CancellationToken.NONE);
+    }
+
+    private static void sort(int[] arr, int lo, int hi, CancellationToken token) {
+        int remaining = hi - lo;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, lo, hi);
+            binaryInsertionSort(arr, lo, hi, lo + initRunLen);
+            return;
+        }
+
+        TimSort ts = new TimSort(arr, remaining);
+        int minRun = minRunLength(remaining);
+        int total = remaining;
+        int nextCheck = 0;
+        do {
+            if (total - remaining >= nextCheck) {
+                if (token.checkpoint(total - remaining, total)) {
+                    return;
+                }
+                nextCheck = total - remaining + CancellationToken.CHECK_INTERVAL;
+            }
+            int runLength = countRunAndMakeAscending(arr, lo, hi);
+            if (runLength < minRun) {
+                int force = Math.min(remaining, minRun);
+                binaryInsertionSort(arr, lo, lo + force, lo + runLength);
+                runLength = force;
+            }
+            ts.pushRun(lo, runLength);
+            ts.mergeCollapse();
+            lo += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        ts.mergeForceCollapse();
+    }
+
+    /**
+     * Sorts arr[lo, hi) with binary insertion sort, given that arr[lo, start) is sorted.
+     * Elements are inserted after their equals, so the sort is stable.
+     */
+    static void binaryInsertionSort(int[] arr, int lo, int hi, int start) {
+        if (start == lo) {
+            start++;
+        }
+        long comparisons = 0;
+        long writes = 0;
+        for (; start < hi; start++) {
+            int pivot = arr[start];
+            int left = lo;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                comparisons++;
+                if (pivot < arr[mid]) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, start - left);
+            arr[left] = pivot;
+            writes += start - left + 1;
+        }
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(comparisons);
+            Metrics.writes(writes);
+        }
+    }
+
+    /**
+     * Returns the length of the run starting at lo. A strictly descending run is
+     * reversed so that every run returned is non-descending.
+     */
+    static int countRunAndMakeAscending(int[] arr, int lo, int hi) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (arr[runHi++] < arr[lo]) {
+            while (runHi < hi && arr[runHi] < arr[runHi - 1]) {
+                runHi++;
+            }
+            reverse(arr, lo, runHi);
+        } else {
+            while (runHi < hi && arr[runHi] >= arr[runHi - 1]) {
+                runHi++;
+            }
+        }
+        if (Metrics.ENABLED) {
+            // One comparison per step, plus the one that ended the run
+            Metrics.comparisons(runHi - lo - 1 + (runHi < hi ? 1 : 0));
+        }
+        return runHi - lo;
+    }
+
+    private static void reverse(int[] arr, int lo, int hi) {
+        if (Metrics.ENABLED) {
+            Metrics.swaps((hi - lo) / 2);
+        }
+        hi--;
+        while (lo < hi) {
+            int t = arr[lo];
+            arr[lo++] = arr[hi];
+            arr[hi--] = t;
+        }
+    }
+
+    /**
+     * Returns the minimum run length: n itself below MIN_MERGE, otherwise a value in
+     * [MIN_MERGE / 2, MIN_MERGE] such that n / minRun is close to a power of two.
+     */
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    private void pushRun(int base, int length) {
+        runBase[stackSize] = base;
+        runLen[stackSize] = length;
+        stackSize++;
+    }
+
+    /**
+     * Merges adjacent runs until the stack invariants hold again.
+     */
+    private void mergeCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                if (runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+            } else if (runLen[n] > runLen[n + 1]) {
+                break;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Merges all remaining runs, once the whole input has been scanned.
+     */
+    private void mergeForceCollapse() {
+        while (stackSize > 1) {
+            int n = stackSize - 2;
+            if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                n--;
+            }
+            mergeAt(n);
+        }
+    }
+
+    /**
+     * Merges the runs at stack positions i and i + 1.
+     */
+    private void mergeAt(int i) {
+        int base1 = runBase[i];
+        int len1 = runLen[i];
+        int base2 = runBase[i + 1];
+        int len2 = runLen[i + 1];
+        int merged = len1 + len2;
+        boolean timed = Metrics.ENABLED && merged >= Metrics.MIN_TIMED_MERGE;
+        long start = timed ? System.nanoTime() : 0;
+
+        runLen[i] = len1 + len2;
+        if (i == stackSize - 3) {
+            runBase[i + 1] = runBase[i + 2];
+            runLen[i + 1] = runLen[i + 2];
+        }
+        stackSize--;
+
+        // Elements of run1 not greater than run2's first element are already in place
+        int k = gallopRight(a[base2], a, base1, len1, 0);
+        base1 += k;
+        len1 -= k;
+        if (len1 == 0) {
+            return;
+        }
+        // Elements of run2 not less than run1's last element are already in place
+        len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1);
+        if (len2 == 0) {
+            return;
+        }
+
+        if (len1 <= len2) {
+            mergeLo(base1, len1, base2, len2);
+        } else {
+            mergeHi(base1, len1, base2, len2);
+        }
+        if (Metrics.ENABLED) {
+            // The shorter run is copied to tmp, then every element of both runs is placed once
+            Metrics.writes(Math.min(len1, len2) + (long) len1 + len2);
+            if (timed) {
+                Metrics.phase(Metrics.mergeLevel(merged), start);
+            }
+        }
+    }
+
+    /**
+     * Returns the leftmost position in arr[base, base + len) at which key could be
+     * inserted: everything before it is less than key. Starts at hint and gallops
+     * outwards before finishing with a binary search.
+     */
+    static int gallopLeft(int key, int[] arr, int base, int len, int hint) {
+        int lastOfs = 0;
+        int ofs = 1;
+        // The first probe, then one per gallop step and binary search step, plus the one ending the gallop
+        int comparisons = 2;
+        if (key > arr[base + hint]) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key > arr[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                comparisons++;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key <= arr[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                comparisons++;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+
+        // arr[base + lastOfs] < key <= arr[base + ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            comparisons++;
+            if (key > arr[base + m]) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(comparisons);
+        }
+        return ofs;
+    }
+
+    /**
+     * Returns the rightmost position in arr[base, base + len) at which key could be
+     * inserted: everything before it is less than or equal to key.
+     */
+    static int gallopRight(int key, int[] arr, int base, int len, int hint) {
+        int lastOfs = 0;
+        int ofs = 1;
+        int comparisons = 2;
+        if (key < arr[base + hint]) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && key < arr[base + hint - ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                comparisons++;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && key >= arr[base + hint + ofs]) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                comparisons++;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        // arr[base + lastOfs] <= key < arr[base + ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            comparisons++;
+            if (key < arr[base + m]) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(comparisons);
+        }
+        return ofs;
+    }
+
+    /**
+     * Merges two adjacent runs front to back, with the shorter first run copied to tmp.
+     * On entry a[base1] > a[base2] and the last element of run1 is greater than every
+     * element of run2.
+     */
+    private void mergeLo(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len1);
+        System.arraycopy(a, base1, tmp, 0, len1);
+        int cursor1 = 0;
+        int cursor2 = base2;
+        int dest = base1;
+
+        a[dest++] = a[cursor2++];
+        if (--len2 == 0) {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+            return;
+        }
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        long comparisons = 0;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            // One element at a time until one run wins minGallop times in a row
+            do {
+                comparisons++;
+                if (a[cursor2] < tmp[cursor1]) {
+                    a[dest++] = a[cursor2++];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest++] = tmp[cursor1++];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            // Galloping: copy whole stretches while it keeps paying off
+            do {
+                count1 = gallopRight(a[cursor2], tmp, cursor1, len1, 0);
+                if (count1 != 0) {
+                    System.arraycopy(tmp, cursor1, a, dest, count1);
+                    dest += count1;
+                    cursor1 += count1;
+                    len1 -= count1;
+                    if (len1 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest++] = a[cursor2++];
+                if (--len2 == 0) {
+                    break outer;
+                }
+
+                count2 = gallopLeft(tmp[cursor1], a, cursor2, len2, 0);
+                if (count2 != 0) {
+                    System.arraycopy(a, cursor2, a, dest, count2);
+                    dest += count2;
+                    cursor2 += count2;
+                    len2 -= count2;
+                    if (len2 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest++] = tmp[cursor1++];
+                if (--len1 == 1) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(comparisons);
+        }
+
+        if (len1 == 1) {
+            System.arraycopy(a, cursor2, a, dest, len2);
+            a[dest + len2] = tmp[cursor1];
+        } else {
+            System.arraycopy(tmp, cursor1, a, dest, len1);
+        }
+    }
+
+    /**
+     * Merges two adjacent runs back to front, with the shorter second run copied to tmp.
+     * Same entry conditions as mergeLo.
+     */
+    private void mergeHi(int base1, int len1, int base2, int len2) {
+        int[] a = this.a;
+        int[] tmp = ensureCapacity(len2);
+        System.arraycopy(a, base2, tmp, 0, len2);
+        int cursor1 = base1 + len1 - 1;
+        int cursor2 = len2 - 1;
+        int dest = base2 + len2 - 1;
+
+        a[dest--] = a[cursor1--];
+        if (--len1 == 0) {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+            return;
+        }
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+            return;
+        }
+
+        int minGallop = this.minGallop;
+        long comparisons = 0;
+        outer:
+        while (true) {
+            int count1 = 0;
+            int count2 = 0;
+
+            do {
+                comparisons++;
+                if (tmp[cursor2] < a[cursor1]) {
+                    a[dest--] = a[cursor1--];
+                    count1++;
+                    count2 = 0;
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                } else {
+                    a[dest--] = tmp[cursor2--];
+                    count2++;
+                    count1 = 0;
+                    if (--len2 == 1) {
+                        break outer;
+                    }
+                }
+            } while ((count1 | count2) < minGallop);
+
+            do {
+                count1 = len1 - gallopRight(tmp[cursor2], a, base1, len1, len1 - 1);
+                if (count1 != 0) {
+                    dest -= count1;
+                    cursor1 -= count1;
+                    len1 -= count1;
+                    System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                    if (len1 == 0) {
+                        break outer;
+                    }
+                }
+                a[dest--] = tmp[cursor2--];
+                if (--len2 == 1) {
+                    break outer;
+                }
+
+                count2 = len2 - gallopLeft(a[cursor1], tmp, 0, len2, len2 - 1);
+                if (count2 != 0) {
+                    dest -= count2;
+                    cursor2 -= count2;
+                    len2 -= count2;
+                    System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                    if (len2 <= 1) {
+                        break outer;
+                    }
+                }
+                a[dest--] = a[cursor1--];
+                if (--len1 == 0) {
+                    break outer;
+                }
+                minGallop--;
+            } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+            if (minGallop < 0) {
+                minGallop = 0;
+            }
+            minGallop += 2;
+        }
+        this.minGallop = Math.max(minGallop, 1);
+        if (Metrics.ENABLED) {
+            Metrics.comparisons(comparisons);
+        }
+
+        if (len2 == 1) {
+            dest -= len1;
+            cursor1 -= len1;
+            System.arraycopy(a, cursor1 + 1, a, dest + 1, len1);
+            a[dest] = tmp[cursor2];
+        } else {
+            System.arraycopy(tmp, 0, a, dest - (len2 - 1), len2);
+        }
+    }
+
+    /**
+     * Grows tmp, at least doubling it (capped at half the array), to hold minCapacity elements.
+     */
+    private int[] ensureCapacity(int minCapacity) {
+        if (tmp.length < minCapacity) {
+            int newSize = Math.max(minCapacity, Math.min(tmp.length * 2, a.length >>> 1));
+            tmp = new int[newSize];
+            if (Metrics.ENABLED) {
+                Metrics.allocated(4L * newSize);
+            }
+        }
+        return tmp;
+    }
+}
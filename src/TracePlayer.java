@@ -0,0 +1,164 @@
+/* File: TracePlayer.java */
+
+/**
+ * Replays a finished {@link StepTrace} without re-running the algorithm: forwards or
+ * backwards, at any speed, with random access to any retained step.
+ * <p>
+ * The player keeps its own copy of the array, positioned between two steps. Moving by
+ * one step redoes or undoes that step in O(1); seeking goes from the current position
+ * or from the base array, whichever is closer. The player does no rendering and owns
+ * no thread: a view calls {@link #update(long)} once per frame (e.g. from an
+ * AnimationTimer) and then draws {@link #array()} and {@link #lastStep()}.
+ */
+public final class TracePlayer {
+
+    /** Default playback speed in steps per second. */
+    public static final double DEFAULT_SPEED = 10;
+
+    private final StepTrace trace;
+    private final int[] array;
+    // Number of the next step to redo; the array holds the state before it
+    private long position;
+
+    private double stepsPerSecond = DEFAULT_SPEED;
+    private boolean playing;
+    private long lastUpdate;
+    private double owed;
+
+    /**
+     * @param trace a trace that is no longer being recorded
+     */
+    public TracePlayer(StepTrace trace) {
+        this.trace = trace;
+        this.array = trace.baseArray();
+        this.position = trace.firstStep();
+    }
+
+    public StepTrace trace() {
+        return trace;
+    }
+
+    /**
+     * Returns the array at the current position. Owned by the player: read it, do not
+     * modify or keep it.
+     */
+    public int[] array() {
+        return array;
+    }
+
+    /** Index of the next step; equals end() once everything has been replayed. */
+    public long position() {
+        return position;
+    }
+
+    /** First position that can be reached. */
+    public long start() {
+        return trace.firstStep();
+    }
+
+    /** Position after the last step. */
+    public long end() {
+        return trace.recorded();
+    }
+
+    /**
+     * Returns the step that led to the current position, or null at the start.
+     */
+    public StepTrace.Step lastStep() {
+        return position > start() ? trace.step(position - 1) : null;
+    }
+
+    /**
+     * Redoes the next step. Returns false at the end.
+     */
+    public boolean stepForward() {
+        if (position >= end()) {
+            return false;
+        }
+        trace.redo(array, position++);
+        return true;
+    }
+
+    /**
+     * Undoes the last step. Returns false at the start.
+     */
+    public boolean stepBack() {
+        if (position <= start()) {
+            return false;
+        }
+        trace.undo(array, --position);
+        return true;
+    }
+
+    /**
+     * Moves to the given position, clamped to start()..end().
+     */
+    public void seek(long target) {
+        target = Math.max(start(), Math.min(end(), target));
+        if (target < position && target - start() < position - target) {
+            // Replaying from the base is shorter than undoing back to the target
+            System.arraycopy(trace.baseArray(), 0, array, 0, array.length);
+            position = start();
+        }
+        while (position < target) {
+            trace.redo(array, position++);
+        }
+        while (position > target) {
+            trace.undo(array, --position);
+        }
+    }
+
+    /**
+     * Sets the playback speed; negative speeds play backwards.
+     */
+    public void setSpeed(double stepsPerSecond) {
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    public double speed() {
+        return stepsPerSecond;
+    }
+
+    public void play() {
+        playing = true;
+        lastUpdate = 0;
+        owed = 0;
+    }
+
+    public void pause() {
+        playing = false;
+    }
+
+    public boolean isPlaying() {
+        return playing;
+    }
+
+    /**
+     * Advances playback to the given time: as many steps as are due at the current speed
+     * since the previous call. Playback pauses at either end.
+     *
+     * @param now current time in nanoseconds, e.g. the argument of AnimationTimer.handle
+     * @return number of steps moved
+     */
+    public int update(long now) {
+        if (!playing) {
+            return 0;
+        }
+        if (lastUpdate == 0) {
+            lastUpdate = now;
+            return 0;
+        }
+        owed += (now - lastUpdate) / 1e9 * Math.abs(stepsPerSecond);
+        lastUpdate = now;
+        int moved = 0;
+        while (owed >= 1) {
+            if (!(stepsPerSecond >= 0 ? stepForward() : stepBack())) {
+                playing = false;
+                break;
+            }
+            owed--;
+            moved++;
+        }
+        return moved;
+    }
+}
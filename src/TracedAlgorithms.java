@@ -0,0 +1,303 @@
+/* File: TracedAlgorithms.java */
+import java.util.Arrays;
+
+/**
+ * Versions of the visualized algorithms that record every step into a
+ * {@link StepTrace} instead of drawing as they go. They run at full speed on the calling
+ * thread; a {@link TracePlayer} replays the result at whatever pace the viewer wants.
+ * <p>
+ * The algorithms are the textbook ones shown in the pseudocode panel, arranged so that
+ * every change to the array is a recorded swap or write (e.g. insertion sort moves the
+ * key by adjacent swaps). Quick sort recurses into the smaller partition only, so a
+ * sorted input does not overflow the stack.
+ * <p>
+ * The {@link CancellationToken} is polled once per outer loop iteration, recursion
+ * frame, radix pass or block of CHECK_INTERVAL elements, which also reports progress.
+ * A cancelled algorithm returns at once and leaves arr and the trace half done.
+ */
+public final class TracedAlgorithms {
+
+    private TracedAlgorithms() {
+    }
+
+    /**
+     * Runs the algorithm on arr (sorting it in place for sorts) and returns its trace.
+     * Binary search sorts arr first without recording. A successful search ends with a
+     * FOUND mark on the index found.
+     *
+     * @param arr       the input; the trace starts from a copy of it
+     * @param algorithm the algorithm to run
+     * @param target    the element to search for; ignored by sorts
+     * @param capacity  number of steps the trace retains
+     * @param token     polled while recording, and told the progress
+     * @throws IllegalArgumentException for algorithms without a traced version
+     */
+    public static StepTrace record(int[] arr, SortingAlgorithm algorithm, int target, int capacity,
+                                   CancellationToken token) {
+        if (algorithm == SortingAlgorithm.BINARY_SEARCH) {
+            SortedArrayCache.shared().sort(arr, Arrays::sort);
+        }
+        StepTrace trace = new StepTrace(arr, capacity);
+        switch (algorithm) {
+            case SELECTION_SORT -> selectionSort(arr, trace, token);
+            case INSERTION_SORT -> insertionSort(arr, trace, token);
+            case QUICK_SORT -> quickSort(arr, trace, token);
+            case MERGE_SORT -> mergeSort(arr, trace, token);
+            case RADIX_SORT -> radixSort(arr, trace, token);
+            case LINEAR_SEARCH -> linearSearch(arr, target, trace, token);
+            case BINARY_SEARCH -> binarySearch(arr, target, trace, token);
+            default -> throw new IllegalArgumentException(algorithm + " has no traced version");
+        }
+        return trace;
+    }
+
+    /**
+     * Sorts the array using Selection Sort, recording the steps.
+     */
+    public static void selectionSort(int[] arr, StepTrace trace, CancellationToken token) {
+        int n = arr.length;
+        for (int i = 0; i < n - 1; i++) {
+            if (token.checkpoint(i, n - 1)) {
+                return;
+            }
+            int minIndex = i;
+            for (int j = i + 1; j < n; j++) {
+                trace.compare(j, minIndex);
+                if (arr[j] < arr[minIndex]) {
+                    minIndex = j;
+                }
+            }
+            if (minIndex != i) {
+                swap(arr, i, minIndex, trace);
+            }
+            trace.mark(i, i, StepTrace.Mark.SORTED);
+        }
+        if (n > 0) {
+            trace.mark(n - 1, n - 1, StepTrace.Mark.SORTED);
+        }
+    }
+
+    /**
+     * Sorts the array using Insertion Sort, recording the steps.
+     */
+    public static void insertionSort(int[] arr, StepTrace trace, CancellationToken token) {
+        for (int i = 1; i < arr.length; i++) {
+            if (token.checkpoint(i - 1, arr.length - 1)) {
+                return;
+            }
+            for (int j = i - 1; j >= 0; j--) {
+                trace.compare(j, j + 1);
+                if (arr[j] <= arr[j + 1]) {
+                    break;
+                }
+                swap(arr, j, j + 1, trace);
+            }
+        }
+        if (arr.length > 0) {
+            trace.mark(0, arr.length - 1, StepTrace.Mark.SORTED);
+        }
+    }
+
+    /**
+     * Sorts the array using Quick Sort (last element as pivot), recording the steps.
+     */
+    public static void quickSort(int[] arr, StepTrace trace, CancellationToken token) {
+        quickSort(arr, 0, arr.length - 1, trace, token, new int[1]);
+    }
+
+    /**
+     * placed[0] counts the pivots put in their final position, for the progress report.
+     */
+    private static void quickSort(int[] arr, int low, int high, StepTrace trace, CancellationToken token,
+                                  int[] placed) {
+        while (low < high) {
+            if (token.checkpoint(placed[0], arr.length)) {
+                return;
+            }
+            trace.mark(low, high, StepTrace.Mark.RANGE);
+            int pivotIndex = partition(arr, low, high, trace);
+            trace.mark(pivotIndex, pivotIndex, StepTrace.Mark.SORTED);
+            placed[0]++;
+            if (pivotIndex - low < high - pivotIndex) {
+                quickSort(arr, low, pivotIndex - 1, trace, token, placed);
+                low = pivotIndex + 1;
+            } else {
+                quickSort(arr, pivotIndex + 1, high, trace, token, placed);
+                high = pivotIndex - 1;
+            }
+        }
+        if (low == high) {
+            trace.mark(low, low, StepTrace.Mark.SORTED);
+        }
+    }
+
+    private static int partition(int[] arr, int low, int high, StepTrace trace) {
+        trace.mark(high, high, StepTrace.Mark.PIVOT);
+        int pivot = arr[high];
+        int i = low - 1;
+        for (int j = low; j < high; j++) {
+            trace.compare(j, high);
+            if (arr[j] < pivot) {
+                i++;
+                if (i != j) {
+                    swap(arr, i, j, trace);
+                }
+            }
+        }
+        if (i + 1 != high) {
+            swap(arr, i + 1, high, trace);
+        }
+        return i + 1;
+    }
+
+    /**
+     * Sorts the array using Merge Sort, recording the steps. The left run of every merge
+     * is copied to a scratch buffer, which is not part of the trace; comparisons refer to
+     * the positions the two elements had before the merge.
+     */
+    public static void mergeSort(int[] arr, StepTrace trace, CancellationToken token) {
+        if (arr.length < 2) {
+            return;
+        }
+        mergeSort(arr, new int[arr.length], 0, arr.length - 1, trace, token, new int[1]);
+        if (!token.isCancelled()) {
+            trace.mark(0, arr.length - 1, StepTrace.Mark.SORTED);
+        }
+    }
+
+    /**
+     * merged[0] counts the merges done, out of arr.length - 1, for the progress report.
+     */
+    private static void mergeSort(int[] arr, int[] buffer, int l, int r, StepTrace trace, CancellationToken token,
+                                  int[] merged) {
+        if (l >= r || token.checkpoint(merged[0], arr.length - 1)) {
+            return;
+        }
+        int m = (l + r) >>> 1;
+        mergeSort(arr, buffer, l, m, trace, token, merged);
+        mergeSort(arr, buffer, m + 1, r, trace, token, merged);
+        if (token.isCancelled()) {
+            return;
+        }
+        merged[0]++;
+        trace.mark(l, r, StepTrace.Mark.RANGE);
+
+        System.arraycopy(arr, l, buffer, l, m - l + 1);
+        int i = l, j = m + 1, k = l;
+        while (i <= m && j <= r) {
+            trace.compare(i, j);
+            int value = buffer[i] <= arr[j] ? buffer[i++] : arr[j++];
+            write(arr, k++, value, trace);
+        }
+        while (i <= m) {
+            write(arr, k++, buffer[i++], trace);
+        }
+    }
+
+    /**
+     * Sorts the array using an LSD base-10 Radix Sort, recording the steps. Negative values
+     * are handled as in {@link HeadlessAlgorithms#radixSort}. Each pass is recorded as the
+     * writes that copy its output back into the array.
+     */
+    public static void radixSort(int[] arr, StepTrace trace, CancellationToken token) {
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        int min = arr[0];
+        int max = arr[0];
+        for (int value : arr) {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        long range = (long) max - min;
+        int passes = 0;
+        for (long exp = 1; range / exp > 0; exp *= 10) {
+            passes++;
+        }
+        int[] output = new int[n];
+        int pass = 0;
+        for (long exp = 1; range / exp > 0; exp *= 10, pass++) {
+            if (token.checkpoint((long) pass * n, (long) passes * n)) {
+                return;
+            }
+            trace.mark(0, n - 1, StepTrace.Mark.RANGE);
+            int[] count = new int[10];
+            for (int value : arr) {
+                count[(int) (((long) value - min) / exp % 10)]++;
+            }
+            for (int d = 1; d < 10; d++) {
+                count[d] += count[d - 1];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                output[--count[(int) (((long) arr[i] - min) / exp % 10)]] = arr[i];
+            }
+            for (int i = 0; i < n; i++) {
+                if ((i & (CancellationToken.CHECK_INTERVAL - 1)) == 0 && i > 0
+                        && token.checkpoint((long) pass * n + i, (long) passes * n)) {
+                    return;
+                }
+                write(arr, i, output[i], trace);
+            }
+        }
+        trace.mark(0, n - 1, StepTrace.Mark.SORTED);
+    }
+
+    /**
+     * Returns the index of the first occurrence of target, or -1, recording every probe.
+     */
+    public static int linearSearch(int[] arr, int target, StepTrace trace, CancellationToken token) {
+        for (int i = 0; i < arr.length; i++) {
+            if ((i & (CancellationToken.CHECK_INTERVAL - 1)) == 0 && token.checkpoint(i, arr.length)) {
+                return -1;
+            }
+            trace.probe(i);
+            if (arr[i] == target) {
+                trace.mark(i, i, StepTrace.Mark.FOUND);
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search over a sorted array, recording the remaining range and every probe.
+     * Returns the index of any matching element, or -1. Progress is reported as the share
+     * of the at most log2(n) + 1 probes made.
+     */
+    public static int binarySearch(int[] arr, int target, StepTrace trace, CancellationToken token) {
+        int low = 0;
+        int high = arr.length - 1;
+        int maxProbes = 32 - Integer.numberOfLeadingZeros(arr.length);
+        int probes = 0;
+        while (low <= high) {
+            if (token.checkpoint(probes++, maxProbes)) {
+                return -1;
+            }
+            trace.mark(low, high, StepTrace.Mark.RANGE);
+            int mid = (low + high) >>> 1;
+            trace.probe(mid);
+            if (arr[mid] < target) {
+                low = mid + 1;
+            } else if (arr[mid] > target) {
+                high = mid - 1;
+            } else {
+                trace.mark(mid, mid, StepTrace.Mark.FOUND);
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static void swap(int[] arr, int i, int j, StepTrace trace) {
+        int temp = arr[i];
+        arr[i] = arr[j];
+        arr[j] = temp;
+        trace.swap(i, j);
+    }
+
+    private static void write(int[] arr, int index, int value, StepTrace trace) {
+        trace.write(index, value, arr[index]);
+        arr[index] = value;
+    }
+}
@@ -0,0 +1,78 @@
+/* File: VectorLinearSearch.java */
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Linear Search on the incubating Vector API: every step compares a whole IntVector
+ * (8 lanes with AVX2, 16 with AVX-512) against the key.
+ * Needs --add-modules jdk.incubator.vector at compile and run time; callers should go
+ * through {@link LinearSearchEngine}, which falls back to a scalar loop otherwise.
+ */
+final class VectorLinearSearch {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private VectorLinearSearch() {
+    }
+
+    static int indexOf(int[] arr, int key) {
+        return indexOf(arr, key, 0, arr.length);
+    }
+
+    /**
+     * Returns the index of the first occurrence of key in arr[from, to), or -1.
+     */
+    static int indexOf(int[] arr, int key, int from, int to) {
+        int i = from;
+        int bound = from + SPECIES.loopBound(to - from);
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Integer> matches = IntVector.fromArray(SPECIES, arr, i).compare(VectorOperators.EQ, key);
+            if (matches.anyTrue()) {
+                return i + matches.firstTrue();
+            }
+        }
+        for (; i < to; i++) {
+            if (arr[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int count(int[] arr, int key) {
+        int count = 0;
+        int i = 0;
+        int bound = SPECIES.loopBound(arr.length);
+        for (; i < bound; i += SPECIES.length()) {
+            count += IntVector.fromArray(SPECIES, arr, i).compare(VectorOperators.EQ, key).trueCount();
+        }
+        for (; i < arr.length; i++) {
+            if (arr[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    static int[] indicesOf(int[] arr, int key) {
+        int[] indices = new int[count(arr, key)];
+        int found = 0;
+        int i = 0;
+        int bound = SPECIES.loopBound(arr.length);
+        for (; i < bound && found < indices.length; i += SPECIES.length()) {
+            long bits = IntVector.fromArray(SPECIES, arr, i).compare(VectorOperators.EQ, key).toLong();
+            while (bits != 0) {
+                indices[found++] = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        for (; i < arr.length && found < indices.length; i++) {
+            if (arr[i] == key) {
+                indices[found++] = i;
+            }
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,208 @@
+/* File: SortedIntListTest.java */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks {@link SortedIntList} against a plain sorted list. The block size is kept tiny
+ * so that adds split blocks and removes join them after a few operations; after every
+ * batch of updates all queries (get, rank, upperRank, count, contains, indexOf and
+ * toArray) are compared with the reference.
+ * <p>
+ * Run as a main class; a failure throws AssertionError, see the README.
+ */
+public final class SortedIntListTest {
+
+    private static final Random RANDOM = new Random(7);
+
+    private SortedIntListTest() {
+    }
+
+    public static void main(String[] args) {
+        testEmpty();
+        testLoadIsChecked();
+        testOf();
+        for (int load : new int[] {4, 5, 16, SortedIntList.DEFAULT_LOAD}) {
+            testRandomUpdates(load, 20);
+            testRandomUpdates(load, 1 << 20);
+            testAppends(load);
+            testGrowThenShrink(load);
+        }
+        System.out.println("SortedIntListTest passed");
+    }
+
+    private static void testEmpty() {
+        SortedIntList list = new SortedIntList();
+        check(list.isEmpty() && list.size() == 0, "new list is not empty");
+        check(list.rank(5) == 0 && list.upperRank(5) == 0 && list.count(5) == 0, "empty list ranks");
+        check(!list.contains(5) && list.indexOf(5) == -1, "empty list contains a value");
+        check(!list.remove(5), "removed from an empty list");
+        check(list.toArray().length == 0, "empty list has values");
+        expectOutOfBounds(list, 0);
+    }
+
+    private static void testLoadIsChecked() {
+        try {
+            new SortedIntList(3);
+            throw new AssertionError("block size 3 was accepted");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static void testOf() {
+        int[] values = {5, -1, 5, Integer.MAX_VALUE, Integer.MIN_VALUE, 0, 5};
+        int[] original = values.clone();
+        SortedIntList list = SortedIntList.of(values);
+        check(Arrays.equals(original, values), "of modified its argument");
+        int[] sorted = original.clone();
+        Arrays.sort(sorted);
+        check(Arrays.equals(sorted, list.toArray()), "of did not sort");
+        check(list.count(5) == 3 && list.rank(5) == 3 && list.indexOf(5) == 3, "of ranks");
+        check(list.get(0) == Integer.MIN_VALUE && list.get(6) == Integer.MAX_VALUE, "of extremes");
+    }
+
+    /**
+     * Random adds and removes over the given value range; a small range means many
+     * duplicates spread over several blocks.
+     */
+    private static void testRandomUpdates(int load, int range) {
+        SortedIntList list = new SortedIntList(load);
+        List<Integer> reference = new ArrayList<>();
+        for (int round = 0; round < 40; round++) {
+            int updates = 1 + RANDOM.nextInt(200);
+            boolean growing = round % 4 != 3;
+            for (int i = 0; i < updates; i++) {
+                int value = RANDOM.nextInt(range) - range / 2;
+                if (growing || RANDOM.nextInt(4) == 0) {
+                    list.add(value);
+                    insert(reference, value);
+                } else {
+                    if (!reference.isEmpty() && RANDOM.nextBoolean()) {
+                        // Remove a value that is present
+                        value = reference.get(RANDOM.nextInt(reference.size()));
+                    }
+                    boolean removed = reference.remove((Integer) value);
+                    check(list.remove(value) == removed, "remove(" + value + ") returned " + !removed);
+                }
+            }
+            verify(list, reference, range);
+        }
+    }
+
+    /**
+     * Appends in small trickles (merged one by one) and large batches (merged in bulk),
+     * mixed with adds and removes.
+     */
+    private static void testAppends(int load) {
+        SortedIntList list = new SortedIntList(load);
+        List<Integer> reference = new ArrayList<>();
+        for (int round = 0; round < 30; round++) {
+            int count = round % 3 == 0 ? 1 + RANDOM.nextInt(3) : RANDOM.nextInt(500);
+            int[] values = RANDOM.ints(count, -1000, 1000).toArray();
+            if (round % 2 == 0) {
+                list.appendAll(values);
+            } else {
+                for (int value : values) {
+                    list.append(value);
+                }
+            }
+            for (int value : values) {
+                insert(reference, value);
+            }
+            check(list.size() == reference.size(), "size counts the pending values");
+            if (round % 5 == 4) {
+                int value = RANDOM.nextInt(2000) - 1000;
+                check(list.remove(value) == reference.remove((Integer) value), "remove after append");
+            }
+            verify(list, reference, 2000);
+        }
+        list.clear();
+        check(list.isEmpty() && list.toArray().length == 0, "clear left values");
+        list.append(3);
+        list.add(1);
+        check(Arrays.equals(new int[] {1, 3}, list.toArray()), "list is unusable after clear");
+    }
+
+    /**
+     * Fills many blocks with ascending values, then removes all of them from the front,
+     * which joins every block with its neighbour on the way down.
+     */
+    private static void testGrowThenShrink(int load) {
+        SortedIntList list = new SortedIntList(load);
+        List<Integer> reference = new ArrayList<>();
+        int n = 20 * load;
+        for (int i = 0; i < n; i++) {
+            list.add(i);
+            reference.add(i);
+        }
+        verify(list, reference, n);
+        for (int i = 0; i < n; i++) {
+            check(list.remove(i), "remove(" + i + ") missed");
+            reference.remove(0);
+            if (i % load == 0) {
+                verify(list, reference, n);
+            }
+        }
+        check(list.isEmpty(), "list is not empty after removing everything");
+    }
+
+    private static void verify(SortedIntList list, List<Integer> reference, int range) {
+        int n = reference.size();
+        check(list.size() == n, "size " + list.size() + " instead of " + n);
+        int[] expected = reference.stream().mapToInt(Integer::intValue).toArray();
+        check(Arrays.equals(expected, list.toArray()), "toArray differs");
+        for (int i = 0; i < n; i++) {
+            check(list.get(i) == expected[i], "get(" + i + ") differs");
+        }
+        expectOutOfBounds(list, -1);
+        expectOutOfBounds(list, n);
+        for (int probe = 0; probe < 50; probe++) {
+            int value = probe < 10 && n > 0 ? expected[RANDOM.nextInt(n)] : RANDOM.nextInt(range + 2) - range / 2 - 1;
+            int rank = lowerBound(expected, value);
+            int upperRank = lowerBound(expected, value + 1L);
+            check(list.rank(value) == rank, "rank(" + value + ") differs");
+            check(list.upperRank(value) == upperRank, "upperRank(" + value + ") differs");
+            check(list.count(value) == upperRank - rank, "count(" + value + ") differs");
+            check(list.contains(value) == upperRank > rank, "contains(" + value + ") differs");
+            check(list.indexOf(value) == (upperRank > rank ? rank : -1), "indexOf(" + value + ") differs");
+        }
+    }
+
+    private static void insert(List<Integer> sorted, int value) {
+        int position = Collections.binarySearch(sorted, value);
+        sorted.add(position < 0 ? -position - 1 : position, value);
+    }
+
+    /** Number of values in the sorted array that are less than value. */
+    private static int lowerBound(int[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void expectOutOfBounds(SortedIntList list, int position) {
+        try {
+            list.get(position);
+            throw new AssertionError("get(" + position + ") did not throw");
+        } catch (IndexOutOfBoundsException expected) {
+            // expected
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
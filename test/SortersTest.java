@@ -0,0 +1,227 @@
+/* File: SortersTest.java */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Checks every sort and search engine of the default {@link AlgorithmRegistry} against
+ * Arrays.sort and a plain scan, with and without a {@link CancellationToken}, and checks
+ * that a cancelled token stops the engines early without losing elements.
+ * <p>
+ * Run as a main class; a failure throws AssertionError, see the README. With
+ * -Dsearchsort.metrics=true it also checks that every engine reports its work.
+ */
+public final class SortersTest {
+
+    private static final Random RANDOM = new Random(11);
+    /** Large enough for every engine to reach its first check, and for the parallel paths. */
+    private static final int LARGE_SIZE = 1 << 18;
+    /** Largest input given to the engines that are quadratic on some of the inputs. */
+    private static final int QUADRATIC_SIZE = 20_000;
+
+    private SortersTest() {
+    }
+
+    public static void main(String[] args) {
+        List<Sorter> sorters = sorters();
+        for (int size : new int[] {0, 1, 2, 31, 100, 5_000, QUADRATIC_SIZE, LARGE_SIZE}) {
+            for (int[] input : inputs(size)) {
+                for (Sorter sorter : sorters) {
+                    if (size <= QUADRATIC_SIZE || !isQuadratic(sorter)) {
+                        testSort(sorter, input);
+                    }
+                }
+                testSearches(input);
+            }
+        }
+        for (Sorter sorter : sorters) {
+            testCancelledSort(sorter);
+            testProgress(sorter);
+            if (Metrics.ENABLED) {
+                testMetrics(sorter);
+            }
+        }
+        testCancelledSearch();
+        testSmallCutoffs();
+        System.out.println("SortersTest passed");
+    }
+
+    private static List<Sorter> sorters() {
+        List<Sorter> sorters = new ArrayList<>();
+        for (SortingAlgorithm algorithm : SortingAlgorithm.values()) {
+            if (!algorithm.isSearch()) {
+                sorters.addAll(AlgorithmRegistry.getDefault().sorters(algorithm));
+            }
+        }
+        return sorters;
+    }
+
+    /**
+     * Selection and insertion sort, and the textbook quick sort on sorted input.
+     */
+    private static boolean isQuadratic(Sorter sorter) {
+        return sorter.algorithm() == SortingAlgorithm.SELECTION_SORT
+                || sorter.algorithm() == SortingAlgorithm.INSERTION_SORT || sorter.name().equals("QUICK_SORT");
+    }
+
+    /**
+     * Random values in a small range, so counting sort accepts them, plus sorted,
+     * reversed and few-distinct variants.
+     */
+    private static List<int[]> inputs(int size) {
+        int[] random = new int[size];
+        for (int i = 0; i < size; i++) {
+            random[i] = RANDOM.nextInt(4 * size + 1) - 2 * size;
+        }
+        int[] sorted = random.clone();
+        Arrays.sort(sorted);
+        int[] reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = sorted[size - 1 - i];
+        }
+        int[] fewDistinct = new int[size];
+        for (int i = 0; i < size; i++) {
+            fewDistinct[i] = RANDOM.nextInt(4);
+        }
+        return List.of(random, sorted, reversed, fewDistinct);
+    }
+
+    private static void testSort(Sorter sorter, int[] input) {
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        int[] plain = input.clone();
+        sorter.sort(plain);
+        check(Arrays.equals(expected, plain), sorter.name() + " sorted " + input.length + " elements wrongly");
+        int[] withToken = input.clone();
+        sorter.sort(withToken, new CancellationToken());
+        check(Arrays.equals(expected, withToken),
+                sorter.name() + " sorted " + input.length + " elements wrongly with a token");
+    }
+
+    private static void testSearches(int[] input) {
+        int[] sorted = input.clone();
+        Arrays.sort(sorted);
+        for (SortingAlgorithm algorithm : List.of(SortingAlgorithm.LINEAR_SEARCH, SortingAlgorithm.BINARY_SEARCH)) {
+            for (Searcher searcher : AlgorithmRegistry.getDefault().searchers(algorithm)) {
+                int[] table = searcher.requiresSortedInput() ? sorted : input;
+                for (int k = 0; k < 20; k++) {
+                    int target = table.length > 0 && k % 2 == 0
+                            ? table[RANDOM.nextInt(table.length)] : RANDOM.nextInt();
+                    checkFound(searcher, table, target, searcher.search(table, target));
+                    checkFound(searcher, table, target, searcher.search(table, target, new CancellationToken()));
+                }
+            }
+        }
+    }
+
+    private static void checkFound(Searcher searcher, int[] table, int target, int index) {
+        boolean present = Arrays.stream(table).anyMatch(value -> value == target);
+        if (present) {
+            check(index >= 0 && table[index] == target, searcher.name() + " missed " + target);
+        } else {
+            check(index == -1, searcher.name() + " found the absent " + target);
+        }
+    }
+
+    /**
+     * An engine given a cancelled token must return without sorting and, except for
+     * parallel merge sort whose buffer may hold half the data, keep every element.
+     */
+    private static void testCancelledSort(Sorter sorter) {
+        int[] input = new int[LARGE_SIZE];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = RANDOM.nextInt(LARGE_SIZE) - LARGE_SIZE / 2;
+        }
+        int[] expected = input.clone();
+        Arrays.sort(expected);
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        int[] arr = input.clone();
+        sorter.sort(arr, token);
+        check(!Arrays.equals(expected, arr), sorter.name() + " ignored a cancelled token");
+        if (!sorter.name().equals("PARALLEL_MERGE_SORT")) {
+            int[] kept = arr.clone();
+            Arrays.sort(kept);
+            check(Arrays.equals(expected, kept), sorter.name() + " lost elements when cancelled");
+        }
+    }
+
+    /**
+     * Progress reports stay between 0 and 1 and arrive before the sort returns.
+     */
+    private static void testProgress(Sorter sorter) {
+        int[] arr = new int[isQuadratic(sorter) ? QUADRATIC_SIZE : LARGE_SIZE];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = RANDOM.nextInt(arr.length);
+        }
+        long[] reports = new long[1];
+        CancellationToken token = new CancellationToken((done, total) -> {
+            check(done >= 0 && total > 0, sorter.name() + " reported " + done + " of " + total);
+            reports[0]++;
+        });
+        sorter.sort(arr, token);
+        check(reports[0] > 0, sorter.name() + " reported no progress");
+        check(token.progress() >= 0 && token.progress() <= 1, sorter.name() + " progress " + token.progress());
+    }
+
+    /**
+     * Every built-in engine reports comparisons or writes on random input, so the race
+     * table never shows a false 0.
+     */
+    private static void testMetrics(Sorter sorter) {
+        int[] arr = new int[isQuadratic(sorter) ? QUADRATIC_SIZE : LARGE_SIZE];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = RANDOM.nextInt(arr.length);
+        }
+        RunStats stats;
+        try (Metrics.Run run = Metrics.open(sorter.name(), arr.length)) {
+            sorter.sort(arr);
+            stats = run.stats();
+        }
+        check(!stats.isEmpty() && stats.comparisons() + stats.writes() > 0,
+                sorter.name() + " reported no work: " + stats);
+    }
+
+    private static void testCancelledSearch() {
+        int[] table = new int[LARGE_SIZE];
+        CancellationToken token = new CancellationToken();
+        token.cancel();
+        for (Searcher searcher : AlgorithmRegistry.getDefault().searchers(SortingAlgorithm.LINEAR_SEARCH)) {
+            try {
+                searcher.search(table, 1, token);
+                throw new AssertionError(searcher.name() + " ignored a cancelled token");
+            } catch (CancellationException expected) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * The smallest cutoffs parallel merge sort accepts still split every merge, and a
+     * parallel threshold of 1 is rejected instead of recursing forever.
+     */
+    private static void testSmallCutoffs() {
+        for (int[] input : inputs(1_000)) {
+            int[] expected = input.clone();
+            Arrays.sort(expected);
+            int[] arr = input.clone();
+            ParallelMergeSort.sort(arr, ForkJoinPool.commonPool(), 1, 2);
+            check(Arrays.equals(expected, arr), "PARALLEL_MERGE_SORT sorted wrongly with cutoffs 1 and 2");
+        }
+        try {
+            ParallelMergeSort.sort(new int[] {2, 1}, ForkJoinPool.commonPool(), 1, 1);
+            throw new AssertionError("PARALLEL_MERGE_SORT accepted a parallel threshold of 1");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/* File: TypedAlgorithmsTest.java */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Checks the typed algorithm classes ({@link LongAlgorithms}, {@link DoubleAlgorithms},
+ * {@link FloatAlgorithms}, {@link ShortAlgorithms}, {@link ByteAlgorithms},
+ * {@link CharAlgorithms} and {@link ObjectAlgorithms}) against Arrays.sort: every sort
+ * must produce exactly what Arrays.sort produces, including the order of NaN, -0.0 and
+ * 0.0, and the searches must find every value of the sorted array and report the
+ * missing ones. Sizes cross the insertion sort and merge run thresholds.
+ * <p>
+ * Run as a main class; a failure throws AssertionError, see the README.
+ */
+public final class TypedAlgorithmsTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 7, 16, 31, 32, 33, 47, 64, 100, 257, 1000, 4099};
+    private static final Random RANDOM = new Random(42);
+
+    private TypedAlgorithmsTest() {
+    }
+
+    public static void main(String[] args) {
+        testLong();
+        testDouble();
+        testFloat();
+        testShort();
+        testByte();
+        testChar();
+        testObject();
+        System.out.println("TypedAlgorithmsTest passed");
+    }
+
+    private static void testLong() {
+        List<Consumer<long[]>> sorts = List.of(LongAlgorithms::selectionSort, LongAlgorithms::insertionSort,
+                LongAlgorithms::quickSort, LongAlgorithms::mergeSort, LongAlgorithms::radixSort);
+        long[] specials = {Long.MIN_VALUE, Long.MAX_VALUE, -1, 0, 1};
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 4; shape++) {
+                long[] input = new long[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = switch (shape) {
+                        case 0 -> RANDOM.nextLong();
+                        case 1 -> RANDOM.nextInt(8) - 4;
+                        case 2 -> specials[RANDOM.nextInt(specials.length)];
+                        default -> n - i;
+                    };
+                }
+                long[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    long[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "long sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                for (long value : input) {
+                    check(LongAlgorithms.linearSearch(input, value) >= 0, "long linear search missed " + value);
+                    int found = LongAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && expected[found] == value, "long binary search missed " + value);
+                }
+                long missing = 5;
+                boolean present = false;
+                for (long value : input) {
+                    present |= value == missing;
+                }
+                if (!present) {
+                    check(LongAlgorithms.linearSearch(input, missing) == -1, "long linear search found a missing value");
+                    check(LongAlgorithms.binarySearch(expected, missing) == -1, "long binary search found a missing value");
+                }
+            }
+        }
+    }
+
+    private static void testDouble() {
+        List<Consumer<double[]>> sorts = List.of(DoubleAlgorithms::selectionSort, DoubleAlgorithms::insertionSort,
+                DoubleAlgorithms::quickSort, DoubleAlgorithms::mergeSort, DoubleAlgorithms::radixSort);
+        double[] specials = {Double.NaN, Double.longBitsToDouble(0x7FF0_0000_0000_0001L), -0.0, 0.0,
+                Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.MAX_VALUE, -Double.MAX_VALUE, 1.5, -1.5};
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 4; shape++) {
+                double[] input = new double[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = switch (shape) {
+                        case 0 -> RANDOM.nextGaussian();
+                        case 1 -> RANDOM.nextInt(4) - 2;
+                        case 2 -> specials[RANDOM.nextInt(specials.length)];
+                        default -> RANDOM.nextBoolean() ? -0.0 : 0.0;
+                    };
+                }
+                double[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    double[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    // Arrays.equals compares by doubleToLongBits: -0.0 differs from 0.0, all NaNs are equal
+                    check(Arrays.equals(expected, actual), "double sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                for (double value : input) {
+                    check(DoubleAlgorithms.linearSearch(input, value) >= 0, "double linear search missed " + value);
+                    int found = DoubleAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && Double.compare(expected[found], value) == 0,
+                            "double binary search missed " + value);
+                }
+                if (Arrays.stream(input).noneMatch(value -> Double.compare(value, -0.0) == 0)) {
+                    check(DoubleAlgorithms.linearSearch(input, -0.0) == -1, "double linear search took 0.0 for -0.0");
+                    check(DoubleAlgorithms.binarySearch(expected, -0.0) == -1, "double binary search took 0.0 for -0.0");
+                }
+            }
+        }
+    }
+
+    private static void testFloat() {
+        List<Consumer<float[]>> sorts = List.of(FloatAlgorithms::selectionSort, FloatAlgorithms::insertionSort,
+                FloatAlgorithms::quickSort, FloatAlgorithms::mergeSort, FloatAlgorithms::radixSort);
+        float[] specials = {Float.NaN, Float.intBitsToFloat(0x7F80_0001), -0.0f, 0.0f,
+                Float.NEGATIVE_INFINITY, Float.POSITIVE_INFINITY, Float.MIN_VALUE, -Float.MIN_VALUE,
+                Float.MAX_VALUE, -Float.MAX_VALUE, 1.5f, -1.5f};
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 4; shape++) {
+                float[] input = new float[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = switch (shape) {
+                        case 0 -> (float) RANDOM.nextGaussian();
+                        case 1 -> RANDOM.nextInt(4) - 2;
+                        case 2 -> specials[RANDOM.nextInt(specials.length)];
+                        default -> RANDOM.nextBoolean() ? -0.0f : 0.0f;
+                    };
+                }
+                float[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    float[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "float sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                boolean hasNegativeZero = false;
+                for (float value : input) {
+                    check(FloatAlgorithms.linearSearch(input, value) >= 0, "float linear search missed " + value);
+                    int found = FloatAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && Float.compare(expected[found], value) == 0,
+                            "float binary search missed " + value);
+                    hasNegativeZero |= Float.compare(value, -0.0f) == 0;
+                }
+                if (!hasNegativeZero) {
+                    check(FloatAlgorithms.linearSearch(input, -0.0f) == -1, "float linear search took 0.0 for -0.0");
+                    check(FloatAlgorithms.binarySearch(expected, -0.0f) == -1, "float binary search took 0.0 for -0.0");
+                }
+            }
+        }
+    }
+
+    private static void testShort() {
+        List<Consumer<short[]>> sorts = List.of(ShortAlgorithms::selectionSort, ShortAlgorithms::insertionSort,
+                ShortAlgorithms::quickSort, ShortAlgorithms::mergeSort, ShortAlgorithms::radixSort);
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 3; shape++) {
+                short[] input = new short[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = (short) switch (shape) {
+                        case 0 -> RANDOM.nextInt(1 << 16);
+                        case 1 -> RANDOM.nextInt(8) - 4;
+                        default -> n - i;
+                    };
+                }
+                short[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    short[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "short sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                for (short value : input) {
+                    check(ShortAlgorithms.linearSearch(input, value) >= 0, "short linear search missed " + value);
+                    int found = ShortAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && expected[found] == value, "short binary search missed " + value);
+                }
+            }
+        }
+    }
+
+    private static void testByte() {
+        List<Consumer<byte[]>> sorts = List.of(ByteAlgorithms::selectionSort, ByteAlgorithms::insertionSort,
+                ByteAlgorithms::quickSort, ByteAlgorithms::mergeSort, ByteAlgorithms::radixSort);
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 3; shape++) {
+                byte[] input = new byte[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = (byte) switch (shape) {
+                        case 0 -> RANDOM.nextInt(1 << 8);
+                        case 1 -> RANDOM.nextInt(4) - 2;
+                        default -> n - i;
+                    };
+                }
+                byte[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    byte[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "byte sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                for (byte value : input) {
+                    check(ByteAlgorithms.linearSearch(input, value) >= 0, "byte linear search missed " + value);
+                    int found = ByteAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && expected[found] == value, "byte binary search missed " + value);
+                }
+            }
+        }
+    }
+
+    private static void testChar() {
+        List<Consumer<char[]>> sorts = List.of(CharAlgorithms::selectionSort, CharAlgorithms::insertionSort,
+                CharAlgorithms::quickSort, CharAlgorithms::mergeSort, CharAlgorithms::radixSort);
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 3; shape++) {
+                char[] input = new char[n];
+                for (int i = 0; i < n; i++) {
+                    input[i] = (char) switch (shape) {
+                        case 0 -> RANDOM.nextInt(1 << 16);
+                        case 1 -> 'a' + RANDOM.nextInt(4);
+                        default -> n - i;
+                    };
+                }
+                char[] expected = input.clone();
+                Arrays.sort(expected);
+                for (int s = 0; s < sorts.size(); s++) {
+                    char[] actual = input.clone();
+                    sorts.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "char sort " + s + " failed for n=" + n + " shape " + shape);
+                }
+                for (char value : input) {
+                    check(CharAlgorithms.linearSearch(input, value) >= 0, "char linear search missed " + (int) value);
+                    int found = CharAlgorithms.binarySearch(expected, value);
+                    check(found >= 0 && expected[found] == value, "char binary search missed " + (int) value);
+                }
+            }
+        }
+    }
+
+    /** A key with the position it started at, to see whether equal keys kept their order. */
+    private record Item(String key, int position) {
+    }
+
+    private static void testObject() {
+        Comparator<Item> byKey = Comparator.comparing(Item::key);
+        List<Consumer<Item[]>> stable = List.of(
+                arr -> ObjectAlgorithms.insertionSort(arr, byKey),
+                arr -> ObjectAlgorithms.mergeSort(arr, byKey));
+        List<Consumer<Item[]>> unstable = List.of(
+                arr -> ObjectAlgorithms.selectionSort(arr, byKey),
+                arr -> ObjectAlgorithms.quickSort(arr, byKey));
+        Function<Item[], String[]> keys = arr -> Arrays.stream(arr).map(Item::key).toArray(String[]::new);
+        for (int n : SIZES) {
+            for (int shape = 0; shape < 4; shape++) {
+                Item[] input = new Item[n];
+                for (int i = 0; i < n; i++) {
+                    String key = switch (shape) {
+                        case 0 -> Integer.toString(RANDOM.nextInt(), 36);
+                        case 1 -> "k" + RANDOM.nextInt(5);
+                        case 2 -> String.format("%05d", i / 3);
+                        default -> String.format("%05d", n - i);
+                    };
+                    input[i] = new Item(key, i);
+                }
+                Item[] expected = input.clone();
+                Arrays.sort(expected, byKey);
+                for (int s = 0; s < stable.size(); s++) {
+                    Item[] actual = input.clone();
+                    stable.get(s).accept(actual);
+                    check(Arrays.equals(expected, actual), "stable object sort " + s + " failed for n=" + n
+                            + " shape " + shape);
+                }
+                for (int s = 0; s < unstable.size(); s++) {
+                    Item[] actual = input.clone();
+                    unstable.get(s).accept(actual);
+                    check(Arrays.equals(keys.apply(expected), keys.apply(actual)), "object sort " + s
+                            + " failed for n=" + n + " shape " + shape);
+                }
+                for (Item item : input) {
+                    check(ObjectAlgorithms.linearSearch(input, item) == item.position(), "object linear search missed " + item);
+                    int found = ObjectAlgorithms.binarySearch(expected, item, byKey);
+                    check(found >= 0 && expected[found].key().equals(item.key()), "object binary search missed " + item);
+                }
+                Item missing = new Item("~", -1);
+                check(ObjectAlgorithms.linearSearch(input, missing) == -1, "object linear search found a missing item");
+                check(ObjectAlgorithms.binarySearch(expected, missing, byKey) == -1,
+                        "object binary search found a missing item");
+            }
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}